@@ -0,0 +1,68 @@
+package com.sayedbaladoh.phonenumbers;
+
+import java.io.File;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sayedbaladoh.phonenumbers.generator.CustomerDataGenerator;
+
+/**
+ * The application context shared by the benchmarks, started against a
+ * generated SQLite file of <code>rows</code> customers.
+ *
+ * The file is kept under <code>target/benchmark</code> and filled once per
+ * size by <code>CustomerDataGenerator</code>, e.g. <code>-p rows=1000000</code>.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+	@Param({ "10000" })
+	public int rows;
+
+	private ConfigurableApplicationContext context;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		File database = new File("target/benchmark/customers-" + rows + ".db");
+		database.getParentFile().mkdirs();
+
+		context = SpringApplication.run(PhoneNumbersApplication.class,
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:sqlite:" + database.getPath(),
+				"--spring.jpa.show-sql=false",
+				"--backfill.enabled=false",
+				"--logging.level.root=WARN");
+
+		generate();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	/**
+	 * Insert synthetic customers until the table holds <code>rows</code>
+	 * customers.
+	 */
+	private void generate() {
+		long count = getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM customers", Long.class);
+		if (count < rows)
+			getBean(CustomerDataGenerator.class).generate(rows - count);
+	}
+}
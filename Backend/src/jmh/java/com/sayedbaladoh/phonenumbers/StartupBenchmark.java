@@ -0,0 +1,90 @@
+package com.sayedbaladoh.phonenumbers;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Application startup benchmark: the time from the start of the application
+ * to the response of its first request, against an existing database as on a
+ * container restart.
+ *
+ * Each fork measures a single cold start, the forks set the number of samples,
+ * e.g. <code>-Djmh.args="StartupBenchmark -f 5 -rf json -rff target/jmh-result.json"</code>.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(5)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+
+	@Param({ "default", "prod" })
+	public String profile;
+
+	private File database;
+	private ConfigurableApplicationContext context;
+
+	/**
+	 * Create and seed the database once, the measured start finds it up to
+	 * date.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = new File("target/benchmark/startup.db");
+		database.getParentFile().mkdirs();
+		start().close();
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() {
+		if (context != null)
+			context.close();
+	}
+
+	@Benchmark
+	public int timeToFirstRequest() throws Exception {
+		context = start();
+		int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+		HttpResponse<String> response = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/customers?size=1")).build(),
+				BodyHandlers.ofString());
+		if (response.statusCode() != 200)
+			throw new IllegalStateException("First request failed: " + response.statusCode());
+		return response.statusCode();
+	}
+
+	private ConfigurableApplicationContext start() {
+		return SpringApplication.run(PhoneNumbersApplication.class,
+				"--server.port=0",
+				"--spring.profiles.active=" + profile,
+				"--spring.datasource.url=jdbc:sqlite:" + database.getPath(),
+				"--spring.jpa.show-sql=false",
+				"--backfill.enabled=false",
+				"--logging.level.root=WARN");
+	}
+}
@@ -0,0 +1,49 @@
+package com.sayedbaladoh.phonenumbers.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sayedbaladoh.phonenumbers.BenchmarkContext;
+import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+
+/**
+ * Jackson serialization benchmark of a <code>Page&lt;Customer&gt;</code> as
+ * returned by the customer listing endpoints.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerSerializationBenchmark {
+
+	@Param({ "20", "100" })
+	private int pageSize;
+
+	private ObjectMapper objectMapper;
+	private Page<Customer> page;
+
+	@Setup
+	public void setUp(BenchmarkContext context) {
+		objectMapper = context.getBean(ObjectMapper.class);
+		page = context.getBean(CustomerRepository.class).findAll(PageRequest.of(1, pageSize));
+	}
+
+	@Benchmark
+	public byte[] page() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(page);
+	}
+}
@@ -0,0 +1,84 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.sayedbaladoh.phonenumbers.model.Country;
+import com.sayedbaladoh.phonenumbers.model.DialCode;
+import com.sayedbaladoh.phonenumbers.registry.DialCodeTrie;
+
+/**
+ * Phone number validation benchmark, the regular expressions previously run by
+ * <code>@Pattern</code> and <code>CountryDialCodeValidator</code> against a
+ * single <code>PhoneNumberTokenizer</code> scan.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PhoneNumberTokenizerBenchmark {
+
+	private static final Pattern PHONE_PATTERN = Pattern
+			.compile("^((\\(\\d{1,6}\\))|\\d{1,6})[- .]?(\\d{3}[- .]?){2}\\d{1,4}$");
+
+	private static final String DIAL_CODE_REGEX = "^(\\(\\d{1,6}\\))[- .]?(\\d{3}[- .]?){2}\\d{1,4}$";
+
+	@Param({ "(212) 6007989253", "(258) 847651504", "(256) 7503O6263", "251 914-701-723" })
+	private String phone;
+
+	private List<Country> countries;
+	private Set<String> isds;
+	private DialCodeTrie trie;
+	private PhoneNumberToken token;
+
+	@Setup
+	public void setUp() {
+		countries = Arrays.asList(
+				new Country(38L, "Canada", "CA", "CAN", "1"),
+				new Country(142L, "Morocco", "MA", "MAR", "212"),
+				new Country(155L, "Mozambique", "MZ", "MOZ", "258"),
+				new Country(40L, "Cameroon", "CM", "CMR", "237"),
+				new Country(70L, "Ethiopia", "ET", "ETH", "251"),
+				new Country(226L, "Uganda", "UG", "UGA", "256"));
+		isds = countries.stream().map(Country::getIsd).collect(Collectors.toSet());
+		trie = DialCodeTrie.of(countries);
+		token = new PhoneNumberToken();
+	}
+
+	/**
+	 * The format pattern, then the dial code pattern compiled by
+	 * <code>String.matches</code> and the ISD <code>substring</code>.
+	 */
+	@Benchmark
+	public boolean regex() {
+		if (!PHONE_PATTERN.matcher(phone).matches())
+			return false;
+		if (phone.matches(DIAL_CODE_REGEX))
+			return isds.contains(phone.substring(1, phone.indexOf(")")));
+		return true;
+	}
+
+	@Benchmark
+	public boolean tokenizer() {
+		PhoneNumberTokenizer.tokenize(phone, token);
+		if (!token.isWellFormed())
+			return false;
+		DialCode dialCode = trie.resolve(token);
+		return dialCode != null;
+	}
+}
@@ -0,0 +1,84 @@
+package com.sayedbaladoh.phonenumbers.repository;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.sayedbaladoh.phonenumbers.BenchmarkContext;
+import com.sayedbaladoh.phonenumbers.model.CustomerFields;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+import com.sayedbaladoh.phonenumbers.reader.CustomerProjectionReader;
+
+/**
+ * Customer queries benchmark against the generated customers, the pages as
+ * served by <code>CustomerProjectionReader</code> and the lookups of the
+ * repository.
+ *
+ * Each invocation reads a random page of all the fields, so deep pages are
+ * measured too.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerRepositoryBenchmark {
+
+	private static final int PAGE_SIZE = 20;
+
+	private CustomerRepository customerRepository;
+	private CustomerProjectionReader customerProjectionReader;
+	private int rows;
+	private SplittableRandom random;
+
+	@Setup
+	public void setUp(BenchmarkContext context) {
+		customerRepository = context.getBean(CustomerRepository.class);
+		customerProjectionReader = context.getBean(CustomerProjectionReader.class);
+		rows = context.rows;
+		random = new SplittableRandom(42);
+	}
+
+	@Benchmark
+	public Page<Map<String, Object>> findAll() {
+		return customerProjectionReader.findAll(CustomerFields.ALL, randomPage(rows));
+	}
+
+	@Benchmark
+	public Page<Map<String, Object>> findAllByCountryCode() {
+		return customerProjectionReader.findAllByCountryCode("MA", CustomerFields.ALL, randomPage(rows / 5));
+	}
+
+	@Benchmark
+	public Page<Map<String, Object>> findAllByName() {
+		return customerProjectionReader.findAllByNameContaining("hammadi", CustomerFields.ALL,
+				randomPage(rows / 25));
+	}
+
+	@Benchmark
+	public Page<Map<String, Object>> findAllByState() {
+		return customerProjectionReader.findAllByState(PhoneState.NOT_VALID, CustomerFields.ALL,
+				randomPage(rows / 4));
+	}
+
+	@Benchmark
+	public Boolean existsByPhone() {
+		return customerRepository.existsByPhone(String.format("(212) 6%08d", random.nextInt(rows)));
+	}
+
+	private Pageable randomPage(int rows) {
+		return PageRequest.of(random.nextInt(Math.max(1, rows / PAGE_SIZE)), PAGE_SIZE);
+	}
+}
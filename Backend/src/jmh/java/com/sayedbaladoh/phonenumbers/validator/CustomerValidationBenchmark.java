@@ -0,0 +1,84 @@
+package com.sayedbaladoh.phonenumbers.validator;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.sayedbaladoh.phonenumbers.BenchmarkContext;
+import com.sayedbaladoh.phonenumbers.model.Customer;
+
+/**
+ * Customer bean validation benchmark, the whole constraint chain and each of
+ * the custom constraints alone.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerValidationBenchmark {
+
+	private Validator validator;
+	private Customer customer;
+
+	@Setup
+	public void setUp(BenchmarkContext context) {
+		validator = context.getBean(Validator.class);
+
+		customer = new Customer();
+		customer.setName("Sayed Baladoh");
+		customer.setPhone("(212) 698054317");
+		customer.setEmail("sayed@example.com");
+		customer.setGender("male");
+		customer.setCountryCode("MA");
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Customer>> customer() {
+		return validator.validate(customer);
+	}
+
+	/**
+	 * <code>@PhoneNumber</code>, <code>@CountryDialCode</code> and
+	 * <code>@PhoneTaken</code>.
+	 */
+	@Benchmark
+	public Set<ConstraintViolation<Customer>> phone() {
+		return validator.validateProperty(customer, "phone");
+	}
+
+	/**
+	 * <code>@EmailTaken</code>.
+	 */
+	@Benchmark
+	public Set<ConstraintViolation<Customer>> email() {
+		return validator.validateProperty(customer, "email");
+	}
+
+	/**
+	 * <code>@Gender</code>.
+	 */
+	@Benchmark
+	public Set<ConstraintViolation<Customer>> gender() {
+		return validator.validateProperty(customer, "gender");
+	}
+
+	/**
+	 * <code>@CountryCode</code>.
+	 */
+	@Benchmark
+	public Set<ConstraintViolation<Customer>> countryCode() {
+		return validator.validateProperty(customer, "countryCode");
+	}
+}
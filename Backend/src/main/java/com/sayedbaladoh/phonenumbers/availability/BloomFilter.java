@@ -0,0 +1,115 @@
+package com.sayedbaladoh.phonenumbers.availability;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of strings answering "definitely absent" or "maybe present".
+ *
+ * The bits are stored in an <code>AtomicLongArray</code>, adds and lookups
+ * are lock free and an added value is never reported absent. The
+ * <code>k</code> bit indexes of a value are derived from a single 64-bit hash
+ * of its UTF-8 bytes by double hashing.
+ *
+ * Values can't be removed, the filter is rebuilt to forget them.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public final class BloomFilter {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final AtomicLongArray words;
+	private final long bitCount;
+	private final int hashCount;
+	private final LongAdder setBits = new LongAdder();
+
+	private BloomFilter(long bitCount, int hashCount) {
+		this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+		this.bitCount = bitCount;
+		this.hashCount = hashCount;
+	}
+
+	/**
+	 * Create a filter sized for the expected number of values.
+	 *
+	 * @param expectedValues
+	 *            The expected number of values.
+	 * @param falsePositiveRate
+	 *            The false positive rate once the expected values are added.
+	 * @return an empty filter.
+	 */
+	public static BloomFilter create(long expectedValues, double falsePositiveRate) {
+		long values = Math.max(1, expectedValues);
+		long bits = (long) Math.ceil(-values * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int hashes = (int) Math.max(1, Math.round((double) bits / values * Math.log(2)));
+		return new BloomFilter(Math.max(64, bits), hashes);
+	}
+
+	public void add(String value) {
+		long hash = hash(value);
+		int first = (int) hash;
+		int second = (int) (hash >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = index(first + i * second);
+			long mask = 1L << bit;
+			long previous = words.getAndAccumulate((int) (bit >>> 6), mask, (word, set) -> word | set);
+			if ((previous & mask) == 0)
+				setBits.increment();
+		}
+	}
+
+	/**
+	 * @return <code>false</code> if the value was never added,
+	 *         <code>true</code> if it may have been.
+	 */
+	public boolean mightContain(String value) {
+		long hash = hash(value);
+		int first = (int) hash;
+		int second = (int) (hash >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = index(first + i * second);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * The probability of a false positive for the values added so far,
+	 * estimated from the ratio of set bits.
+	 */
+	public double expectedFalsePositiveRate() {
+		return Math.pow((double) setBits.sum() / bitCount, hashCount);
+	}
+
+	public long getBitCount() {
+		return bitCount;
+	}
+
+	public int getHashCount() {
+		return hashCount;
+	}
+
+	private long index(int combinedHash) {
+		return (combinedHash & Integer.MAX_VALUE) % bitCount;
+	}
+
+	/**
+	 * FNV-1a of the UTF-8 bytes, finished with the SplitMix64 mixer so both
+	 * halves are usable as independent hashes.
+	 */
+	private static long hash(String value) {
+		long hash = FNV_OFFSET_BASIS;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= FNV_PRIME;
+		}
+		hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+		return hash ^ (hash >>> 31);
+	}
+}
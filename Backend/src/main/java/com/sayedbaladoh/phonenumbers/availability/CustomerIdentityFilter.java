@@ -0,0 +1,251 @@
+package com.sayedbaladoh.phonenumbers.availability;
+
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Customer Identity Filter answers the phone and email availability checks
+ * without a query when the value is definitely not taken.
+ *
+ * The taken phones and emails are kept in two Bloom filters: a value missing
+ * from its filter is available, only the possible hits are checked against
+ * the table. The filters are built from the table in the background once the
+ * application is ready and every check is passed to the table until then.
+ * <code>CustomerServiceImpl</code> and the bulk import add the saved values.
+ *
+ * Bloom filters can't forget a value, so the phones and emails of the updated
+ * and deleted customers stay in the filters, only costing a query, until the
+ * filters are rebuilt every <code>availability.rebuild-interval</code> ms,
+ * sized for the current number of customers.
+ *
+ * The checks are counted by field and result as
+ * <code>customers.availability.checks</code>, a <code>false_positive</code> is
+ * a possible hit the table didn't confirm.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerIdentityFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(CustomerIdentityFilter.class);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${availability.expected-customers:100000}")
+	private long expectedCustomers;
+
+	@Value("${availability.false-positive-rate:0.01}")
+	private double falsePositiveRate;
+
+	@Value("${availability.fetch-size:1000}")
+	private int fetchSize;
+
+	private volatile Filters filters;
+
+	/**
+	 * The filters being rebuilt, the values saved meanwhile are added to both.
+	 */
+	private volatile Filters rebuilding;
+
+	private JdbcTemplate cursorTemplate;
+	private TransactionTemplate transactionTemplate;
+	private Field phone;
+	private Field email;
+
+	@PostConstruct
+	public void init() {
+		cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		cursorTemplate.setFetchSize(fetchSize);
+
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+
+		phone = new Field("phone", current -> current.phones);
+		email = new Field("email", current -> current.emails);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		Thread builder = new Thread(this::rebuild, "customer-identity-filter");
+		builder.setDaemon(true);
+		builder.start();
+	}
+
+	/**
+	 * Check if a phone is taken, querying the table only if the phone may be
+	 * in the filter.
+	 *
+	 * @param value
+	 *            The phone.
+	 * @param taken
+	 *            The table lookup.
+	 * @return whether the phone is taken.
+	 */
+	public boolean isPhoneTaken(String value, Predicate<String> taken) {
+		if (value == null)
+			return taken.test(value);
+		return phone.isTaken(normalizePhone(value), value, taken);
+	}
+
+	/**
+	 * Check if an email is taken, querying the table only if the email may be
+	 * in the filter.
+	 *
+	 * @param value
+	 *            The email.
+	 * @param taken
+	 *            The table lookup.
+	 * @return whether the email is taken.
+	 */
+	public boolean isEmailTaken(String value, Predicate<String> taken) {
+		if (value == null)
+			return taken.test(value);
+		return email.isTaken(normalizeEmail(value), value, taken);
+	}
+
+	/**
+	 * Add the phone and email of a saved customer.
+	 */
+	public void add(String phoneValue, String emailValue) {
+		// The rebuild publishes the new filters before it clears rebuilding:
+		// reading rebuilding first, the values can't miss the new filters
+		add(rebuilding, phoneValue, emailValue);
+		add(filters, phoneValue, emailValue);
+	}
+
+	/**
+	 * Replace the filters with new ones built from the table.
+	 */
+	@Scheduled(
+			initialDelayString = "${availability.rebuild-interval:3600000}",
+			fixedDelayString = "${availability.rebuild-interval:3600000}")
+	public synchronized void rebuild() {
+		long started = System.currentTimeMillis();
+		try {
+			long customers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Long.class);
+			long expected = Math.max(expectedCustomers, 2 * customers);
+			Filters next = new Filters(BloomFilter.create(expected, falsePositiveRate),
+					BloomFilter.create(expected, falsePositiveRate));
+			rebuilding = next;
+			transactionTemplate.executeWithoutResult(transaction -> cursorTemplate.query(
+					"SELECT phone, email FROM customers",
+					(RowCallbackHandler) rs -> add(next, rs.getString(1), rs.getString(2))));
+			filters = next;
+			logger.info("Customer identity filters of {} customers built in {} ms", customers,
+					System.currentTimeMillis() - started);
+		} catch (RuntimeException e) {
+			logger.error("Customer identity filters build failed", e);
+		} finally {
+			rebuilding = null;
+		}
+	}
+
+	private static void add(Filters target, String phoneValue, String emailValue) {
+		if (target == null)
+			return;
+		if (phoneValue != null)
+			target.phones.add(normalizePhone(phoneValue));
+		if (emailValue != null)
+			target.emails.add(normalizeEmail(emailValue));
+	}
+
+	/**
+	 * The table compares the values as they are, folding them only adds false
+	 * positives, never false negatives.
+	 */
+	private static String normalizePhone(String value) {
+		return value.replaceAll("\\s+", "");
+	}
+
+	private static String normalizeEmail(String value) {
+		return value.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private static final class Filters {
+
+		private final BloomFilter phones;
+		private final BloomFilter emails;
+
+		private Filters(BloomFilter phones, BloomFilter emails) {
+			this.phones = phones;
+			this.emails = emails;
+		}
+	}
+
+	private final class Field {
+
+		private final Function<Filters, BloomFilter> filter;
+		private final Counter available;
+		private final Counter taken;
+		private final Counter falsePositive;
+		private final Counter unfiltered;
+
+		private Field(String name, Function<Filters, BloomFilter> filter) {
+			this.filter = filter;
+			available = counter(name, "available");
+			taken = counter(name, "taken");
+			falsePositive = counter(name, "false_positive");
+			unfiltered = counter(name, "unfiltered");
+			Gauge.builder("customers.availability.filter.expected.fpp", this, Field::expectedFalsePositiveRate)
+					.tag("field", name)
+					.description("False positive rate of the filter estimated from its set bits")
+					.register(meterRegistry);
+		}
+
+		private Counter counter(String name, String result) {
+			return Counter.builder("customers.availability.checks")
+					.tag("field", name)
+					.tag("result", result)
+					.description("Availability checks by filter result")
+					.register(meterRegistry);
+		}
+
+		private double expectedFalsePositiveRate() {
+			Filters current = filters;
+			return current == null ? Double.NaN : filter.apply(current).expectedFalsePositiveRate();
+		}
+
+		private boolean isTaken(String normalized, String value, Predicate<String> lookup) {
+			Filters current = filters;
+			if (current == null) {
+				unfiltered.increment();
+				return lookup.test(value);
+			}
+			if (!filter.apply(current).mightContain(normalized)) {
+				available.increment();
+				return false;
+			}
+			boolean isTaken = lookup.test(value);
+			(isTaken ? taken : falsePositive).increment();
+			return isTaken;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.sayedbaladoh.phonenumbers.backfill;
+
+import java.time.Instant;
+
+import com.sayedbaladoh.phonenumbers.backfill.PhoneStateBackfill.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The progress of the phone state backfill.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class BackfillProgress {
+
+	private final Status status;
+
+	/**
+	 * The customers left to classify when the run started.
+	 */
+	private final long total;
+
+	private final long processed;
+
+	/**
+	 * The Id of the last classified customer, the run resumes after it.
+	 */
+	private final long lastId;
+
+	private final Instant startedAt;
+
+	private final Instant finishedAt;
+
+	private final long elapsedMillis;
+
+	private final double rowsPerSecond;
+
+	private final String error;
+}
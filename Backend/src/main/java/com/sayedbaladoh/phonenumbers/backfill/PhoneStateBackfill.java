@@ -0,0 +1,218 @@
+package com.sayedbaladoh.phonenumbers.backfill;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sayedbaladoh.phonenumbers.phone.PhoneClassification;
+import com.sayedbaladoh.phonenumbers.phone.PhoneValidityEngine;
+
+/**
+ * Phone State Backfill classifies the customers saved before their phone
+ * country and state were computed on write.
+ *
+ * The customers are read in Id ordered chunks, each chunk is classified in
+ * parallel on a fork-join pool then written back with a batched update in a
+ * single transaction, together with the last processed Id. A restart resumes
+ * after that checkpoint instead of scanning the table again. The checkpoints
+ * table is created by the <code>V3__backfill_checkpoints</code> migration.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class PhoneStateBackfill {
+
+	private static final Logger logger = LoggerFactory.getLogger(PhoneStateBackfill.class);
+
+	private static final String JOB_NAME = "phone_state";
+
+	public enum Status {
+		IDLE, RUNNING, COMPLETED, FAILED
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private PhoneValidityEngine phoneValidityEngine;
+
+	@Value("${backfill.enabled:true}")
+	private boolean enabled;
+
+	@Value("${backfill.chunk-size:1000}")
+	private int chunkSize;
+
+	@Value("${backfill.parallelism:0}")
+	private int parallelism;
+
+	private TransactionTemplate transactionTemplate;
+	private ForkJoinPool forkJoinPool;
+	private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "phone-state-backfill");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile Status status = Status.IDLE;
+	private volatile Instant startedAt;
+	private volatile Instant finishedAt;
+	private volatile long total;
+	private volatile String error;
+	private final AtomicLong processed = new AtomicLong();
+	private final AtomicLong lastId = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		forkJoinPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		runner.shutdownNow();
+		forkJoinPool.shutdownNow();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (enabled)
+			start();
+	}
+
+	/**
+	 * Start the backfill in the background unless it's already running.
+	 *
+	 * @return <code>true</code> if the backfill has been started.
+	 */
+	public synchronized boolean start() {
+		if (status == Status.RUNNING)
+			return false;
+
+		status = Status.RUNNING;
+		startedAt = Instant.now();
+		finishedAt = null;
+		error = null;
+		processed.set(0);
+		runner.execute(this::run);
+		return true;
+	}
+
+	public BackfillProgress getProgress() {
+		Instant end = finishedAt != null ? finishedAt : Instant.now();
+		long elapsedMillis = startedAt == null ? 0 : Duration.between(startedAt, end).toMillis();
+		long done = processed.get();
+		double rowsPerSecond = elapsedMillis == 0 ? 0 : done * 1000.0 / elapsedMillis;
+
+		return new BackfillProgress(status, total, done, lastId.get(), startedAt, finishedAt, elapsedMillis,
+				rowsPerSecond, error);
+	}
+
+	private void run() {
+		try {
+			long checkpoint = readCheckpoint();
+			lastId.set(checkpoint);
+			total = jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM customers WHERE id > ? AND state IS NULL", Long.class, checkpoint);
+			logger.info("Phone state backfill started after Id {}, {} customers to classify", checkpoint, total);
+
+			List<CustomerPhone> chunk;
+			while (!(chunk = readChunk(lastId.get())).isEmpty()) {
+				if (Thread.currentThread().isInterrupted())
+					throw new InterruptedException();
+				writeChunk(classify(chunk));
+			}
+
+			// Start over on the next run, rows saved since then are already
+			// classified on write.
+			writeCheckpoint(0);
+			finish(Status.COMPLETED);
+			logger.info("Phone state backfill completed, {} customers classified", processed.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			error = "Interrupted";
+			finish(Status.FAILED);
+		} catch (RuntimeException | ExecutionException e) {
+			logger.error("Phone state backfill failed after Id {}", lastId.get(), e);
+			error = e.getMessage();
+			finish(Status.FAILED);
+		}
+	}
+
+	private void finish(Status status) {
+		finishedAt = Instant.now();
+		this.status = status;
+	}
+
+	private List<CustomerPhone> readChunk(long afterId) {
+		return jdbcTemplate.query(
+				"SELECT id, phone FROM customers WHERE id > ? AND state IS NULL ORDER BY id LIMIT ?",
+				(rs, rowNum) -> new CustomerPhone(rs.getLong("id"), rs.getString("phone")),
+				afterId, chunkSize);
+	}
+
+	private List<Object[]> classify(List<CustomerPhone> chunk) throws InterruptedException, ExecutionException {
+		return forkJoinPool.submit(() -> chunk.parallelStream()
+				.map(customer -> {
+					PhoneClassification classification = phoneValidityEngine.classify(customer.phone);
+					return new Object[] { classification.getCountry(), classification.getState().name(),
+							customer.id };
+				})
+				.collect(Collectors.toList()))
+				.get();
+	}
+
+	private void writeChunk(List<Object[]> updates) {
+		long chunkLastId = (Long) updates.get(updates.size() - 1)[2];
+		transactionTemplate.executeWithoutResult(transaction -> {
+			jdbcTemplate.batchUpdate("UPDATE customers SET country = ?, state = ? WHERE id = ?", updates);
+			writeCheckpoint(chunkLastId);
+		});
+		lastId.set(chunkLastId);
+		processed.addAndGet(updates.size());
+	}
+
+	private long readCheckpoint() {
+		List<Long> checkpoint = jdbcTemplate.queryForList(
+				"SELECT last_id FROM backfill_checkpoints WHERE name = ?", Long.class, JOB_NAME);
+		return checkpoint.isEmpty() ? 0 : checkpoint.get(0);
+	}
+
+	private void writeCheckpoint(long id) {
+		jdbcTemplate.update("INSERT OR REPLACE INTO backfill_checkpoints (name, last_id) VALUES (?, ?)", JOB_NAME, id);
+	}
+
+	private static final class CustomerPhone {
+
+		private final long id;
+		private final String phone;
+
+		private CustomerPhone(long id, String phone) {
+			this.id = id;
+			this.phone = phone;
+		}
+	}
+}
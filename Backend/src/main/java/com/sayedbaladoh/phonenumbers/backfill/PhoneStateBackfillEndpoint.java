@@ -0,0 +1,33 @@
+package com.sayedbaladoh.phonenumbers.backfill;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint reporting the phone state backfill progress at
+ * <code>/actuator/backfill</code>, a POST starts a new run.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+@Endpoint(id = "backfill")
+public class PhoneStateBackfillEndpoint {
+
+	@Autowired
+	private PhoneStateBackfill phoneStateBackfill;
+
+	@ReadOperation
+	public BackfillProgress progress() {
+		return phoneStateBackfill.getProgress();
+	}
+
+	@WriteOperation
+	public BackfillProgress start() {
+		phoneStateBackfill.start();
+		return phoneStateBackfill.getProgress();
+	}
+}
@@ -0,0 +1,183 @@
+package com.sayedbaladoh.phonenumbers.cache;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sayedbaladoh.phonenumbers.model.Customer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Customer Cache keeps the recently read customers by Id and by phone.
+ *
+ * Both caches hold at most <code>customer-cache.maximum-size</code> entries
+ * for <code>customer-cache.ttl</code> ms, a customer not found is cached for
+ * <code>customer-cache.negative-ttl</code> ms only. The phone cache maps a
+ * phone to the customer Id, resolved through the Id cache and checked against
+ * the customer phone, so a phone change can't return a stale customer. A
+ * customer loaded by phone isn't kept if a customer is evicted meanwhile.
+ *
+ * <code>CustomerServiceImpl</code> and the bulk import evict the customers
+ * they write. Each read returns a copy, the callers may modify it.
+ *
+ * The hits, misses and evictions are exported as the <code>cache.*</code>
+ * metrics of the <code>customers.by-id</code> and
+ * <code>customers.by-phone</code> caches.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerCache {
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${customer-cache.maximum-size:10000}")
+	private long maximumSize;
+
+	@Value("${customer-cache.ttl:600000}")
+	private long ttl;
+
+	@Value("${customer-cache.negative-ttl:5000}")
+	private long negativeTtl;
+
+	private Cache<Long, Optional<Customer>> byId;
+	private Cache<String, Optional<Long>> idByPhone;
+
+	/**
+	 * Counts the evictions, to tell whether one happened during a load by
+	 * phone.
+	 */
+	private final AtomicLong evictions = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		byId = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new FoundOrNotExpiry<Long, Customer>())
+				.recordStats()
+				.build();
+		idByPhone = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new FoundOrNotExpiry<String, Long>())
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, byId, "customers.by-id");
+		CaffeineCacheMetrics.monitor(meterRegistry, idByPhone, "customers.by-phone");
+	}
+
+	/**
+	 * Get a customer by Id, loading it on a miss.
+	 *
+	 * @param id
+	 *            The customer Id.
+	 * @param loader
+	 *            The lookup by Id.
+	 * @return a copy of the customer.
+	 */
+	public Optional<Customer> get(Long id, Function<Long, Optional<Customer>> loader) {
+		return byId.get(id, loader).map(CustomerCache::copy);
+	}
+
+	/**
+	 * Get a customer by phone, loading it on a miss.
+	 *
+	 * @param phone
+	 *            The customer phone.
+	 * @param loader
+	 *            The lookup by phone.
+	 * @return a copy of the customer.
+	 */
+	public Optional<Customer> getByPhone(String phone, Function<String, Optional<Customer>> loader) {
+		long generation = evictions.get();
+		Optional<Long> id = idByPhone.get(phone,
+				key -> loader.apply(key).map(customer -> putCustomer(customer, generation)));
+		if (!id.isPresent())
+			return Optional.empty();
+
+		Optional<Customer> customer = byId.getIfPresent(id.get());
+		if (customer == null || !customer.filter(found -> phone.equals(found.getPhone())).isPresent()) {
+			// Evicted by Id, or the phone changed since it was cached
+			long reloaded = evictions.get();
+			customer = loader.apply(phone);
+			Optional<Long> reloadedId = customer.map(found -> putCustomer(found, reloaded));
+			idByPhone.put(phone, reloadedId);
+			if (evictions.get() != reloaded)
+				idByPhone.asMap().remove(phone, reloadedId);
+		}
+		return customer.map(CustomerCache::copy);
+	}
+
+	/**
+	 * Evict a written customer.
+	 *
+	 * @param id
+	 *            The customer Id.
+	 * @param phone
+	 *            The customer phone, its previous phone may stay cached until
+	 *            it's read.
+	 */
+	public void evict(Long id, String phone) {
+		evictions.incrementAndGet();
+		if (id != null)
+			byId.invalidate(id);
+		if (phone != null)
+			idByPhone.invalidate(phone);
+	}
+
+	/**
+	 * Cache a customer loaded by phone, unless a customer was evicted since
+	 * the load started: the load may have read it before its write, and its
+	 * put may have overwritten the eviction.
+	 */
+	private Long putCustomer(Customer customer, long generation) {
+		Optional<Customer> loaded = Optional.of(customer);
+		byId.put(customer.getId(), loaded);
+		if (evictions.get() != generation)
+			byId.asMap().remove(customer.getId(), loaded);
+		return customer.getId();
+	}
+
+	private static Customer copy(Customer customer) {
+		Customer copy = new Customer();
+		BeanUtils.copyProperties(customer, copy);
+		return copy;
+	}
+
+	/**
+	 * Expire the found values after the TTL and the not found after the
+	 * negative TTL.
+	 */
+	private final class FoundOrNotExpiry<K, V> implements Expiry<K, Optional<V>> {
+
+		@Override
+		public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+			return TimeUnit.MILLISECONDS.toNanos(value.isPresent() ? ttl : negativeTtl);
+		}
+
+		@Override
+		public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package com.sayedbaladoh.phonenumbers.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConfig.JournalMode;
+import org.sqlite.SQLiteConfig.Pragma;
+import org.sqlite.SQLiteConfig.SynchronousMode;
+
+import com.sayedbaladoh.phonenumbers.sqlstats.SqlStatistics;
+import com.sayedbaladoh.phonenumbers.sqlstats.SqlStatsDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * SQLite data source configuration.
+ *
+ * The database is opened in WAL mode, so readers don't block behind the writer
+ * and the writer doesn't block readers. SQLite allows a single writer at a
+ * time, all writes go through a single connection pool instead of competing
+ * for the database lock and failing with <code>SQLITE_BUSY</code>, while
+ * read-only transactions, <code>@Transactional(readOnly = true)</code>, are
+ * served by a pool of read-only connections.
+ *
+ * The routing data source is wrapped in a
+ * <code>LazyConnectionDataSourceProxy</code>, the physical connection is only
+ * fetched on the first statement, once the transaction read-only flag is known.
+ *
+ * Every statement is recorded by fingerprint in <code>SqlStatistics</code>,
+ * served at <code>/actuator/sqlstats</code>, through a
+ * <code>SqlStatsDataSource</code> around the lazy proxy.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Configuration
+public class DataSourceConfig {
+
+	@Autowired
+	private SqlStatistics sqlStatistics;
+
+	@Value("${sqlite.journal-mode:WAL}")
+	private JournalMode journalMode;
+
+	@Value("${sqlite.synchronous:NORMAL}")
+	private SynchronousMode synchronous;
+
+	@Value("${sqlite.cache-size:-16000}")
+	private int cacheSize;
+
+	@Value("${sqlite.mmap-size:268435456}")
+	private long mmapSize;
+
+	@Value("${sqlite.busy-timeout:5000}")
+	private int busyTimeout;
+
+	@Value("${sqlite.read-pool-size:4}")
+	private int readPoolSize;
+
+	private HikariDataSource writeDataSource;
+	private HikariDataSource readDataSource;
+
+	/**
+	 * The pools aren't beans of their own, the data source initializer would
+	 * run against each of them.
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(DataSourceProperties properties) {
+		writeDataSource = pool(properties, "sqlite-write", 1, false);
+		readDataSource = pool(properties, "sqlite-read", readPoolSize, true);
+
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(Boolean.FALSE, writeDataSource);
+		targets.put(Boolean.TRUE, readDataSource);
+
+		ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource();
+		routingDataSource.setTargetDataSources(targets);
+		routingDataSource.setDefaultTargetDataSource(writeDataSource);
+		routingDataSource.afterPropertiesSet();
+		return new SqlStatsDataSource(new LazyConnectionDataSourceProxy(routingDataSource), sqlStatistics);
+	}
+
+	@PreDestroy
+	public void close() {
+		if (readDataSource != null)
+			readDataSource.close();
+		if (writeDataSource != null)
+			writeDataSource.close();
+	}
+
+	private HikariDataSource pool(DataSourceProperties properties, String name, int size, boolean readOnly) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName(name);
+		dataSource.setMaximumPoolSize(size);
+		dataSource.setReadOnly(readOnly);
+		dataSource.setDataSourceProperties(sqliteConfig(readOnly).toProperties());
+		return dataSource;
+	}
+
+	private SQLiteConfig sqliteConfig(boolean readOnly) {
+		SQLiteConfig config = new SQLiteConfig();
+		config.setJournalMode(journalMode);
+		config.setSynchronous(synchronous);
+		config.setCacheSize(cacheSize);
+		config.setPragma(Pragma.MMAP_SIZE, String.valueOf(mmapSize));
+		config.setBusyTimeout(busyTimeout);
+		config.setReadOnly(readOnly);
+		return config;
+	}
+
+	/**
+	 * Route read-only transactions to the read pool, anything else to the
+	 * writer.
+	 *
+	 * The writer pool has a single connection, a thread asking for it while
+	 * it holds it, e.g. for a <code>REQUIRES_NEW</code> transaction or the
+	 * isolated work of Hibernate, would wait for itself until the pool times
+	 * out. It's refused at once instead, the Id generator then reserves its
+	 * block on the connection already held.
+	 */
+	static class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+		private volatile Thread writerOwner;
+
+		@Override
+		protected Object determineCurrentLookupKey() {
+			return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (Boolean.TRUE.equals(determineCurrentLookupKey()))
+				return super.getConnection();
+
+			Thread current = Thread.currentThread();
+			if (writerOwner == current)
+				throw new SQLTransientConnectionException(
+						"The writer connection is already held by thread " + current.getName());
+
+			Connection connection = super.getConnection();
+			writerOwner = current;
+			return (Connection) Proxy.newProxyInstance(DataSourceConfig.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, new WriterConnectionHandler(connection));
+		}
+
+		/**
+		 * Release the writer ownership once the connection is returned to the
+		 * pool.
+		 */
+		private final class WriterConnectionHandler implements InvocationHandler {
+
+			private final Connection target;
+			private boolean closed;
+
+			private WriterConnectionHandler(Connection target) {
+				this.target = target;
+			}
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "close":
+					if (!closed) {
+						closed = true;
+						writerOwner = null;
+					}
+					break;
+				}
+				try {
+					return method.invoke(target, args);
+				} catch (InvocationTargetException e) {
+					throw e.getTargetException();
+				}
+			}
+		}
+	}
+}
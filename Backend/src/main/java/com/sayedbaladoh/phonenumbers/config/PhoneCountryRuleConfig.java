@@ -0,0 +1,100 @@
+package com.sayedbaladoh.phonenumbers.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sayedbaladoh.phonenumbers.phone.NationalPrefixRule;
+import com.sayedbaladoh.phonenumbers.phone.PhoneCountryRule;
+
+/**
+ * Country rules of the dial codes shared by several countries.
+ *
+ * Each rule resolves the country from the national prefix, the leading digits
+ * following the dial code. The Caribbean countries of the +1 dial code have
+ * their own 4 digits dial codes, they are resolved before the rules apply.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Configuration
+public class PhoneCountryRuleConfig {
+
+	/**
+	 * +1: the Canadian area codes, the United States otherwise.
+	 */
+	@Bean
+	public PhoneCountryRule northAmericaCountryRule() {
+		return new NationalPrefixRule("1", prefixes("CA",
+				"204", "226", "236", "249", "250", "263", "289", "306", "343", "354", "365", "367", "368",
+				"382", "403", "416", "418", "428", "431", "437", "438", "450", "468", "474", "506", "514",
+				"519", "548", "579", "581", "584", "587", "600", "604", "613", "622", "639", "647", "672",
+				"683", "705", "709", "742", "753", "778", "780", "782", "807", "819", "825", "867", "873",
+				"879", "902", "905"), "US");
+	}
+
+	/**
+	 * +7: Kazakhstan numbers start with 6 or 7, Russia otherwise.
+	 */
+	@Bean
+	public PhoneCountryRule russiaCountryRule() {
+		return new NationalPrefixRule("7", prefixes("KZ", "6", "7"), "RU");
+	}
+
+	/**
+	 * +47: Svalbard numbers start with 79, Norway otherwise.
+	 */
+	@Bean
+	public PhoneCountryRule norwayCountryRule() {
+		return new NationalPrefixRule("47", prefixes("SJ", "79"), "NO");
+	}
+
+	/**
+	 * +61: Christmas Island numbers start with 89164, Cocos Islands with
+	 * 89162, Australia otherwise.
+	 */
+	@Bean
+	public PhoneCountryRule australiaCountryRule() {
+		Map<String, String> prefixes = new HashMap<>(prefixes("CX", "89164"));
+		prefixes.putAll(prefixes("CC", "89162"));
+		return new NationalPrefixRule("61", prefixes, "AU");
+	}
+
+	/**
+	 * +64: Pitcairn has no national prefix of its own, New Zealand.
+	 */
+	@Bean
+	public PhoneCountryRule newZealandCountryRule() {
+		return new NationalPrefixRule("64", Collections.emptyMap(), "NZ");
+	}
+
+	/**
+	 * +212: Western Sahara numbers start with 5288 or 5289, Morocco otherwise.
+	 */
+	@Bean
+	public PhoneCountryRule moroccoCountryRule() {
+		return new NationalPrefixRule("212", prefixes("EH", "5288", "5289"), "MA");
+	}
+
+	/**
+	 * +262: Mayotte numbers start with 269 or 639, Reunion with 262, 692 or
+	 * 693.
+	 */
+	@Bean
+	public PhoneCountryRule reunionCountryRule() {
+		Map<String, String> prefixes = new HashMap<>(prefixes("YT", "269", "639"));
+		prefixes.putAll(prefixes("RE", "262", "692", "693"));
+		return new NationalPrefixRule("262", prefixes, null);
+	}
+
+	private static Map<String, String> prefixes(String alpha2Code, String... prefixes) {
+		Map<String, String> alpha2CodesByPrefix = new HashMap<>();
+		for (String prefix : prefixes)
+			alpha2CodesByPrefix.put(prefix, alpha2Code);
+		return alpha2CodesByPrefix;
+	}
+
+}
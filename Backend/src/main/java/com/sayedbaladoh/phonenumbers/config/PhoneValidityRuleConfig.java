@@ -0,0 +1,60 @@
+package com.sayedbaladoh.phonenumbers.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sayedbaladoh.phonenumbers.phone.NationalNumberRule;
+import com.sayedbaladoh.phonenumbers.phone.PhoneValidityRule;
+
+/**
+ * Per country phone validity rules.
+ *
+ * Each rule checks the national number, the digits following the dial code.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Configuration
+public class PhoneValidityRuleConfig {
+
+	/**
+	 * Cameroon: 8 or 9 digits starting with 2, 3, 6 or 8.
+	 */
+	@Bean
+	public PhoneValidityRule cameroonPhoneRule() {
+		return new NationalNumberRule("237", 8, 9, "2368");
+	}
+
+	/**
+	 * Ethiopia: 9 digits starting with 1 to 5 or 9.
+	 */
+	@Bean
+	public PhoneValidityRule ethiopiaPhoneRule() {
+		return new NationalNumberRule("251", 9, 9, "123459");
+	}
+
+	/**
+	 * Morocco: 9 digits starting with 5 to 9.
+	 */
+	@Bean
+	public PhoneValidityRule moroccoPhoneRule() {
+		return new NationalNumberRule("212", 9, 9, "56789");
+	}
+
+	/**
+	 * Mozambique: 8 or 9 digits starting with 2 or 8.
+	 */
+	@Bean
+	public PhoneValidityRule mozambiquePhoneRule() {
+		return new NationalNumberRule("258", 8, 9, "28");
+	}
+
+	/**
+	 * Uganda: 9 digits.
+	 */
+	@Bean
+	public PhoneValidityRule ugandaPhoneRule() {
+		return new NationalNumberRule("256", 9, 9, null);
+	}
+
+}
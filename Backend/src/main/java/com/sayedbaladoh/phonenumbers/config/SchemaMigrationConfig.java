@@ -0,0 +1,55 @@
+package com.sayedbaladoh.phonenumbers.config;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Schema migrations configuration.
+ *
+ * The versioned migrations of <code>db/migration</code> are applied by Flyway
+ * on startup, once Hibernate created or updated the mapped tables: Hibernate
+ * owns the tables and columns of the entities, the migrations own the indexes,
+ * the full text index and the tables that aren't mapped. Spring Boot would run
+ * Flyway before Hibernate, so its Flyway auto-configuration is disabled with
+ * <code>spring.flyway.enabled=false</code>. Without Hibernate schema update,
+ * e.g. the prod profile, the mapped tables are created by the
+ * <code>beforeMigrate</code> callback.
+ *
+ * A database created before the migrations has no history, it's baselined at
+ * version 0 and every migration runs on it once. The migrations use
+ * <code>IF NOT EXISTS</code> for the objects created before them.
+ *
+ * The seed data are repeatable migrations: Flyway records their checksum and
+ * only applies them again when they change, instead of replaying them on
+ * every start. The sample customers of <code>db/sample</code> are only seeded
+ * with <code>seed.sample-customers</code>, once seeded they're not required.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Configuration
+public class SchemaMigrationConfig {
+
+	@Value("${seed.sample-customers:true}")
+	private boolean sampleCustomers;
+
+	@Bean(initMethod = "migrate")
+	@DependsOn("entityManagerFactory")
+	public Flyway flyway(DataSource dataSource) {
+		String[] locations = sampleCustomers
+				? new String[] { "classpath:db/migration", "classpath:db/sample" }
+				: new String[] { "classpath:db/migration" };
+		return Flyway.configure()
+				.dataSource(dataSource)
+				.locations(locations)
+				.baselineOnMigrate(true)
+				.baselineVersion("0")
+				.ignoreMissingMigrations(true)
+				.load();
+	}
+}
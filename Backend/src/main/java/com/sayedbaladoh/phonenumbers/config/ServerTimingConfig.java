@@ -0,0 +1,143 @@
+package com.sayedbaladoh.phonenumbers.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.validation.beanvalidation.SpringConstraintValidatorFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sayedbaladoh.phonenumbers.reader.CustomerProjectionReader;
+import com.sayedbaladoh.phonenumbers.timing.RequestTiming;
+import com.sayedbaladoh.phonenumbers.timing.ServerTimingFilter;
+import com.sayedbaladoh.phonenumbers.timing.TimedConstraintValidatorFactory;
+import com.sayedbaladoh.phonenumbers.timing.TimedJackson2HttpMessageConverter;
+import com.sayedbaladoh.phonenumbers.timing.TimedJpaTransactionManager;
+import com.sayedbaladoh.phonenumbers.writer.CustomerStatementWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Server timing configuration, enabled by <code>server-timing.enabled</code>.
+ *
+ * The <code>/api</code> requests are timed by phase: each constraint
+ * validation, the repository and JDBC template calls, the transaction
+ * commits, the group commit wait and the JSON serialization. The phases are sent as the
+ * <code>Server-Timing</code> response header and recorded as the
+ * <code>http.server.requests.phases</code> timers.
+ *
+ * Disabled, none of the timed components is installed.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig {
+
+	private static final MethodInterceptor REPOSITORY_TIMING = invocation -> {
+		RequestTiming timing = RequestTiming.current();
+		if (timing == null)
+			return invocation.proceed();
+
+		long started = System.nanoTime();
+		try {
+			return invocation.proceed();
+		} finally {
+			timing.add("repository", System.nanoTime() - started);
+		}
+	};
+
+	@Bean
+	public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(MeterRegistry meterRegistry) {
+		FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+				new ServerTimingFilter(meterRegistry));
+		registration.addUrlPatterns("/api/*");
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+
+	/**
+	 * The validators are created by the Spring factory, autowired as before,
+	 * and wrapped to time each constraint.
+	 */
+	@Bean
+	public static BeanPostProcessor timedValidatorPostProcessor(ConfigurableListableBeanFactory beanFactory) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof LocalValidatorFactoryBean)
+					((LocalValidatorFactoryBean) bean).setConstraintValidatorFactory(
+							new TimedConstraintValidatorFactory(new SpringConstraintValidatorFactory(beanFactory)));
+				return bean;
+			}
+		};
+	}
+
+	/**
+	 * The timing advice is added after the transaction advice of the
+	 * repositories, the repository phase doesn't include their commit.
+	 */
+	@Bean
+	public static BeanPostProcessor timedRepositoryPostProcessor() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof RepositoryFactoryBeanSupport)
+					((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(
+							factory -> factory.addRepositoryProxyPostProcessor(
+									(proxyFactory, repositoryInformation) -> proxyFactory
+											.addAdvice(REPOSITORY_TIMING)));
+				return bean;
+			}
+		};
+	}
+
+	/**
+	 * The projection reader and the statement writer query through the JDBC
+	 * template instead of a repository, their calls are repository calls as
+	 * well.
+	 */
+	@Bean
+	public static BeanPostProcessor timedJdbcRepositoryPostProcessor() {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof CustomerProjectionReader || bean instanceof CustomerStatementWriter))
+					return bean;
+				ProxyFactory proxyFactory = new ProxyFactory(bean);
+				proxyFactory.setProxyTargetClass(true);
+				proxyFactory.addAdvice(REPOSITORY_TIMING);
+				return proxyFactory.getProxy();
+			}
+		};
+	}
+
+	@Bean
+	public PlatformTransactionManager transactionManager(
+			ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+		JpaTransactionManager transactionManager = new TimedJpaTransactionManager();
+		transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+		return transactionManager;
+	}
+
+	@Bean
+	public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+		return new TimedJackson2HttpMessageConverter(objectMapper);
+	}
+}
@@ -1,6 +1,7 @@
 package com.sayedbaladoh.phonenumbers.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import javax.validation.Valid;
 
@@ -11,18 +12,28 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sayedbaladoh.phonenumbers.errorhandler.BadRequestException;
 import com.sayedbaladoh.phonenumbers.errorhandler.ResourceNotFoundException;
 import com.sayedbaladoh.phonenumbers.model.ApiPageable;
 import com.sayedbaladoh.phonenumbers.model.Customer;
 import com.sayedbaladoh.phonenumbers.model.CustomerCountryStatistics;
+import com.sayedbaladoh.phonenumbers.model.CustomerCursor;
+import com.sayedbaladoh.phonenumbers.model.CustomerCursor.SortKey;
+import com.sayedbaladoh.phonenumbers.model.CustomerFields;
+import com.sayedbaladoh.phonenumbers.model.CustomerSlice;
+import com.sayedbaladoh.phonenumbers.model.CustomerSuggestion;
+import com.sayedbaladoh.phonenumbers.model.CustomerValidationResult;
 import com.sayedbaladoh.phonenumbers.model.IdentityAvailability;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
 import com.sayedbaladoh.phonenumbers.service.CustomerService;
 
 import io.swagger.annotations.Api;
@@ -44,6 +55,12 @@ import io.swagger.annotations.ApiParam;
 @CrossOrigin
 public class CustomerController {
 
+	private static final int MAX_SLICE_SIZE = 1000;
+
+	private static final int MAX_SUGGESTIONS = 50;
+
+	private static final int MAX_VALIDATE_SIZE = 10000;
+
 	@Autowired
 	CustomerService customerService;
 
@@ -93,6 +110,25 @@ public class CustomerController {
 		}).orElseThrow(() -> new ResourceNotFoundException("Customer", "Id", customerId));
 	}
 
+	/**
+	 * Patch an existing customer, only the supplied details are updated.
+	 * 
+	 * @param customerId
+	 *            The customer Id.
+	 * @param changes
+	 *            The customer details to update.
+	 * @return Customer with updated details.
+	 */
+	@ApiOperation(
+			value = "Update the supplied details of an existing customer.",
+			response = Customer.class)
+	@PatchMapping("/{customerId}")
+	public Customer patchCustomer(@ApiParam("The customer Id.") @PathVariable Long customerId,
+			@RequestBody Customer changes) {
+		return customerService.patch(customerId, changes)
+				.orElseThrow(() -> new ResourceNotFoundException("Customer", "Id", customerId));
+	}
+
 	/**
 	 * Delete an existing customer.
 	 * 
@@ -104,15 +140,16 @@ public class CustomerController {
 			value = "Delete an existing customer by Id.")
 	@DeleteMapping("/{customerId}")
 	public ResponseEntity<?> deleteCustomer(@ApiParam("The customer Id.") @PathVariable Long customerId) {
-		return customerService.get(customerId).map(customer -> {
-			customerService.delete(customerId);
-			return ResponseEntity.ok().build();
-		}).orElseThrow(() -> new ResourceNotFoundException("Customer", "Id", customerId));
+		if (!customerService.delete(customerId))
+			throw new ResourceNotFoundException("Customer", "Id", customerId);
+		return ResponseEntity.ok().build();
 	}
 
 	/**
 	 * Get a page contains a list of available customers.
 	 * 
+	 * @param fields
+	 *            The fields to return, all by default.
 	 * @param pageable
 	 *            Query page and sort options.
 	 * @return A page contains list of available customers.
@@ -122,8 +159,10 @@ public class CustomerController {
 			response = Page.class)
 	@ApiPageable
 	@GetMapping()
-	public Page<Customer> getCustomers(Pageable pageable) {
-		return customerService.getAll(pageable);
+	public Page<Map<String, Object>> getCustomers(
+			@ApiParam("The fields to return, e.g. id,name,phone,country_code, all by default.") @RequestParam(
+					required = false) String fields, Pageable pageable) {
+		return customerService.getAll(fields(fields), pageable);
 	}
 
 	/**
@@ -131,6 +170,8 @@ public class CustomerController {
 	 * 
 	 * @param name
 	 *            The customer name.
+	 * @param fields
+	 *            The fields to return, all by default.
 	 * @param pageable
 	 *            Query page and sort options.
 	 * @return A page contains list of available customers by customer name.
@@ -140,9 +181,31 @@ public class CustomerController {
 			response = Page.class)
 	@ApiPageable
 	@GetMapping("/name/{name}")
-	public Page<Customer> getCustomersByName(@ApiParam("The customer name.") @PathVariable(
-			value = "name") String name, Pageable pageable) {
-		return customerService.getAllByNameContains(name, pageable);
+	public Page<Map<String, Object>> getCustomersByName(@ApiParam("The customer name.") @PathVariable(
+			value = "name") String name,
+			@ApiParam("The fields to return, e.g. id,name,phone,country_code, all by default.") @RequestParam(
+					required = false) String fields, Pageable pageable) {
+		return customerService.getAllByNameContains(name, fields(fields), pageable);
+	}
+
+	/**
+	 * Suggest the customers with a name word starting with the typed prefix.
+	 * 
+	 * @param prefix
+	 *            The typed prefix.
+	 * @param limit
+	 *            The maximum number of suggestions.
+	 * @return The Ids and names of the matching customers.
+	 */
+	@ApiOperation(
+			value = "Suggest customers by name prefix.",
+			response = CustomerSuggestion.class,
+			responseContainer = "List")
+	@GetMapping("/suggest")
+	public List<CustomerSuggestion> suggestCustomers(
+			@ApiParam("The typed name prefix.") @RequestParam("q") String prefix,
+			@ApiParam("The maximum number of suggestions.") @RequestParam(defaultValue = "10") int limit) {
+		return customerService.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
 	}
 
 	/**
@@ -150,6 +213,8 @@ public class CustomerController {
 	 * 
 	 * @param countryCode
 	 *            The country code.
+	 * @param fields
+	 *            The fields to return, all by default.
 	 * @param pageable
 	 *            Query page and sort options.
 	 * @return A page contains list of available customers by country code.
@@ -159,9 +224,139 @@ public class CustomerController {
 			response = Page.class)
 	@ApiPageable
 	@GetMapping("/country_code/{code}")
-	public Page<Customer> getCustomersByCountryCode(@ApiParam("The customer country code.") @PathVariable(
-			value = "code") String countryCode, Pageable pageable) {
-		return customerService.getAllByCountryCode(countryCode, pageable);
+	public Page<Map<String, Object>> getCustomersByCountryCode(@ApiParam("The customer country code.") @PathVariable(
+			value = "code") String countryCode,
+			@ApiParam("The fields to return, e.g. id,name,phone,country_code, all by default.") @RequestParam(
+					required = false) String fields, Pageable pageable) {
+		return customerService.getAllByCountryCode(countryCode, fields(fields), pageable);
+	}
+
+	/**
+	 * Get a slice of available customers using keyset (cursor) pagination.
+	 * 
+	 * Unlike the page listing, the latency doesn't grow with the slice
+	 * position and no total count is computed.
+	 * 
+	 * @param after
+	 *            The cursor returned as 'next' by the previous slice.
+	 * @param size
+	 *            The slice size.
+	 * @param sort
+	 *            The listing order of the first slice, the cursor keeps it.
+	 * @return A slice of customers with the cursor of the next slice.
+	 */
+	@ApiOperation(
+			value = "View a slice of available customers using a cursor.",
+			response = CustomerSlice.class)
+	@GetMapping("/scroll")
+	public CustomerSlice scrollCustomers(
+			@ApiParam("The cursor returned as 'next' by the previous slice.") @RequestParam(required = false) String after,
+			@ApiParam("The slice size.") @RequestParam(defaultValue = "20") int size,
+			@ApiParam("The listing order, id or name.") @RequestParam(defaultValue = "id") String sort) {
+		CustomerCursor cursor = cursor(after, sort);
+		return CustomerSlice.of(customerService.scroll(cursor, sliceSize(size)), cursor.getSortKey());
+	}
+
+	/**
+	 * Get a slice of available customers by name contains value using keyset
+	 * (cursor) pagination.
+	 * 
+	 * @param name
+	 *            The customer name.
+	 * @param after
+	 *            The cursor returned as 'next' by the previous slice.
+	 * @param size
+	 *            The slice size.
+	 * @param sort
+	 *            The listing order of the first slice, the cursor keeps it.
+	 * @return A slice of customers with the cursor of the next slice.
+	 */
+	@ApiOperation(
+			value = "Get a slice of customers by customer name using a cursor.",
+			response = CustomerSlice.class)
+	@GetMapping("/name/{name}/scroll")
+	public CustomerSlice scrollCustomersByName(@ApiParam("The customer name.") @PathVariable(
+			value = "name") String name,
+			@ApiParam("The cursor returned as 'next' by the previous slice.") @RequestParam(required = false) String after,
+			@ApiParam("The slice size.") @RequestParam(defaultValue = "20") int size,
+			@ApiParam("The listing order, id or name.") @RequestParam(defaultValue = "id") String sort) {
+		CustomerCursor cursor = cursor(after, sort);
+		return CustomerSlice.of(customerService.scrollByNameContains(name, cursor, sliceSize(size)),
+				cursor.getSortKey());
+	}
+
+	/**
+	 * Get a slice of available customers by country code using keyset (cursor)
+	 * pagination.
+	 * 
+	 * @param countryCode
+	 *            The country code.
+	 * @param after
+	 *            The cursor returned as 'next' by the previous slice.
+	 * @param size
+	 *            The slice size.
+	 * @param sort
+	 *            The listing order of the first slice, the cursor keeps it.
+	 * @return A slice of customers with the cursor of the next slice.
+	 */
+	@ApiOperation(
+			value = "Get a slice of customers by country code using a cursor.",
+			response = CustomerSlice.class)
+	@GetMapping("/country_code/{code}/scroll")
+	public CustomerSlice scrollCustomersByCountryCode(@ApiParam("The customer country code.") @PathVariable(
+			value = "code") String countryCode,
+			@ApiParam("The cursor returned as 'next' by the previous slice.") @RequestParam(required = false) String after,
+			@ApiParam("The slice size.") @RequestParam(defaultValue = "20") int size,
+			@ApiParam("The listing order, id or name.") @RequestParam(defaultValue = "id") String sort) {
+		CustomerCursor cursor = cursor(after, sort);
+		return CustomerSlice.of(customerService.scrollByCountryCode(countryCode, cursor, sliceSize(size)),
+				cursor.getSortKey());
+	}
+
+	/**
+	 * Get a page contains a list of available customers by phone country.
+	 * 
+	 * @param country
+	 *            The country name resolved from the phone dial code.
+	 * @param fields
+	 *            The fields to return, all by default.
+	 * @param pageable
+	 *            Query page and sort options.
+	 * @return A page contains list of available customers by phone country.
+	 */
+	@ApiOperation(
+			value = "Get page of customers by phone country.",
+			response = Page.class)
+	@ApiPageable
+	@GetMapping("/country/{country}")
+	public Page<Map<String, Object>> getCustomersByCountry(@ApiParam("The country name resolved from the phone dial code.") @PathVariable(
+			value = "country") String country,
+			@ApiParam("The fields to return, e.g. id,name,phone,country_code, all by default.") @RequestParam(
+					required = false) String fields, Pageable pageable) {
+		return customerService.getAllByCountry(country, fields(fields), pageable);
+	}
+
+	/**
+	 * Get a page contains a list of available customers by phone state.
+	 * 
+	 * @param state
+	 *            The phone state, VALID or NOT_VALID.
+	 * @param fields
+	 *            The fields to return, all by default.
+	 * @param pageable
+	 *            Query page and sort options.
+	 * @return A page contains list of available customers by phone state.
+	 */
+	@ApiOperation(
+			value = "Get page of customers by phone state.",
+			response = Page.class)
+	@ApiPageable
+	@GetMapping("/state/{state}")
+	public Page<Map<String, Object>> getCustomersByState(@ApiParam("The phone state, VALID or NOT_VALID.") @PathVariable(
+			value = "state") PhoneState state,
+			@ApiParam("The fields to return, e.g. id,name,phone,country_code, all by default.") @RequestParam(
+					required = false) String fields, Pageable pageable) {
+		return customerService.getAllByState(state, fields(fields), pageable);
 	}
 
 	/**
@@ -248,4 +443,47 @@ public class CustomerController {
 		return new IdentityAvailability(isAvailable);
 	}
 
+	/**
+	 * Validate candidate customers against all the customer constraints.
+	 * 
+	 * @param customers
+	 *            The candidate customers.
+	 * @return The violations of each candidate, in order.
+	 */
+	@ApiOperation(
+			value = "Validate up to 10000 candidate customers without adding them.",
+			response = CustomerValidationResult.class,
+			responseContainer = "List")
+	@PostMapping("/validate")
+	public List<CustomerValidationResult> validateCustomers(@RequestBody List<Customer> customers) {
+		if (customers.size() > MAX_VALIDATE_SIZE)
+			throw new BadRequestException("Too many customers: " + customers.size() + ", at most "
+					+ MAX_VALIDATE_SIZE);
+		if (customers.contains(null))
+			throw new BadRequestException("Missing customer at index " + customers.indexOf(null));
+		return customerService.validate(customers);
+	}
+
+	private static CustomerCursor cursor(String after, String sort) {
+		try {
+			if (after != null)
+				return CustomerCursor.decode(after);
+			return CustomerCursor.first(SortKey.valueOf(sort.toUpperCase()));
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException(after != null ? "Invalid cursor: " + after : "Invalid sort: " + sort, e);
+		}
+	}
+
+	private static CustomerFields fields(String fields) {
+		try {
+			return CustomerFields.of(fields);
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid fields: " + e.getMessage(), e);
+		}
+	}
+
+	private static int sliceSize(int size) {
+		return Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+	}
+
 }
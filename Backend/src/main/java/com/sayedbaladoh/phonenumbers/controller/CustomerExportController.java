@@ -0,0 +1,95 @@
+package com.sayedbaladoh.phonenumbers.controller;
+
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.sayedbaladoh.phonenumbers.errorhandler.BadRequestException;
+import com.sayedbaladoh.phonenumbers.exporter.CustomerExporter;
+import com.sayedbaladoh.phonenumbers.exporter.CustomerExporter.Format;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+/**
+ * Customer Export REST Controller provides the full export of customers
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Api(
+		value = "Customer Export Controller",
+		description = "REST APIs for Customers' Export")
+@RequestMapping("/api/customers")
+@RestController
+@CrossOrigin
+public class CustomerExportController {
+
+	private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+	@Autowired
+	CustomerExporter customerExporter;
+
+	/**
+	 * Export the customers as NDJSON or CSV.
+	 *
+	 * The customers are streamed as they're read from the database, gzipped if
+	 * the client accepts it.
+	 *
+	 * @param format
+	 *            The output format, ndjson or csv.
+	 * @param countryCode
+	 *            The customer country code filter.
+	 * @param state
+	 *            The phone state filter, VALID or NOT_VALID.
+	 * @param acceptEncoding
+	 *            The encodings accepted by the client.
+	 * @return The streamed customers.
+	 */
+	@ApiOperation(
+			value = "Export the customers as NDJSON or CSV, one customer per line.")
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportCustomers(
+			@ApiParam("The output format, ndjson or csv.") @RequestParam(defaultValue = "ndjson") String format,
+			@ApiParam("The customer country code.") @RequestParam(value = "country_code", required = false) String countryCode,
+			@ApiParam("The phone state, VALID or NOT_VALID.") @RequestParam(required = false) PhoneState state,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		Format exportFormat;
+		try {
+			exportFormat = Format.valueOf(format.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid format: " + format, e);
+		}
+		boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.contentType(exportFormat == Format.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip)
+			response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+		return response.body(output -> {
+			if (!gzip) {
+				customerExporter.export(output, exportFormat, countryCode, state);
+				return;
+			}
+			GZIPOutputStream gzipOutput = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+			customerExporter.export(gzipOutput, exportFormat, countryCode, state);
+			gzipOutput.finish();
+		});
+	}
+}
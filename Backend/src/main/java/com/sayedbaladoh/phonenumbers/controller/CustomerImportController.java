@@ -0,0 +1,69 @@
+package com.sayedbaladoh.phonenumbers.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sayedbaladoh.phonenumbers.importer.CustomerImporter;
+import com.sayedbaladoh.phonenumbers.importer.CustomerImporter.Format;
+import com.sayedbaladoh.phonenumbers.importer.ImportRowResult;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+/**
+ * Customer Import REST Controller provides the bulk import of customers
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Api(
+		value = "Customer Import Controller",
+		description = "REST APIs for Customers' Bulk Import")
+@RequestMapping("/api/customers")
+@RestController
+@CrossOrigin
+public class CustomerImportController {
+
+	private static final String TEXT_CSV_VALUE = "text/csv";
+
+	@Autowired
+	CustomerImporter customerImporter;
+
+	/**
+	 * Import customers from an NDJSON or CSV body.
+	 *
+	 * The body is read as it's received, the report is streamed back as NDJSON:
+	 * the result of each row then the accepted and rejected counts.
+	 */
+	@ApiOperation(
+			value = "Import customers from an NDJSON or CSV body, one customer per line.",
+			response = ImportRowResult.class,
+			responseContainer = "List")
+	@PostMapping(
+			value = "/import",
+			consumes = { MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE },
+			produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void importCustomers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(
+				MediaType.APPLICATION_NDJSON) ? Format.NDJSON : Format.CSV;
+
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+			customerImporter.importCustomers(reader, format, response.getOutputStream());
+		}
+	}
+}
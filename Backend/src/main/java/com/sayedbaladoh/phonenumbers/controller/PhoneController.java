@@ -0,0 +1,52 @@
+package com.sayedbaladoh.phonenumbers.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sayedbaladoh.phonenumbers.errorhandler.ResourceNotFoundException;
+import com.sayedbaladoh.phonenumbers.model.DialCode;
+import com.sayedbaladoh.phonenumbers.service.CountryService;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+/**
+ * Phone REST Controller provides REST APIs for phone numbers operations
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Api(
+		value = "Phone Controller",
+		description = "REST APIs for Phone Numbers Operations")
+@RequestMapping("/api/phones")
+@RestController
+@CrossOrigin
+public class PhoneController {
+
+	@Autowired
+	CountryService countryService;
+
+	/**
+	 * Resolve the country of a phone number by its dial code.
+	 *
+	 * @param phone
+	 *            A raw or formatted phone number.
+	 * @return The dial code and the countries using it.
+	 */
+	@ApiOperation(
+			value = "Resolve the country of a raw or formatted phone number by its dial code.",
+			response = DialCode.class)
+	@GetMapping("/resolve")
+	public DialCode resolve(@ApiParam("The phone number, e.g. (212) 6007989253 or +1 868 555 0100.") @RequestParam(
+			value = "phone") String phone) {
+		return countryService.getDialCodeByPhone(phone)
+				.orElseThrow(() -> new ResourceNotFoundException("Dial code", "phone", phone));
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.sayedbaladoh.phonenumbers.dialect;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.HibernateException;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * Id Block Generator, the pooled-lo <code>SequenceStyleGenerator</code> of a
+ * table able to reserve a block while its transaction holds the writer.
+ *
+ * The blocks are reserved by the isolated work of Hibernate, on a connection
+ * of its own. Once a transaction ran a statement, the single writer pool
+ * refuses it a second connection, which would wait for the write lock of the
+ * transaction anyway. The block is then reserved on the connection of the
+ * transaction and only assigned to the entities of its session: a rollback
+ * undoes the reservation along with the rows of its Ids, no other session
+ * got one of them.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public class IdBlockGenerator extends SequenceStyleGenerator {
+
+	private final Map<SharedSessionContractImplementor, IdBlock> sessionBlocks = new ConcurrentHashMap<>();
+
+	private String valueColumnName;
+
+	@Override
+	protected Identifier determineValueColumnName(Properties params, JdbcEnvironment jdbcEnvironment) {
+		Identifier valueColumn = super.determineValueColumnName(params, jdbcEnvironment);
+		valueColumnName = valueColumn.render(jdbcEnvironment.getDialect());
+		return valueColumn;
+	}
+
+	@Override
+	public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+		IdBlock block = sessionBlocks.get(session);
+		if (block == null || block.next == block.end) {
+			try {
+				return super.generate(session, object);
+			} catch (HibernateException e) {
+				if (!(session instanceof SessionImplementor) || !session.isTransactionInProgress()
+						|| !isWriterRefused(e))
+					throw e;
+			}
+			block = reserve((SessionImplementor) session);
+		}
+		return IdentifierGeneratorHelper.createNumber(block.next++, getIdentifierType().getReturnedClass());
+	}
+
+	/**
+	 * Reserve a block in the transaction of the session, released with the
+	 * session once the transaction completes.
+	 */
+	private IdBlock reserve(SessionImplementor session) {
+		String table = getDatabaseStructure().getName();
+		int size = getDatabaseStructure().getIncrementSize();
+		String update = "UPDATE " + table + " SET " + valueColumnName + " = " + valueColumnName + " + ?";
+		String select = "SELECT " + valueColumnName + " FROM " + table;
+
+		Connection connection = session.connection();
+		try (PreparedStatement updateStatement = connection.prepareStatement(update);
+				PreparedStatement selectStatement = connection.prepareStatement(select)) {
+			updateStatement.setInt(1, size);
+			updateStatement.executeUpdate();
+			try (ResultSet rs = selectStatement.executeQuery()) {
+				rs.next();
+				long end = rs.getLong(1);
+				IdBlock block = new IdBlock(end - size, end);
+				if (sessionBlocks.put(session, block) == null)
+					session.getActionQueue().registerProcess(
+							(success, completed) -> sessionBlocks.remove(completed));
+				return block;
+			}
+		} catch (SQLException e) {
+			throw session.getJdbcServices().getSqlExceptionHelper().convert(e,
+					"could not reserve an Id block in the transaction", update);
+		}
+	}
+
+	private static boolean isWriterRefused(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause())
+			if (cause instanceof SQLTransientConnectionException)
+				return true;
+		return false;
+	}
+
+	private static final class IdBlock {
+
+		private long next;
+		private final long end;
+
+		private IdBlock(long next, long end) {
+			this.next = next;
+			this.end = end;
+		}
+	}
+}
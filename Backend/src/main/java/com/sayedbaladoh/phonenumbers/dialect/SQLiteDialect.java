@@ -3,10 +3,23 @@ package com.sayedbaladoh.phonenumbers.dialect;
 import java.sql.Types;
 
 import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.function.VarArgsSQLFunction;
 import org.hibernate.dialect.identity.IdentityColumnSupport;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.hibernate.exception.spi.SQLExceptionConversionDelegate;
+import org.hibernate.internal.util.JdbcExceptionHelper;
+import org.hibernate.type.StandardBasicTypes;
 
 public class SQLiteDialect extends Dialect {
 
+	/*
+	 * SQLite result codes, the low byte of the extended codes
+	 */
+	private static final int SQLITE_BUSY = 5;
+	private static final int SQLITE_LOCKED = 6;
+	private static final int SQLITE_CONSTRAINT = 19;
+
 	public SQLiteDialect() {
 		registerColumnType(Types.BIT, "integer");
 		registerColumnType(Types.TINYINT, "tinyint");
@@ -30,12 +43,31 @@ public class SQLiteDialect extends Dialect {
 		registerColumnType(Types.BLOB, "blob");
 		registerColumnType(Types.CLOB, "clob");
 		registerColumnType(Types.BOOLEAN, "integer");
+
+		registerFunction("concat", new VarArgsSQLFunction(StandardBasicTypes.STRING, "", "||", ""));
 	}
 
 	public IdentityColumnSupport getIdentityColumnSupport() {
 		return new SQLiteIdentityColumnSupport();
 	}
 
+	/**
+	 * SQLite reports no SQL state, the errors are converted by result code, so
+	 * a unique index violation is a <code>DataIntegrityViolationException</code>
+	 * as with the <code>JdbcTemplate</code> statements.
+	 */
+	@Override
+	public SQLExceptionConversionDelegate buildSQLExceptionConversionDelegate() {
+		return (sqlException, message, sql) -> {
+			int errorCode = JdbcExceptionHelper.extractErrorCode(sqlException) & 0xFF;
+			if (errorCode == SQLITE_CONSTRAINT)
+				return new ConstraintViolationException(message, sqlException, sql, null);
+			if (errorCode == SQLITE_BUSY || errorCode == SQLITE_LOCKED)
+				return new LockAcquisitionException(message, sqlException, sql);
+			return null;
+		};
+	}
+
 	public boolean hasAlterTable() {
 		return false;
 	}
@@ -9,6 +9,7 @@ import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -85,6 +86,27 @@ public class GlobalRestExceptionHandler extends ResponseEntityExceptionHandler {
 		return new ResponseEntity<Object>(apiError, new HttpHeaders(), apiError.getStatus());
 	}
 
+	/**
+	 * DataIntegrityViolationException Handler handle a statement rejected by a
+	 * table constraint, the services report the taken phones and emails as a
+	 * bad request, any other violation conflicts with the stored data.
+	 * 
+	 * @param ex
+	 *            the target exception
+	 * @param request
+	 *            the current request
+	 * @return a {@code ResponseEntity} instance
+	 */
+	@ExceptionHandler({ DataIntegrityViolationException.class })
+	public ResponseEntity<Object> handleDataIntegrityViolation(final DataIntegrityViolationException ex,
+			final WebRequest request) {
+		logger.error("Error occurred. Class: " + ex.getClass().getName());
+
+		final ApiError apiError = new ApiError(HttpStatus.CONFLICT, ex.getLocalizedMessage(),
+				ex.getMostSpecificCause().getMessage());
+		return new ResponseEntity<Object>(apiError, new HttpHeaders(), apiError.getStatus());
+	}
+
 	/**
 	 * ResourceNotFoundException Handler handle resource not found exception.
 	 * 
@@ -232,6 +254,9 @@ public class GlobalRestExceptionHandler extends ResponseEntityExceptionHandler {
 		if (ex instanceof ResourceNotFoundException)
 			apiError = new ApiError(HttpStatus.NOT_FOUND, ex.getLocalizedMessage(),
 					ex.getMessage());
+		else if (ex instanceof BadRequestException)
+			apiError = new ApiError(HttpStatus.BAD_REQUEST, ex.getLocalizedMessage(),
+					ex.getMessage());
 		else
 			apiError = new ApiError(HttpStatus.INTERNAL_SERVER_ERROR, ex.getLocalizedMessage(),
 					ex.getMessage());
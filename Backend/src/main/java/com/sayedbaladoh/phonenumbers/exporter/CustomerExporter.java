@@ -0,0 +1,214 @@
+package com.sayedbaladoh.phonenumbers.exporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+
+/**
+ * Customer Exporter writes the customers to a stream as NDJSON or CSV.
+ *
+ * The customers are read through a forward-only cursor, fetched
+ * <code>export.fetch-size</code> rows at a time, and each row is written as
+ * soon as it's read, so memory use doesn't depend on the number of customers.
+ * The export runs in a read-only transaction, it reads a consistent snapshot
+ * from the read pool while the customers are being written.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerExporter {
+
+	public enum Format {
+		NDJSON, CSV
+	}
+
+	private static final String COLUMNS = "id, name, phone, email, gender, country_code, country, state, "
+			+ "created_at, updated_at";
+
+	private static final String CSV_HEADER = "id,name,phone,email,gender,country_code,country,state,"
+			+ "created_at,updated_at";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${export.fetch-size:1000}")
+	private int fetchSize;
+
+	private JdbcTemplate cursorTemplate;
+	private TransactionTemplate transactionTemplate;
+
+	@PostConstruct
+	public void init() {
+		cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		cursorTemplate.setFetchSize(fetchSize);
+
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+	}
+
+	/**
+	 * Export the customers ordered by Id.
+	 *
+	 * @param output
+	 *            The stream to write to, left open.
+	 * @param format
+	 *            The output format.
+	 * @param countryCode
+	 *            The country code filter, ignored if <code>null</code>.
+	 * @param state
+	 *            The phone state filter, ignored if <code>null</code>.
+	 * @return the number of exported customers.
+	 * @throws IOException
+	 *             if the output can't be written.
+	 */
+	public long export(OutputStream output, Format format, String countryCode, PhoneState state)
+			throws IOException {
+		StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM customers");
+		List<Object> args = new ArrayList<>(2);
+		if (countryCode != null) {
+			sql.append(" WHERE upper(country_code) = upper(?)");
+			args.add(countryCode);
+		}
+		if (state != null) {
+			sql.append(args.isEmpty() ? " WHERE" : " AND").append(" state = ?");
+			args.add(state.name());
+		}
+		sql.append(" ORDER BY id");
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+		long[] count = { 0 };
+		try {
+			transactionTemplate.executeWithoutResult(transaction -> cursorTemplate.query(sql.toString(), rs -> {
+				try {
+					rowWriter.write(rs);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				count[0]++;
+			}, args.toArray()));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		rowWriter.flush();
+		writer.flush();
+		return count[0];
+	}
+
+	private interface RowWriter {
+
+		void write(ResultSet rs) throws SQLException, IOException;
+
+		default void flush() throws IOException {
+		}
+	}
+
+	private final class NdjsonRowWriter implements RowWriter {
+
+		private final JsonGenerator generator;
+
+		private NdjsonRowWriter(Writer writer) throws IOException {
+			this.generator = objectMapper.getFactory().createGenerator(writer);
+			this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+			this.generator.setRootValueSeparator(null);
+		}
+
+		@Override
+		public void write(ResultSet rs) throws SQLException, IOException {
+			generator.writeStartObject();
+			generator.writeStringField("createdAt", instant(rs, 9));
+			generator.writeStringField("updatedAt", instant(rs, 10));
+			generator.writeNumberField("id", rs.getLong(1));
+			generator.writeStringField("name", rs.getString(2));
+			generator.writeStringField("phone", rs.getString(3));
+			generator.writeStringField("email", rs.getString(4));
+			generator.writeStringField("gender", rs.getString(5));
+			generator.writeStringField("country", rs.getString(7));
+			generator.writeStringField("state", rs.getString(8));
+			generator.writeStringField("country_code", rs.getString(6));
+			generator.writeEndObject();
+			generator.writeRaw('\n');
+		}
+
+		@Override
+		public void flush() throws IOException {
+			generator.flush();
+		}
+	}
+
+	private static final class CsvRowWriter implements RowWriter {
+
+		private final Writer writer;
+
+		private CsvRowWriter(Writer writer) throws IOException {
+			this.writer = writer;
+			writer.write(CSV_HEADER);
+			writer.write('\n');
+		}
+
+		@Override
+		public void write(ResultSet rs) throws SQLException, IOException {
+			writer.write(Long.toString(rs.getLong(1)));
+			for (int column = 2; column <= 8; column++) {
+				writer.write(',');
+				writeValue(rs.getString(column));
+			}
+			writer.write(',');
+			writeValue(instant(rs, 9));
+			writer.write(',');
+			writeValue(instant(rs, 10));
+			writer.write('\n');
+		}
+
+		private void writeValue(String value) throws IOException {
+			if (value == null)
+				return;
+			if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+					&& value.indexOf('\r') < 0) {
+				writer.write(value);
+				return;
+			}
+			writer.write('"');
+			writer.write(value.replace("\"", "\"\""));
+			writer.write('"');
+		}
+	}
+
+	/**
+	 * The timestamps are stored as epoch milliseconds.
+	 */
+	private static String instant(ResultSet rs, int column) throws SQLException {
+		long millis = rs.getLong(column);
+		return rs.wasNull() ? null : Instant.ofEpochMilli(millis).toString();
+	}
+}
@@ -0,0 +1,320 @@
+package com.sayedbaladoh.phonenumbers.generator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.SplittableRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sayedbaladoh.phonenumbers.availability.CustomerIdentityFilter;
+import com.sayedbaladoh.phonenumbers.phone.PhoneClassification;
+import com.sayedbaladoh.phonenumbers.phone.PhoneValidityEngine;
+import com.sayedbaladoh.phonenumbers.search.CustomerNameSuggestIndex;
+import com.sayedbaladoh.phonenumbers.statistics.CustomerStatisticsStore;
+
+/**
+ * Customer Data Generator inserts synthetic customers following the
+ * distribution of the seed data.
+ *
+ * The country mix (CM 10, ET 9, MZ 8, MA 7, UG 7), the
+ * <code>(dial code) national number</code> format and the 14 in 41 invalid
+ * phones (an extra digit, a letter instead of a digit or a wrong leading digit)
+ * are those of the sample customers, <code>R__sample_customers.sql</code>.
+ *
+ * The data only depends on the seed. The national numbers are built from an
+ * affine bijection of a per country counter modulo 10^8, so phones are unique
+ * up to 10^8 customers per country without tracking the generated ones.
+ *
+ * Rows are inserted with batched prepared statements on a single connection,
+ * committed every <code>generate.transaction-size</code> rows with
+ * synchronous writes off.
+ *
+ * The rows are inserted behind the services: in a running application, e.g.
+ * the benchmarks context, the generated names are added to the suggest
+ * index, the identity filters are rebuilt and the statistics reconciled once
+ * the customers are generated. Generating on startup, before the application
+ * is ready, they are built from the table as usual.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerDataGenerator {
+
+	private static final Logger logger = LoggerFactory.getLogger(CustomerDataGenerator.class);
+
+	private static final int BODY_DIGITS = 8;
+	private static final long BODY_MODULUS = 100_000_000L;
+
+	/**
+	 * Substituted letter of each digit, e.g. O for 0, so substitutions are
+	 * unique.
+	 */
+	private static final String LETTERS = "OIZEASGTBQ";
+
+	private static final String[] FIRST_NAMES = { "Walid", "Yosaf", "Younes", "Houda", "Nada", "Edunildo", "Tanvi",
+			"Florencio", "Ali", "Filimon", "Hugo", "Zerihun", "Kiflu", "Berihun", "Marvellous", "Daniel", "Joseph",
+			"Mariam", "Aziz", "Jacqueline", "Gerald", "Vivian", "Hanane", "Chouf", "Frehiwot", "Bedasa", "Loyce" };
+
+	private static final String[] LAST_NAMES = { "Hammadi", "Karrouch", "Boutikyad", "Sofie", "Gomes", "Sachdeva",
+			"Samuel", "Abderrahmane", "Teame", "Mpundu", "Kola", "Lemma", "Tadesse", "Gashaw", "Ndip", "Mbiafu",
+			"Madondo", "Kitenge", "Nsubuga", "Rwakasoro", "Ampeire", "Atwine", "Meba", "Yaregal", "Nakato" };
+
+	private static final CountryFormat[] COUNTRIES = {
+			new CountryFormat("CM", "237", '6', "0145", 10),
+			new CountryFormat("ET", "251", '9', "0678", 9),
+			new CountryFormat("MZ", "258", '8', "0134567", 8),
+			new CountryFormat("MA", "212", '6', "01234", 7),
+			new CountryFormat("UG", "256", '7', null, 7) };
+
+	private static final int COUNTRY_WEIGHTS = 41;
+	private static final int INVALID_WEIGHT = 14;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PhoneValidityEngine phoneValidityEngine;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private CustomerNameSuggestIndex customerNameSuggestIndex;
+
+	@Autowired
+	private CustomerIdentityFilter customerIdentityFilter;
+
+	@Autowired
+	private CustomerStatisticsStore customerStatisticsStore;
+
+	@Value("${generate.seed:42}")
+	private long seed;
+
+	@Value("${generate.batch-size:10000}")
+	private int batchSize;
+
+	@Value("${generate.transaction-size:500000}")
+	private int transactionSize;
+
+	private volatile boolean applicationReady;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		applicationReady = true;
+	}
+
+	/**
+	 * Insert synthetic customers after the existing ones.
+	 *
+	 * @param rows
+	 *            The number of customers to insert.
+	 * @return the number of inserted customers.
+	 */
+	public long generate(long rows) {
+		long firstId = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> generate(connection, rows));
+		if (applicationReady)
+			refresh(firstId);
+		return rows;
+	}
+
+	/**
+	 * Add the generated customers to the in-memory indexes of the running
+	 * application. The table is read on the read pool.
+	 */
+	private void refresh(long firstId) {
+		long started = System.currentTimeMillis();
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readOnly.executeWithoutResult(transaction -> jdbcTemplate.query(
+				"SELECT id, name FROM customers WHERE id >= ?",
+				(RowCallbackHandler) rs -> customerNameSuggestIndex.add(rs.getLong(1), rs.getString(2)), firstId));
+		customerIdentityFilter.rebuild();
+		customerStatisticsStore.reconcile();
+		logger.info("Generated customers indexed in {} ms", System.currentTimeMillis() - started);
+	}
+
+	/**
+	 * @return the first generated Id.
+	 */
+	private long generate(Connection connection, long rows) throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		String synchronous = pragma(connection, "synchronous");
+		long firstId = nextId(connection);
+		long id = firstId;
+		long start = System.nanoTime();
+
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("PRAGMA synchronous = OFF");
+		}
+		connection.setAutoCommit(false);
+
+		SplittableRandom random = new SplittableRandom(seed);
+		long multiplier = coprimeMultiplier(random);
+		long increment = random.nextLong(BODY_MODULUS);
+		long[] counters = new long[COUNTRIES.length];
+		char[] national = new char[BODY_DIGITS + 3];
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+
+		try (PreparedStatement insert = connection.prepareStatement(
+				"INSERT INTO customers (id, created_at, updated_at, name, country_code, phone, country, state) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+			for (long row = 1; row <= rows; row++, id++) {
+				int index = country(random);
+				CountryFormat country = COUNTRIES[index];
+				long body = (multiplier * counters[index]++ + increment) % BODY_MODULUS;
+				String phone = "(" + country.isd + ") " + nationalNumber(country, body, random, national);
+				PhoneClassification classification = phoneValidityEngine.classify(phone);
+
+				insert.setLong(1, id);
+				insert.setTimestamp(2, now);
+				insert.setTimestamp(3, now);
+				insert.setString(4, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+						+ LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+				insert.setString(5, country.alpha2Code);
+				insert.setString(6, phone);
+				insert.setString(7, classification.getCountry());
+				insert.setString(8, classification.getState().name());
+				insert.addBatch();
+
+				if (row % batchSize == 0 || row == rows)
+					insert.executeBatch();
+				if (row % transactionSize == 0 || row == rows) {
+					connection.commit();
+					logger.info("Generated {} of {} customers", row, rows);
+				}
+			}
+
+			updateSequence(connection, id);
+			connection.commit();
+		} catch (SQLException | RuntimeException e) {
+			connection.rollback();
+			throw e;
+		} finally {
+			connection.setAutoCommit(autoCommit);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("PRAGMA synchronous = " + synchronous);
+			}
+		}
+
+		long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+		logger.info("Generated {} customers in {} ms, {} rows/sec", rows, elapsedMillis, rows * 1000 / elapsedMillis);
+		return firstId;
+	}
+
+	private static int country(SplittableRandom random) {
+		int weight = random.nextInt(COUNTRY_WEIGHTS);
+		for (int i = 0; i < COUNTRIES.length; i++) {
+			weight -= COUNTRIES[i].weight;
+			if (weight < 0)
+				return i;
+		}
+		return COUNTRIES.length - 1;
+	}
+
+	/**
+	 * Build a valid national number, the leading digit followed by the body, or
+	 * one of the invalid variants seen in the seed data.
+	 */
+	private static String nationalNumber(CountryFormat country, long body, SplittableRandom random, char[] national) {
+		national[0] = country.leadingDigit;
+		for (int i = BODY_DIGITS; i > 0; i--, body /= 10)
+			national[i] = (char) ('0' + body % 10);
+		int length = BODY_DIGITS + 1;
+
+		if (random.nextInt(COUNTRY_WEIGHTS) < INVALID_WEIGHT) {
+			int kind = random.nextInt(INVALID_WEIGHT);
+			if (kind < 2) {
+				int position = 1 + random.nextInt(BODY_DIGITS);
+				national[position] = LETTERS.charAt(national[position] - '0');
+			} else if (kind < 4 && country.invalidLeadingDigits != null) {
+				national[0] = country.invalidLeadingDigits
+						.charAt(random.nextInt(country.invalidLeadingDigits.length()));
+			} else {
+				national[length++] = (char) ('0' + random.nextInt(10));
+				if (kind == 4)
+					national[length++] = (char) ('0' + random.nextInt(10));
+			}
+		}
+		return new String(national, 0, length);
+	}
+
+	/**
+	 * A multiplier coprime with 10^8 makes the body an affine bijection of the
+	 * counter.
+	 */
+	private static long coprimeMultiplier(SplittableRandom random) {
+		long multiplier = random.nextLong(BODY_MODULUS) | 1;
+		return multiplier % 5 == 0 ? multiplier + 2 : multiplier;
+	}
+
+	/**
+	 * The customers and countries share the Hibernate sequence, the generated
+	 * Ids start after both the sequence and the existing customers.
+	 */
+	private static long nextId(Connection connection) throws SQLException {
+		long id = 1;
+		try (Statement statement = connection.createStatement()) {
+			try (ResultSet rs = statement.executeQuery("SELECT MAX(id) FROM customers")) {
+				if (rs.next())
+					id = Math.max(id, rs.getLong(1) + 1);
+			}
+			try (ResultSet rs = statement.executeQuery("SELECT next_val FROM hibernate_sequence")) {
+				if (rs.next())
+					id = Math.max(id, rs.getLong(1));
+			} catch (SQLException e) {
+				// No entity saved through Hibernate yet
+			}
+		}
+		return id;
+	}
+
+	private static void updateSequence(Connection connection, long nextId) throws SQLException {
+		try (PreparedStatement update = connection.prepareStatement("UPDATE hibernate_sequence SET next_val = ?")) {
+			update.setLong(1, nextId);
+			update.executeUpdate();
+		} catch (SQLException e) {
+			// No entity saved through Hibernate yet
+		}
+	}
+
+	private static String pragma(Connection connection, String name) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery("PRAGMA " + name)) {
+			return rs.next() ? rs.getString(1) : "FULL";
+		}
+	}
+
+	private static final class CountryFormat {
+
+		private final String alpha2Code;
+		private final String isd;
+		private final char leadingDigit;
+		private final String invalidLeadingDigits;
+		private final int weight;
+
+		private CountryFormat(String alpha2Code, String isd, char leadingDigit, String invalidLeadingDigits,
+				int weight) {
+			this.alpha2Code = alpha2Code;
+			this.isd = isd;
+			this.leadingDigit = leadingDigit;
+			this.invalidLeadingDigits = invalidLeadingDigits;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.sayedbaladoh.phonenumbers.generator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generate synthetic customers on startup of the <code>generate</code> profile,
+ * e.g.
+ * 
+ * <pre>
+ * java -jar phone-numbers.jar --spring.profiles.active=generate \
+ *     --generate.rows=10000000 --spring.datasource.url=jdbc:sqlite:customers-10m.db
+ * </pre>
+ * 
+ * The application exits once the customers are generated, the scheduler and
+ * pool threads would otherwise keep the JVM alive.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+@Profile("generate")
+public class GenerateCustomersRunner implements CommandLineRunner {
+
+	@Autowired
+	private CustomerDataGenerator customerDataGenerator;
+
+	@Autowired
+	private ConfigurableApplicationContext applicationContext;
+
+	@Value("${generate.rows:1000000}")
+	private long rows;
+
+	@Override
+	public void run(String... args) {
+		customerDataGenerator.generate(rows);
+		System.exit(SpringApplication.exit(applicationContext));
+	}
+}
@@ -0,0 +1,372 @@
+package com.sayedbaladoh.phonenumbers.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sayedbaladoh.phonenumbers.availability.CustomerIdentityFilter;
+import com.sayedbaladoh.phonenumbers.cache.CustomerCache;
+import com.sayedbaladoh.phonenumbers.importer.ImportRowResult.Status;
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.phone.PhoneClassification;
+import com.sayedbaladoh.phonenumbers.phone.PhoneValidityEngine;
+import com.sayedbaladoh.phonenumbers.search.CustomerNameSuggestIndex;
+import com.sayedbaladoh.phonenumbers.statistics.CustomerStatisticsStore;
+import com.sayedbaladoh.phonenumbers.validator.CustomerBatchValidator;
+
+/**
+ * Customer Importer inserts the customers of an NDJSON or CSV stream.
+ *
+ * The stream is read line by line in chunks of <code>import.batch-size</code>
+ * rows. Each chunk is parsed, validated and classified in parallel on a
+ * fork-join pool, then its valid rows are inserted with a batched statement in
+ * a single transaction, and the result of each row is written to the report
+ * before reading the next chunk. A chunk failing to insert, e.g. a phone taken
+ * meanwhile, is inserted again row by row so only the failing rows are
+ * rejected.
+ *
+ * Rows are validated against the <code>Customer</code> constraints in the
+ * locale of the import, except the phone and email uniqueness which is checked
+ * with the <code>IN</code> lookups of <code>CustomerBatchValidator</code> per
+ * chunk, instead of a query per row.
+ *
+ * CSV streams start with a header naming the columns, among
+ * <code>name</code>, <code>phone</code>, <code>email</code>,
+ * <code>gender</code> and <code>country_code</code>. Quoted values may not
+ * span lines.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerImporter {
+
+	public enum Format {
+		NDJSON, CSV
+	}
+
+	private static final String[] CSV_COLUMNS = { "name", "phone", "email", "gender", "country_code" };
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MessageSource messageSource;
+
+	@Autowired
+	private CustomerBatchValidator customerBatchValidator;
+
+	@Autowired
+	private PhoneValidityEngine phoneValidityEngine;
+
+	@Autowired
+	private CustomerStatisticsStore customerStatisticsStore;
+
+	@Autowired
+	private CustomerNameSuggestIndex customerNameSuggestIndex;
+
+	@Autowired
+	private CustomerIdentityFilter customerIdentityFilter;
+
+	@Autowired
+	private CustomerCache customerCache;
+
+	@Value("${import.batch-size:5000}")
+	private int batchSize;
+
+	@Value("${import.parallelism:0}")
+	private int parallelism;
+
+	private TransactionTemplate transactionTemplate;
+	private ForkJoinPool forkJoinPool;
+
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		forkJoinPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		forkJoinPool.shutdownNow();
+	}
+
+	/**
+	 * Import the customers of a stream.
+	 *
+	 * @param reader
+	 *            The NDJSON or CSV rows.
+	 * @param format
+	 *            The rows format.
+	 * @param report
+	 *            The NDJSON report, the result of each row then the summary.
+	 * @return the import summary.
+	 * @throws IOException
+	 *             if the rows can't be read or the report written.
+	 */
+	public ImportSummary importCustomers(BufferedReader reader, Format format, OutputStream report)
+			throws IOException {
+		long start = System.nanoTime();
+		Locale locale = LocaleContextHolder.getLocale();
+		Map<String, Integer> columns = format == Format.CSV ? readCsvHeader(reader) : null;
+
+		long rowNumber = 0;
+		long accepted = 0;
+		List<ImportRow> chunk = new ArrayList<>(batchSize);
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.trim().isEmpty())
+				continue;
+			chunk.add(new ImportRow(++rowNumber, line));
+			if (chunk.size() == batchSize) {
+				accepted += importChunk(chunk, columns, locale, report);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty())
+			accepted += importChunk(chunk, columns, locale, report);
+
+		long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+		ImportSummary summary = new ImportSummary(accepted, rowNumber - accepted, elapsedMillis,
+				rowNumber * 1000.0 / elapsedMillis);
+		writeLine(report, summary);
+		report.flush();
+		return summary;
+	}
+
+	private long importChunk(List<ImportRow> chunk, Map<String, Integer> columns, Locale locale,
+			OutputStream report) throws IOException {
+		try {
+			forkJoinPool.submit(() -> chunk.parallelStream().forEach(row -> validate(row, columns, locale))).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Import interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+
+		List<ImportRow> parsed = chunk.stream().filter(row -> row.errors.isEmpty()).collect(Collectors.toList());
+		Set<String> phones = customerBatchValidator.findTakenPhones(parsed.stream().map(row -> row.customer));
+		Set<String> emails = customerBatchValidator.findTakenEmails(parsed.stream().map(row -> row.customer));
+
+		// In file order, the first of duplicated rows is accepted
+		List<ImportRow> valid = new ArrayList<>(parsed.size());
+		for (ImportRow row : parsed) {
+			String phone = row.customer.getPhone();
+			String email = row.customer.getEmail();
+			if (!phones.add(phone))
+				row.errors.add("phone: " + message("taken"));
+			if (email != null && !emails.add(email))
+				row.errors.add("email: " + message("taken"));
+			if (row.errors.isEmpty())
+				valid.add(row);
+		}
+
+		try {
+			insert(valid);
+		} catch (DataAccessException e) {
+			for (ImportRow row : valid) {
+				try {
+					insert(Collections.singletonList(row));
+				} catch (DataAccessException rowException) {
+					row.errors.add(rowException.getMostSpecificCause().getMessage());
+				}
+			}
+		}
+		for (ImportRow row : valid) {
+			if (row.customer.getId() == null)
+				continue;
+			customerStatisticsStore.increment(row.customer.getCountryCode());
+			customerNameSuggestIndex.add(row.customer.getId(), row.customer.getName());
+			customerIdentityFilter.add(row.customer.getPhone(), row.customer.getEmail());
+			customerCache.evict(row.customer.getId(), row.customer.getPhone());
+		}
+
+		for (ImportRow row : chunk) {
+			writeLine(report, row.errors.isEmpty()
+					? new ImportRowResult(row.number, Status.ACCEPTED, row.customer.getId(), null)
+					: new ImportRowResult(row.number, Status.REJECTED, null, row.errors));
+		}
+		report.flush();
+		return valid.stream().filter(row -> row.customer.getId() != null).count();
+	}
+
+	private void validate(ImportRow row, Map<String, Integer> columns, Locale locale) {
+		try {
+			row.customer = columns == null ? objectMapper.readValue(row.line, Customer.class)
+					: parseCsv(row.line, columns);
+		} catch (JsonProcessingException e) {
+			row.errors.add("Malformed row: " + e.getOriginalMessage());
+			return;
+		} catch (IllegalArgumentException e) {
+			row.errors.add("Malformed row: " + e.getMessage());
+			return;
+		}
+		row.customer.setId(null);
+
+		row.errors.addAll(customerBatchValidator.validateConstraints(row.customer, locale));
+
+		if (row.errors.isEmpty()) {
+			PhoneClassification classification = phoneValidityEngine.classify(row.customer.getPhone());
+			row.customer.setCountry(classification.getCountry());
+			row.customer.setState(classification.getState());
+		}
+	}
+
+	/**
+	 * Insert the rows with Ids reserved from the sequence shared with Hibernate.
+	 * The Ids are cleared if the transaction rolls back.
+	 */
+	private void insert(List<ImportRow> rows) {
+		if (rows.isEmpty())
+			return;
+
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		try {
+			insert(rows, now);
+		} catch (RuntimeException e) {
+			for (ImportRow row : rows)
+				row.customer.setId(null);
+			throw e;
+		}
+	}
+
+	private void insert(List<ImportRow> rows, Timestamp now) {
+		transactionTemplate.executeWithoutResult(transaction -> {
+			long id = jdbcTemplate.queryForObject("SELECT next_val FROM hibernate_sequence", Long.class);
+			jdbcTemplate.update("UPDATE hibernate_sequence SET next_val = ?", id + rows.size());
+
+			List<Object[]> values = new ArrayList<>(rows.size());
+			for (ImportRow row : rows) {
+				Customer customer = row.customer;
+				customer.setId(id++);
+				values.add(new Object[] { customer.getId(), now, now, customer.getName(), customer.getCountryCode(),
+						customer.getPhone(), customer.getEmail(), customer.getGender(), customer.getCountry(),
+						customer.getState().name() });
+			}
+			jdbcTemplate.batchUpdate("INSERT INTO customers (id, created_at, updated_at, name, country_code, phone, "
+					+ "email, gender, country, state) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", values);
+		});
+	}
+
+	private Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+		String header = reader.readLine();
+		if (header == null)
+			return Collections.emptyMap();
+
+		List<String> names = splitCsv(header).stream()
+				.map(name -> name.trim().toLowerCase())
+				.collect(Collectors.toList());
+		Map<String, Integer> columns = new HashMap<>();
+		for (String column : CSV_COLUMNS) {
+			int index = names.indexOf(column);
+			if (index >= 0)
+				columns.put(column, index);
+		}
+		return columns;
+	}
+
+	private static Customer parseCsv(String line, Map<String, Integer> columns) {
+		List<String> values = splitCsv(line);
+		Customer customer = new Customer();
+		customer.setName(column(values, columns, "name"));
+		customer.setPhone(column(values, columns, "phone"));
+		customer.setEmail(column(values, columns, "email"));
+		customer.setGender(column(values, columns, "gender"));
+		customer.setCountryCode(column(values, columns, "country_code"));
+		return customer;
+	}
+
+	private static String column(List<String> values, Map<String, Integer> columns, String name) {
+		Integer index = columns.get(name);
+		if (index == null || index >= values.size())
+			return null;
+		String value = values.get(index);
+		return value.isEmpty() ? null : value;
+	}
+
+	/**
+	 * Split a CSV line, values may be quoted with double quotes doubled inside.
+	 */
+	static List<String> splitCsv(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c != '"')
+					value.append(c);
+				else if (i + 1 < line.length() && line.charAt(i + 1) == '"')
+					value.append(line.charAt(++i));
+				else
+					quoted = false;
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(value.toString());
+				value.setLength(0);
+			} else {
+				value.append(c);
+			}
+		}
+		if (quoted)
+			throw new IllegalArgumentException("Unclosed quote");
+		values.add(value.toString());
+		return values;
+	}
+
+	private String message(String code) {
+		return messageSource.getMessage(code, null, LocaleContextHolder.getLocale());
+	}
+
+	private void writeLine(OutputStream report, Object value) throws IOException {
+		report.write(objectMapper.writeValueAsBytes(value));
+		report.write('\n');
+	}
+
+	private static final class ImportRow {
+
+		private final long number;
+		private final String line;
+		private final List<String> errors = new ArrayList<>();
+		private Customer customer;
+
+		private ImportRow(long number, String line) {
+			this.number = number;
+			this.line = line;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.sayedbaladoh.phonenumbers.importer;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The import result of a row, its Id if accepted or its errors if rejected.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class ImportRowResult {
+
+	public enum Status {
+		ACCEPTED, REJECTED
+	}
+
+	/**
+	 * The row number, the first data row is 1.
+	 */
+	private final long row;
+
+	private final Status status;
+
+	private final Long id;
+
+	private final List<String> errors;
+}
@@ -0,0 +1,23 @@
+package com.sayedbaladoh.phonenumbers.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The summary of an import, the last line of its report.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class ImportSummary {
+
+	private final long accepted;
+
+	private final long rejected;
+
+	private final long elapsedMillis;
+
+	private final double rowsPerSecond;
+}
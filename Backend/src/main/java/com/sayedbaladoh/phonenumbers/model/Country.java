@@ -39,10 +39,14 @@ public class Country {
 	
 	/**
 	 * The country Id.
+	 * 
+	 * Ids are reserved in blocks of 50 from the <code>hibernate_sequence</code>
+	 * table shared by the customers and countries, then assigned in memory, see
+	 * the generator in <code>package-info</code>.
 	 */
 	@ApiModelProperty(notes = "The generated country Id.", hidden = true, readOnly = true)
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hibernate_sequence")
     private Long id;
  
 	/**
@@ -2,30 +2,40 @@ package com.sayedbaladoh.phonenumbers.model;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
-import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
 import org.hibernate.annotations.DynamicUpdate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonProperty.Access;
 import com.sayedbaladoh.phonenumbers.validator.CountryCode;
 import com.sayedbaladoh.phonenumbers.validator.CountryDialCode;
 import com.sayedbaladoh.phonenumbers.validator.EmailTaken;
 import com.sayedbaladoh.phonenumbers.validator.Gender;
+import com.sayedbaladoh.phonenumbers.validator.PhoneNumber;
 import com.sayedbaladoh.phonenumbers.validator.PhoneTaken;
 
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * The Customer entity. All details about the Customer.
@@ -33,6 +43,9 @@ import lombok.NoArgsConstructor;
  * Extends <code>DateAudit</code> to automatically populate createdAt and
  * updatedAt values when we persist an <code>Customer</code> entity.
  * 
+ * The customers indexes are created by the migrations of
+ * <code>db/migration</code>, see <code>SchemaMigrationConfig</code>.
+ * 
  * @author Sayed Baladoh
  *
  */
@@ -48,10 +61,14 @@ public class Customer extends DateAudit{
 
 	/**
 	 * The customer Id.
+	 * 
+	 * Ids are reserved in blocks of 50 from the <code>hibernate_sequence</code>
+	 * table shared by the customers and countries, then assigned in memory, see
+	 * the generator in <code>package-info</code>.
 	 */
 	@ApiModelProperty(notes = "The generated customer Id.", hidden = true, readOnly = true)
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hibernate_sequence")
     private Long id;
  
 	/**
@@ -77,8 +94,7 @@ public class Customer extends DateAudit{
 	 */
 	@ApiModelProperty(notes = "The customer phone number.")
 	@NotBlank(message = "{required}")
-	@Pattern(
-			regexp = "^((\\(\\d{1,6}\\))|\\d{1,6})[- .]?(\\d{3}[- .]?){2}\\d{1,4}$", message = "{phone.invalid}")
+	@PhoneNumber
 	@CountryDialCode
 	@Size(min = 3, max = 50)
 	@PhoneTaken
@@ -103,4 +119,62 @@ public class Customer extends DateAudit{
 	@Column(length = 9)
 	private String gender;
 
+	/**
+	 * The country resolved from the phone number dial code.
+	 */
+	@ApiModelProperty(notes = "The country resolved from the phone number dial code.", readOnly = true)
+	@JsonProperty(access = Access.READ_ONLY)
+	@Column(length = 50)
+	private String country;
+
+	/**
+	 * The phone number state, valid or not valid for its country.
+	 */
+	@ApiModelProperty(notes = "The phone number state, valid or not valid for its country.", readOnly = true)
+	@JsonProperty(access = Access.READ_ONLY)
+	@Enumerated(EnumType.STRING)
+	@Column(length = 9)
+	private PhoneState state;
+
+	/**
+	 * The country code as last loaded from or written to the database, to move
+	 * the customer between the country statistics when it changes.
+	 */
+	@ApiModelProperty(hidden = true)
+	@JsonIgnore
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private String storedCountryCode;
+
+	/**
+	 * The name as last loaded from or written to the database, to replace it
+	 * in the name suggestions when it changes.
+	 */
+	@ApiModelProperty(hidden = true)
+	@JsonIgnore
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private String storedName;
+
+	/**
+	 * Whether the customer was loaded from or written to the database.
+	 */
+	@ApiModelProperty(hidden = true)
+	@JsonIgnore
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private boolean stored;
+
+	@PostLoad
+	@PostPersist
+	@PostUpdate
+	void onStored() {
+		storedCountryCode = countryCode;
+		storedName = name;
+		stored = true;
+	}
+
 }
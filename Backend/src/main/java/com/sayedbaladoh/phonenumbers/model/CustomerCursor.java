@@ -0,0 +1,97 @@
+package com.sayedbaladoh.phonenumbers.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.Getter;
+
+/**
+ * The position of a customer in a keyset (cursor) paginated listing.
+ * 
+ * The cursor holds the sort key and Id of the last returned customer, the next
+ * slice is read from that position using the index instead of skipping an
+ * OFFSET of rows. It's handed to clients as an opaque URL safe token.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@Getter
+public class CustomerCursor {
+
+	/**
+	 * The customer listing orders, the Id breaks ties.
+	 */
+	public enum SortKey {
+		ID, NAME
+	}
+
+	private final SortKey sortKey;
+
+	/**
+	 * The Id of the last returned customer.
+	 */
+	private final long id;
+
+	/**
+	 * The name of the last returned customer, empty when sorted by Id.
+	 */
+	private final String name;
+
+	private CustomerCursor(SortKey sortKey, long id, String name) {
+		this.sortKey = sortKey;
+		this.id = id;
+		this.name = name;
+	}
+
+	/**
+	 * Get the cursor before the first customer.
+	 * 
+	 * @param sortKey
+	 *            The listing order.
+	 * @return the cursor of the first slice.
+	 */
+	public static CustomerCursor first(SortKey sortKey) {
+		return new CustomerCursor(sortKey, Long.MIN_VALUE, "");
+	}
+
+	/**
+	 * Get the cursor following a customer.
+	 * 
+	 * @param sortKey
+	 *            The listing order.
+	 * @param customer
+	 *            The last returned customer.
+	 * @return the cursor of the next slice.
+	 */
+	public static CustomerCursor after(SortKey sortKey, Customer customer) {
+		return new CustomerCursor(sortKey, customer.getId(), sortKey == SortKey.NAME ? customer.getName() : "");
+	}
+
+	/**
+	 * Encode the cursor as an opaque token.
+	 * 
+	 * @return the token.
+	 */
+	public String encode() {
+		String value = sortKey.name() + ":" + id + ":" + name;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decode a cursor token.
+	 * 
+	 * @param token
+	 *            The token returned by <code>encode()</code>.
+	 * @return the cursor.
+	 * @throws IllegalArgumentException
+	 *             if the token is not a valid cursor.
+	 */
+	public static CustomerCursor decode(String token) {
+		String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		String[] parts = value.split(":", 3);
+		if (parts.length != 3)
+			throw new IllegalArgumentException("Invalid cursor " + token);
+
+		return new CustomerCursor(SortKey.valueOf(parts[0]), Long.parseLong(parts[1]), parts[2]);
+	}
+}
@@ -0,0 +1,140 @@
+package com.sayedbaladoh.phonenumbers.model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A sparse fieldset of the customers, the fields listed by a request, e.g.
+ * <code>fields=id,name,phone,country_code</code>.
+ *
+ * The fields are named as in the customer JSON and returned in the customer
+ * order whatever the listed order. Only their columns are read.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public final class CustomerFields {
+
+	/**
+	 * The columns by JSON field name, in the customer order.
+	 */
+	private static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+
+	static {
+		COLUMNS.put("id", "id");
+		COLUMNS.put("name", "name");
+		COLUMNS.put("country_code", "country_code");
+		COLUMNS.put("phone", "phone");
+		COLUMNS.put("email", "email");
+		COLUMNS.put("gender", "gender");
+		COLUMNS.put("country", "country");
+		COLUMNS.put("state", "state");
+		COLUMNS.put("createdAt", "created_at");
+		COLUMNS.put("updatedAt", "updated_at");
+	}
+
+	public static final CustomerFields ALL = new CustomerFields(new ArrayList<>(COLUMNS.keySet()));
+
+	private final List<String> names;
+	private final String columns;
+
+	private CustomerFields(List<String> names) {
+		this.names = Collections.unmodifiableList(names);
+		this.columns = String.join(", ", names.stream().map(COLUMNS::get).toArray(String[]::new));
+	}
+
+	/**
+	 * Parse the fields of a request.
+	 *
+	 * @param fields
+	 *            The comma separated field names, all the fields if
+	 *            <code>null</code> or blank.
+	 * @return the fieldset.
+	 * @throws IllegalArgumentException
+	 *             if a field is unknown.
+	 */
+	public static CustomerFields of(String fields) {
+		if (fields == null || fields.trim().isEmpty())
+			return ALL;
+
+		List<String> requested = new ArrayList<>();
+		for (String field : fields.split(",")) {
+			String name = field.trim();
+			if (!COLUMNS.containsKey(name))
+				throw new IllegalArgumentException("Unknown field " + name + ", expected " + COLUMNS.keySet());
+			requested.add(name);
+		}
+		List<String> names = new ArrayList<>();
+		for (String name : COLUMNS.keySet())
+			if (requested.contains(name))
+				names.add(name);
+		return new CustomerFields(names);
+	}
+
+	/**
+	 * Get the column of a field or of a customer property, e.g.
+	 * <code>country_code</code> or <code>countryCode</code>.
+	 *
+	 * @param name
+	 *            The field or property name.
+	 * @return the column, <code>null</code> if unknown.
+	 */
+	public static String column(String name) {
+		String column = COLUMNS.get(name);
+		if (column == null && name != null)
+			column = COLUMNS.get(name.replaceAll("([A-Z])", "_$1").toLowerCase(Locale.ROOT));
+		return column;
+	}
+
+	/**
+	 * @return the select list of the fields columns.
+	 */
+	public String getColumns() {
+		return columns;
+	}
+
+	public List<String> getNames() {
+		return names;
+	}
+
+	/**
+	 * Read the fields of a row as the customer JSON does, the timestamps as
+	 * instants and the state as its enum.
+	 *
+	 * @param rs
+	 *            The row, selected with {@link #getColumns()}.
+	 * @return the values by field name.
+	 */
+	public Map<String, Object> read(ResultSet rs) throws SQLException {
+		Map<String, Object> customer = new LinkedHashMap<>(names.size() * 2);
+		for (int i = 0; i < names.size(); i++) {
+			String name = names.get(i);
+			Object value;
+			switch (name) {
+			case "id":
+				value = rs.getLong(i + 1);
+				break;
+			case "state":
+				String state = rs.getString(i + 1);
+				value = state == null ? null : PhoneState.valueOf(state);
+				break;
+			case "createdAt":
+			case "updatedAt":
+				long millis = rs.getLong(i + 1);
+				value = rs.wasNull() ? null : Instant.ofEpochMilli(millis);
+				break;
+			default:
+				value = rs.getString(i + 1);
+			}
+			customer.put(name, value);
+		}
+		return customer;
+	}
+}
@@ -0,0 +1,56 @@
+package com.sayedbaladoh.phonenumbers.model;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+import com.sayedbaladoh.phonenumbers.model.CustomerCursor.SortKey;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A slice of a keyset (cursor) paginated customers listing.
+ * 
+ * Unlike <code>Page</code> there's no total count, so no
+ * <code>COUNT(*)</code> query is needed.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@ApiModel(description = "A slice of customers with the cursor of the next slice.")
+@Getter
+@AllArgsConstructor
+public class CustomerSlice {
+
+	@ApiModelProperty(notes = "The customers of this slice.")
+	private final List<Customer> content;
+
+	@ApiModelProperty(notes = "The requested slice size.")
+	private final int size;
+
+	@ApiModelProperty(notes = "Whether there are more customers after this slice.")
+	private final boolean hasNext;
+
+	@ApiModelProperty(notes = "The cursor to pass as 'after' to get the next slice, null on the last slice.")
+	private final String next;
+
+	/**
+	 * Build the response of a slice.
+	 * 
+	 * @param slice
+	 *            The slice of customers.
+	 * @param sortKey
+	 *            The listing order.
+	 * @return the customers and the next cursor.
+	 */
+	public static CustomerSlice of(Slice<Customer> slice, SortKey sortKey) {
+		List<Customer> content = slice.getContent();
+		String next = slice.hasNext()
+				? CustomerCursor.after(sortKey, content.get(content.size() - 1)).encode()
+				: null;
+		return new CustomerSlice(content, slice.getSize(), slice.hasNext(), next);
+	}
+}
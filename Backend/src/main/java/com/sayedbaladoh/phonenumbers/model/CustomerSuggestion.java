@@ -0,0 +1,24 @@
+package com.sayedbaladoh.phonenumbers.model;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Customer name suggestion
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@ApiModel(description = "A customer name matching the typed prefix.")
+@Getter
+@AllArgsConstructor
+public class CustomerSuggestion {
+
+	@ApiModelProperty(notes = "The customer Id.")
+	private final Long id;
+
+	@ApiModelProperty(notes = "The customer name.")
+	private final String name;
+}
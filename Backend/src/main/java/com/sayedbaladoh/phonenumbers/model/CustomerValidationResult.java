@@ -0,0 +1,29 @@
+package com.sayedbaladoh.phonenumbers.model;
+
+import java.util.List;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Customer validation result
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@ApiModel(description = "The constraint violations of a candidate customer.")
+@Getter
+@AllArgsConstructor
+public class CustomerValidationResult {
+
+	@ApiModelProperty(notes = "The candidate position in the request, starting at 0.")
+	private final int index;
+
+	@ApiModelProperty(notes = "Whether the candidate can be added.")
+	private final boolean valid;
+
+	@ApiModelProperty(notes = "The violations as 'field: message', sorted.")
+	private final List<String> errors;
+}
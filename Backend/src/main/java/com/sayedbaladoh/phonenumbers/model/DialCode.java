@@ -0,0 +1,52 @@
+package com.sayedbaladoh.phonenumbers.model;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+
+/**
+ * An international dialing code and the countries using it.
+ *
+ * Some countries share a dial code (e.g. Canada and the United States), they
+ * are ordered by Id and the first one is the primary country.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ApiModel(description = "An international dialing code and the countries using it.")
+@Getter
+public class DialCode {
+
+	/**
+	 * The international standard dialing code.
+	 */
+	@ApiModelProperty(notes = "The international standard dialing code.")
+	@JsonProperty("isd_code")
+	private final String isd;
+
+	/**
+	 * The countries using the dial code.
+	 */
+	@ApiModelProperty(notes = "The countries using the dial code.")
+	private final List<Country> countries;
+
+	public DialCode(String isd, List<Country> countries) {
+		this.isd = isd;
+		this.countries = Collections.unmodifiableList(countries);
+	}
+
+	/**
+	 * Get the primary country of the dial code.
+	 *
+	 * @return the country with the lowest Id using the dial code.
+	 */
+	@ApiModelProperty(notes = "The primary country using the dial code.")
+	public Country getCountry() {
+		return countries.get(0);
+	}
+}
@@ -0,0 +1,14 @@
+package com.sayedbaladoh.phonenumbers.model;
+
+/**
+ * The state of a phone number, valid or not valid for its country.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+public enum PhoneState {
+
+	VALID,
+
+	NOT_VALID
+}
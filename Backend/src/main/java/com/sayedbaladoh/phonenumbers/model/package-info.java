@@ -0,0 +1,25 @@
+/**
+ * The entities and the API models.
+ *
+ * The customers and countries share the <code>hibernate_sequence</code>
+ * generator: Ids are reserved in blocks of 50 from the
+ * <code>hibernate_sequence</code> table then assigned in memory by the
+ * pooled-lo optimizer. The table <code>next_val</code> is the next free Id, the
+ * importer and the customer generator reserve their Ids from it as well. A
+ * transaction holding the writer reserves its own blocks, see
+ * <code>IdBlockGenerator</code>.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@GenericGenerator(
+		name = "hibernate_sequence",
+		strategy = "com.sayedbaladoh.phonenumbers.dialect.IdBlockGenerator",
+		parameters = {
+				@Parameter(name = "sequence_name", value = "hibernate_sequence"),
+				@Parameter(name = "increment_size", value = "50"),
+				@Parameter(name = "optimizer", value = "pooled-lo") })
+package com.sayedbaladoh.phonenumbers.model;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
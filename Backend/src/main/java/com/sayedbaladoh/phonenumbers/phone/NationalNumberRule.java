@@ -0,0 +1,57 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+/**
+ * Phone validity rule checking the length and the leading digit of the
+ * national number without regular expressions.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+public class NationalNumberRule implements PhoneValidityRule {
+
+	private final String isd;
+	private final int minLength;
+	private final int maxLength;
+	private final String leadingDigits;
+
+	/**
+	 * Initialize <code>NationalNumberRule</code> with specified parameters.
+	 * 
+	 * @param isd
+	 *            The country dial code.
+	 * @param minLength
+	 *            The minimum national number length.
+	 * @param maxLength
+	 *            The maximum national number length.
+	 * @param leadingDigits
+	 *            The digits a national number may start with, or
+	 *            <code>null</code> to accept any digit.
+	 */
+	public NationalNumberRule(String isd, int minLength, int maxLength, String leadingDigits) {
+		this.isd = isd;
+		this.minLength = minLength;
+		this.maxLength = maxLength;
+		this.leadingDigits = leadingDigits;
+	}
+
+	@Override
+	public String getIsd() {
+		return isd;
+	}
+
+	@Override
+	public boolean isValid(CharSequence nationalNumber) {
+		int length = nationalNumber.length();
+		if (length < minLength || length > maxLength)
+			return false;
+		if (leadingDigits != null && leadingDigits.indexOf(nationalNumber.charAt(0)) < 0)
+			return false;
+
+		for (int i = 0; i < length; i++) {
+			char c = nationalNumber.charAt(i);
+			if (c < '0' || c > '9')
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,60 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Phone country rule matching the longest national prefix (e.g. an area code)
+ * assigned to a country.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+public class NationalPrefixRule implements PhoneCountryRule {
+
+	private final String isd;
+	private final Map<String, String> alpha2CodesByPrefix;
+	private final int[] prefixLengths;
+	private final String otherAlpha2Code;
+
+	/**
+	 * Initialize <code>NationalPrefixRule</code> with specified parameters.
+	 * 
+	 * @param isd
+	 *            The shared dial code.
+	 * @param alpha2CodesByPrefix
+	 *            The alpha 2 code of the country each national prefix is
+	 *            assigned to.
+	 * @param otherAlpha2Code
+	 *            The alpha 2 code of the country of the other national numbers,
+	 *            or <code>null</code> if they aren't resolved.
+	 */
+	public NationalPrefixRule(String isd, Map<String, String> alpha2CodesByPrefix, String otherAlpha2Code) {
+		this.isd = isd;
+		this.alpha2CodesByPrefix = new HashMap<>(alpha2CodesByPrefix);
+		this.prefixLengths = alpha2CodesByPrefix.keySet().stream()
+				.map(String::length)
+				.collect(() -> new TreeSet<Integer>((a, b) -> b - a), TreeSet::add, TreeSet::addAll)
+				.stream().mapToInt(Integer::intValue).toArray();
+		this.otherAlpha2Code = otherAlpha2Code;
+	}
+
+	@Override
+	public String getIsd() {
+		return isd;
+	}
+
+	@Override
+	public String resolveAlpha2Code(CharSequence nationalNumber) {
+		for (int length : prefixLengths) {
+			if (length > nationalNumber.length())
+				continue;
+
+			String alpha2Code = alpha2CodesByPrefix.get(nationalNumber.subSequence(0, length).toString());
+			if (alpha2Code != null)
+				return alpha2Code;
+		}
+		return otherAlpha2Code;
+	}
+}
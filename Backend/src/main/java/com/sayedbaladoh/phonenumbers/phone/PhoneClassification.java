@@ -0,0 +1,29 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The country and state of a phone number.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class PhoneClassification {
+
+	/**
+	 * The country name resolved from the dial code, <code>null</code> if the
+	 * dial code is unknown or shared by countries the number doesn't tell
+	 * apart.
+	 */
+	private final String country;
+
+	/**
+	 * The phone number state.
+	 */
+	private final PhoneState state;
+}
@@ -0,0 +1,31 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+/**
+ * A rule resolving the country of a phone number whose dial code is shared by
+ * several countries (e.g. Canada and the United States).
+ * 
+ * Rules are Spring beans collected by the <code>PhoneValidityEngine</code>, a
+ * shared dial code without a rule isn't resolved to any country.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+public interface PhoneCountryRule {
+
+	/**
+	 * Get the shared dial code the rule applies to.
+	 * 
+	 * @return the international standard dialing code.
+	 */
+	String getIsd();
+
+	/**
+	 * Resolve the country of a national number.
+	 * 
+	 * @param nationalNumber
+	 *            The digits following the dial code.
+	 * @return the alpha 2 code of the country, or <code>null</code> if the
+	 *         national number doesn't tell the country.
+	 */
+	String resolveAlpha2Code(CharSequence nationalNumber);
+}
@@ -0,0 +1,150 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+/**
+ * The result of tokenizing a phone number with
+ * <code>PhoneNumberTokenizer</code>.
+ *
+ * The token is a <code>CharSequence</code> of the phone digits following the
+ * international prefix, e.g. <code>2126007989253</code> for
+ * <code>(212) 6007989253</code> or <code>00212 600-798-9253</code>.
+ *
+ * Tokens are mutable holders reused between tokenizations, so they must not be
+ * kept once the next phone number has been tokenized.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public final class PhoneNumberToken implements CharSequence {
+
+	/**
+	 * Phone numbers are at most 50 characters long, as the phone column, so at
+	 * most 50 digits are kept. Further digits are dropped and the phone is not
+	 * well-formed.
+	 */
+	static final int MAX_DIGITS = 50;
+
+	final char[] digits = new char[MAX_DIGITS];
+
+	/**
+	 * The number of digits, international prefix included.
+	 */
+	int count;
+
+	/**
+	 * The number of international prefix digits, 2 for <code>00</code>.
+	 */
+	int prefixLength;
+
+	/**
+	 * The number of digits wrapped in parentheses, -1 if none.
+	 */
+	int enclosedLength;
+
+	boolean unclosed;
+
+	boolean clean;
+
+	boolean wellFormed;
+
+	private final NationalNumber nationalNumber = new NationalNumber();
+
+	void reset() {
+		count = 0;
+		prefixLength = 0;
+		enclosedLength = -1;
+		unclosed = false;
+		clean = true;
+		wellFormed = false;
+	}
+
+	/**
+	 * Whether the phone matches the <code>(country code) phone number</code>
+	 * format, i.e. the dial code optionally in parentheses followed by three
+	 * groups of digits optionally separated by a space, dash or dot.
+	 */
+	public boolean isWellFormed() {
+		return wellFormed;
+	}
+
+	/**
+	 * Whether the phone contains only digits, separators, parentheses and an
+	 * international prefix.
+	 */
+	public boolean isClean() {
+		return clean;
+	}
+
+	/**
+	 * Whether an opening parenthesis is never closed.
+	 */
+	public boolean isUnclosed() {
+		return unclosed;
+	}
+
+	/**
+	 * The number of digits wrapped in parentheses, e.g. 3 for
+	 * <code>(212) 6007989253</code>, -1 if none.
+	 */
+	public int getEnclosedLength() {
+		return enclosedLength;
+	}
+
+	/**
+	 * Get the digits following the dial code.
+	 *
+	 * The returned view is reused by the token, it changes with the next call.
+	 *
+	 * @param isdLength
+	 *            The length of the dial code.
+	 * @return the national number.
+	 */
+	public CharSequence nationalNumber(int isdLength) {
+		nationalNumber.start = Math.min(prefixLength + isdLength, count);
+		return nationalNumber;
+	}
+
+	@Override
+	public int length() {
+		return count - prefixLength;
+	}
+
+	@Override
+	public char charAt(int index) {
+		return digits[prefixLength + index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new String(digits, prefixLength + start, end - start);
+	}
+
+	@Override
+	public String toString() {
+		return new String(digits, prefixLength, count - prefixLength);
+	}
+
+	private final class NationalNumber implements CharSequence {
+
+		private int start;
+
+		@Override
+		public int length() {
+			return count - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return digits[start + index];
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			return new String(digits, start + from, to - from);
+		}
+
+		@Override
+		public String toString() {
+			return new String(digits, start, count - start);
+		}
+	}
+}
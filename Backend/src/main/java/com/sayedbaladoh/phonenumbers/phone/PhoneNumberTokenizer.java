@@ -0,0 +1,164 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+/**
+ * Phone Number Tokenizer scans a raw or formatted phone number once and
+ * produces a <code>PhoneNumberToken</code>: the normalized digits, the digits
+ * wrapped in parentheses and the format flags.
+ *
+ * It replaces the regular expressions previously run by the bean validation
+ * constraints, <code>isWellFormed()</code> is equivalent to
+ * <code>^((\(\d{1,6}\))|\d{1,6})[- .]?(\d{3}[- .]?){2}\d{1,4}$</code>. The
+ * separators may only follow the dial code and the next two groups of three
+ * digits, so the format is checked from the digit positions of the separators
+ * instead of backtracking.
+ *
+ * Tokenizing doesn't allocate, the token of each thread is reused and the last
+ * phone <code>String</code> is remembered so the validators and the validity
+ * engine share a single scan of the same value.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public final class PhoneNumberTokenizer {
+
+	private static final int MAX_ISD_LENGTH = 6;
+	private static final int GROUP_LENGTH = 3;
+	private static final int MIN_LAST_GROUP_LENGTH = 1;
+	private static final int MAX_LAST_GROUP_LENGTH = 4;
+
+	private static final ThreadLocal<CachedToken> TOKENS = ThreadLocal.withInitial(CachedToken::new);
+
+	private PhoneNumberTokenizer() {
+	}
+
+	/**
+	 * Tokenize a phone number into the token of the current thread.
+	 *
+	 * @param phone
+	 *            The phone number, not <code>null</code>.
+	 * @return the token, valid until the next tokenization on this thread.
+	 */
+	public static PhoneNumberToken tokenize(CharSequence phone) {
+		CachedToken cached = TOKENS.get();
+		// Strings are immutable, the same instance gives the same token
+		if (phone instanceof String && phone == cached.phone)
+			return cached.token;
+
+		cached.phone = phone instanceof String ? phone : null;
+		return tokenize(phone, cached.token);
+	}
+
+	/**
+	 * Tokenize a phone number into the given token.
+	 *
+	 * @param phone
+	 *            The phone number, not <code>null</code>.
+	 * @param token
+	 *            The token to fill.
+	 * @return the token.
+	 */
+	public static PhoneNumberToken tokenize(CharSequence phone, PhoneNumberToken token) {
+		token.reset();
+		char[] digits = token.digits;
+		int length = phone.length();
+		int i = 0;
+
+		// Leading spaces and "+" are tolerated to resolve the dial code but
+		// aren't part of the format
+		boolean formatted = true;
+		while (i < length && phone.charAt(i) == ' ') {
+			i++;
+			formatted = false;
+		}
+		if (i < length && phone.charAt(i) == '+') {
+			i++;
+			formatted = false;
+		} else if (i + 1 < length && phone.charAt(i) == '0' && phone.charAt(i + 1) == '0') {
+			digits[0] = '0';
+			digits[1] = '0';
+			token.count = token.prefixLength = 2;
+			i += 2;
+		}
+
+		int count = token.count;
+		boolean enclosed = false;
+		boolean separated = false;
+		long separators = 0;
+
+		for (; i < length; i++) {
+			char c = phone.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (count < PhoneNumberToken.MAX_DIGITS)
+					digits[count++] = c;
+				else
+					formatted = false;
+				separated = false;
+			} else if (c == '(' && count == token.prefixLength && token.enclosedLength < 0 && !enclosed) {
+				enclosed = true;
+				if (i != 0)
+					formatted = false;
+			} else if (c == ')' && enclosed) {
+				enclosed = false;
+				token.enclosedLength = count - token.prefixLength;
+				if (separated)
+					formatted = false;
+			} else if (c == ' ' || c == '-' || c == '.') {
+				if (separated || enclosed || count >= Long.SIZE)
+					formatted = false;
+				else
+					separators |= 1L << count;
+				separated = true;
+			} else {
+				token.clean = false;
+				break;
+			}
+		}
+
+		token.count = count;
+		token.unclosed = enclosed;
+		token.wellFormed = formatted && token.clean && !enclosed
+				&& isWellFormed(count, token.enclosedLength, separators);
+		return token;
+	}
+
+	/**
+	 * Check the digit count and separator positions match the dial code
+	 * followed by the groups of 3, 3 and 1 to 4 digits.
+	 *
+	 * @param count
+	 *            The number of digits.
+	 * @param enclosedLength
+	 *            The dial code length if wrapped in parentheses, -1 if not.
+	 * @param separators
+	 *            Bit i is set if a separator follows the i-th digit.
+	 */
+	private static boolean isWellFormed(int count, int enclosedLength, long separators) {
+		if (enclosedLength >= 0)
+			return matchesGroups(count, enclosedLength, separators);
+
+		for (int isdLength = 1; isdLength <= MAX_ISD_LENGTH; isdLength++) {
+			if (matchesGroups(count, isdLength, separators))
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean matchesGroups(int count, int isdLength, long separators) {
+		if (isdLength < 1 || isdLength > MAX_ISD_LENGTH)
+			return false;
+
+		int lastGroupLength = count - isdLength - 2 * GROUP_LENGTH;
+		if (lastGroupLength < MIN_LAST_GROUP_LENGTH || lastGroupLength > MAX_LAST_GROUP_LENGTH)
+			return false;
+
+		long allowed = (1L << isdLength) | (1L << (isdLength + GROUP_LENGTH))
+				| (1L << (isdLength + 2 * GROUP_LENGTH));
+		return (separators & ~allowed) == 0;
+	}
+
+	private static final class CachedToken {
+
+		private final PhoneNumberToken token = new PhoneNumberToken();
+		private CharSequence phone;
+	}
+}
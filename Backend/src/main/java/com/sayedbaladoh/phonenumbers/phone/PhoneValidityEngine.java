@@ -0,0 +1,105 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.sayedbaladoh.phonenumbers.model.Country;
+import com.sayedbaladoh.phonenumbers.model.DialCode;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+import com.sayedbaladoh.phonenumbers.registry.CountryRegistry;
+
+/**
+ * Phone Validity Engine categorizes a phone number by country and state.
+ *
+ * The phone is tokenized by <code>PhoneNumberTokenizer</code>, the country is
+ * resolved from the dial code, then the national number is checked by the
+ * <code>PhoneValidityRule</code> registered for that dial code. Countries
+ * without a rule only get the E.164 length check.
+ *
+ * A dial code shared by several countries is resolved to one of them by the
+ * <code>PhoneCountryRule</code> of the dial code, otherwise the country is
+ * left unknown rather than guessed.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class PhoneValidityEngine {
+
+	/**
+	 * E.164 numbers have at most 15 digits, country code included.
+	 */
+	private static final PhoneValidityRule DEFAULT_RULE = new NationalNumberRule(null, 4, 14, null);
+
+	@Autowired
+	private CountryRegistry countryRegistry;
+
+	@Autowired
+	private List<PhoneValidityRule> phoneValidityRules;
+
+	@Autowired
+	private List<PhoneCountryRule> phoneCountryRules;
+
+	private final Map<String, PhoneValidityRule> rulesByIsd = new HashMap<>();
+
+	private final Map<String, PhoneCountryRule> countryRulesByIsd = new HashMap<>();
+
+	@PostConstruct
+	public void init() {
+		for (PhoneValidityRule rule : phoneValidityRules) {
+			if (rulesByIsd.putIfAbsent(rule.getIsd(), rule) != null)
+				throw new IllegalStateException("Duplicate phone validity rule for dial code " + rule.getIsd());
+		}
+		for (PhoneCountryRule rule : phoneCountryRules) {
+			if (countryRulesByIsd.putIfAbsent(rule.getIsd(), rule) != null)
+				throw new IllegalStateException("Duplicate phone country rule for dial code " + rule.getIsd());
+		}
+	}
+
+	/**
+	 * Categorize a phone number by country and state.
+	 *
+	 * @param phone
+	 *            The phone number.
+	 * @return the phone number country and state.
+	 */
+	public PhoneClassification classify(String phone) {
+		if (phone == null)
+			return new PhoneClassification(null, PhoneState.NOT_VALID);
+
+		PhoneNumberToken token = PhoneNumberTokenizer.tokenize(phone);
+		DialCode dialCode = countryRegistry.resolveDialCode(token);
+		if (dialCode == null)
+			return new PhoneClassification(null, PhoneState.NOT_VALID);
+
+		CharSequence nationalNumber = token.nationalNumber(dialCode.getIsd().length());
+		PhoneValidityRule rule = rulesByIsd.getOrDefault(dialCode.getIsd(), DEFAULT_RULE);
+		boolean valid = token.isClean() && rule.isValid(nationalNumber);
+
+		return new PhoneClassification(resolveCountry(dialCode, nationalNumber),
+				valid ? PhoneState.VALID : PhoneState.NOT_VALID);
+	}
+
+	private String resolveCountry(DialCode dialCode, CharSequence nationalNumber) {
+		List<Country> countries = dialCode.getCountries();
+		if (countries.size() == 1)
+			return countries.get(0).getName();
+
+		PhoneCountryRule rule = countryRulesByIsd.get(dialCode.getIsd());
+		String alpha2Code = rule == null ? null : rule.resolveAlpha2Code(nationalNumber);
+		if (alpha2Code == null)
+			return null;
+
+		for (Country country : countries) {
+			if (alpha2Code.equals(country.getAlpha2Code()))
+				return country.getName();
+		}
+		return null;
+	}
+}
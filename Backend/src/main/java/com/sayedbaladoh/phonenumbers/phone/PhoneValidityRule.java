@@ -0,0 +1,29 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+/**
+ * A country specific phone number validity rule.
+ * 
+ * Rules are Spring beans collected by the <code>PhoneValidityEngine</code>, so a
+ * new country is supported by declaring one more rule bean.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+public interface PhoneValidityRule {
+
+	/**
+	 * Get the dial code of the country the rule applies to.
+	 * 
+	 * @return the international standard dialing code.
+	 */
+	String getIsd();
+
+	/**
+	 * Check if a national number is valid.
+	 * 
+	 * @param nationalNumber
+	 *            The digits following the dial code.
+	 * @return true if the national number is valid for the country.
+	 */
+	boolean isValid(CharSequence nationalNumber);
+}
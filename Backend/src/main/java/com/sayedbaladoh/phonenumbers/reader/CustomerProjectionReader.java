@@ -0,0 +1,135 @@
+package com.sayedbaladoh.phonenumbers.reader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.sayedbaladoh.phonenumbers.errorhandler.BadRequestException;
+import com.sayedbaladoh.phonenumbers.model.CustomerFields;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+import com.sayedbaladoh.phonenumbers.search.CustomerNameIndex;
+
+/**
+ * Customer Projection Reader lists pages of customers with a single
+ * <code>SELECT</code> of the requested columns, mapped straight from the rows.
+ *
+ * The listed customers aren't entities: no persistence context, no dirty
+ * checking snapshot and no column read to be dropped by the serialization.
+ *
+ * The total is only counted when the page doesn't tell it, as Spring Data
+ * does. The pages are sorted by the pageable, then by Id so the pages don't
+ * overlap.
+ *
+ * The statements join the caller transaction.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerProjectionReader {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	public Page<Map<String, Object>> findAll(CustomerFields fields, Pageable pageable) {
+		return page(fields, "", pageable);
+	}
+
+	/**
+	 * Name contains, ignoring case. The names are found in the
+	 * <code>customers_trigram</code> index, and counted there, a name shorter
+	 * than a trigram falls back to the <code>LIKE</code> of the repository,
+	 * with its wildcards escaped.
+	 *
+	 * Unless the pageable is sorted, the names with words starting with the
+	 * searched words come first, ordered by relevance in the
+	 * <code>customers_fts</code> index, then the other matches by Id.
+	 */
+	public Page<Map<String, Object>> findAllByNameContaining(String name, CustomerFields fields,
+			Pageable pageable) {
+		String substring = CustomerNameIndex.toSubstringQuery(name);
+		if (substring == null) {
+			String pattern = "%" + name.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+			return page(fields, " WHERE upper(name) LIKE upper(?) ESCAPE '\\'", pageable, pattern);
+		}
+
+		// The matches drive the join, the customers are only read by Id
+		String from = " FROM (SELECT rowid AS match_id FROM customers_trigram WHERE customers_trigram MATCH ?)"
+				+ " CROSS JOIN customers ON id = match_id";
+		String words = CustomerNameIndex.toMatchQuery(name);
+		List<Map<String, Object>> content;
+		if (words == null || pageable.getSort().isSorted())
+			content = jdbcTemplate.query(
+					"SELECT " + fields.getColumns() + from + orderBy(pageable.getSort()) + limit(pageable),
+					(rs, rowNum) -> fields.read(rs), substring);
+		else
+			content = jdbcTemplate.query("SELECT " + fields.getColumns() + from
+					+ " LEFT JOIN (SELECT rowid AS word_id, rank AS word_rank FROM customers_fts"
+					+ " WHERE customers_fts MATCH ?) ON word_id = id"
+					+ " ORDER BY word_id IS NULL, word_rank, id" + limit(pageable),
+					(rs, rowNum) -> fields.read(rs), substring, words);
+		return PageableExecutionUtils.getPage(content, pageable, () -> jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM customers_trigram WHERE customers_trigram MATCH ?", Long.class, substring));
+	}
+
+	/**
+	 * Country code, ignoring case, through the
+	 * <code>upper(country_code)</code> index.
+	 */
+	public Page<Map<String, Object>> findAllByCountryCode(String countryCode, CustomerFields fields,
+			Pageable pageable) {
+		return page(fields, " WHERE upper(country_code) = upper(?)", pageable, countryCode);
+	}
+
+	public Page<Map<String, Object>> findAllByCountry(String country, CustomerFields fields, Pageable pageable) {
+		return page(fields, " WHERE country = ?", pageable, country);
+	}
+
+	public Page<Map<String, Object>> findAllByState(PhoneState state, CustomerFields fields, Pageable pageable) {
+		return page(fields, " WHERE state = ?", pageable, state.name());
+	}
+
+	private Page<Map<String, Object>> page(CustomerFields fields, String where, Pageable pageable, Object... args) {
+		List<Map<String, Object>> content = jdbcTemplate.query(
+				"SELECT " + fields.getColumns() + " FROM customers" + where + orderBy(pageable.getSort())
+						+ limit(pageable),
+				(rs, rowNum) -> fields.read(rs), args);
+		return PageableExecutionUtils.getPage(content, pageable, () -> count(where, args));
+	}
+
+	private long count(String where, Object... args) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers" + where, Long.class, args);
+	}
+
+	/**
+	 * @throws BadRequestException
+	 *             if a sort property isn't a customer field.
+	 */
+	private static String orderBy(Sort sort) {
+		List<String> orders = new ArrayList<>();
+		boolean byId = false;
+		for (Sort.Order order : sort) {
+			String column = CustomerFields.column(order.getProperty());
+			if (column == null)
+				throw new BadRequestException("Invalid sort: " + order.getProperty());
+			byId |= column.equals("id");
+			orders.add((order.isIgnoreCase() ? "upper(" + column + ")" : column)
+					+ (order.isAscending() ? "" : " DESC"));
+		}
+		if (!byId)
+			orders.add("id");
+		return " ORDER BY " + String.join(", ", orders);
+	}
+
+	private static String limit(Pageable pageable) {
+		return pageable.isPaged() ? " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset() : "";
+	}
+}
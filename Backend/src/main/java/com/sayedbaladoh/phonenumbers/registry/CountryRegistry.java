@@ -0,0 +1,191 @@
+package com.sayedbaladoh.phonenumbers.registry;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.sayedbaladoh.phonenumbers.model.Country;
+import com.sayedbaladoh.phonenumbers.model.DialCode;
+import com.sayedbaladoh.phonenumbers.phone.PhoneNumberToken;
+import com.sayedbaladoh.phonenumbers.repository.CountryRepository;
+
+/**
+ * Country Registry keeps an in-memory copy of the <code>countries</code> table
+ * indexed by ISD, alpha 2 and alpha 3 codes, plus a <code>DialCodeTrie</code>
+ * to resolve phone numbers to their country.
+ *
+ * The countries almost never change, so lookups are served from memory instead
+ * of querying the database on every request. Each write builds a new immutable
+ * snapshot and publishes it at once (copy-on-write), so readers never lock.
+ *
+ * The countries are loaded once the migrations seeded them.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+@DependsOn("flyway")
+public class CountryRegistry {
+
+	@Autowired
+	private CountryRepository countryRepository;
+
+	private volatile Snapshot snapshot = Snapshot.of(Collections.emptyList());
+
+	/**
+	 * Load all countries from the database.
+	 */
+	@PostConstruct
+	public synchronized void reload() {
+		snapshot = Snapshot.of(countryRepository.findAll(Sort.by("id")));
+	}
+
+	/**
+	 * Add or replace a country after it has been saved.
+	 *
+	 * @param country
+	 *            The saved country.
+	 */
+	public synchronized void put(Country country) {
+		Map<Long, Country> countries = new LinkedHashMap<>(snapshot.byId);
+		countries.put(country.getId(), copyOf(country));
+		snapshot = Snapshot.of(countries.values());
+	}
+
+	/**
+	 * Remove a country after it has been deleted.
+	 *
+	 * @param id
+	 *            The country Id.
+	 */
+	public synchronized void remove(Long id) {
+		Map<Long, Country> countries = new LinkedHashMap<>(snapshot.byId);
+		if (countries.remove(id) != null)
+			snapshot = Snapshot.of(countries.values());
+	}
+
+	public Optional<Country> getByAlpha2Code(String alpha2Code) {
+		return lookup(snapshot.byAlpha2Code, alpha2Code);
+	}
+
+	public Optional<Country> getByAlpha3Code(String alpha3Code) {
+		return lookup(snapshot.byAlpha3Code, alpha3Code);
+	}
+
+	public Optional<Country> getByIsd(String isd) {
+		return lookup(snapshot.byIsd, isd);
+	}
+
+	public boolean existsByAlpha2Code(String alpha2Code) {
+		return alpha2Code != null && snapshot.byAlpha2Code.containsKey(alpha2Code);
+	}
+
+	public boolean existsByAlpha3Code(String alpha3Code) {
+		return alpha3Code != null && snapshot.byAlpha3Code.containsKey(alpha3Code);
+	}
+
+	public boolean existsByIsd(String isd) {
+		return isd != null && snapshot.byIsd.containsKey(isd);
+	}
+
+	/**
+	 * Resolve the dial code of a raw or formatted phone number by longest-prefix
+	 * matching.
+	 *
+	 * @param phone
+	 *            The phone number.
+	 * @return the dial code or <code>null</code> if the phone doesn't start
+	 *         with a known dial code.
+	 * @see DialCodeTrie#resolve(CharSequence)
+	 */
+	public DialCode resolveDialCode(CharSequence phone) {
+		return snapshot.dialCodes.resolve(phone);
+	}
+
+	/**
+	 * Resolve the dial code of a tokenized phone number.
+	 *
+	 * @param token
+	 *            The phone number token.
+	 * @return the dial code or <code>null</code> if the phone doesn't start
+	 *         with a known dial code.
+	 * @see DialCodeTrie#resolve(PhoneNumberToken)
+	 */
+	public DialCode resolveDialCode(PhoneNumberToken token) {
+		return snapshot.dialCodes.resolve(token);
+	}
+
+	/**
+	 * Countries are handed out as copies so callers can't modify the shared
+	 * snapshot.
+	 */
+	private static Optional<Country> lookup(Map<String, Country> index, String key) {
+		if (key == null)
+			return Optional.empty();
+
+		Country country = index.get(key);
+		return country == null ? Optional.empty() : Optional.of(copyOf(country));
+	}
+
+	private static Country copyOf(Country country) {
+		return new Country(country.getId(), country.getName(), country.getAlpha2Code(), country.getAlpha3Code(),
+				country.getIsd());
+	}
+
+	/**
+	 * Immutable view of all countries and their indexes.
+	 *
+	 * Some countries share a dial code (e.g. Canada and the United States), the
+	 * one with the lowest Id wins the ISD index.
+	 */
+	private static final class Snapshot {
+
+		private final Map<Long, Country> byId;
+		private final Map<String, Country> byAlpha2Code;
+		private final Map<String, Country> byAlpha3Code;
+		private final Map<String, Country> byIsd;
+		private final DialCodeTrie dialCodes;
+
+		private Snapshot(Map<Long, Country> byId, Map<String, Country> byAlpha2Code,
+				Map<String, Country> byAlpha3Code, Map<String, Country> byIsd) {
+			this.byId = Collections.unmodifiableMap(byId);
+			this.byAlpha2Code = Collections.unmodifiableMap(byAlpha2Code);
+			this.byAlpha3Code = Collections.unmodifiableMap(byAlpha3Code);
+			this.byIsd = Collections.unmodifiableMap(byIsd);
+			this.dialCodes = DialCodeTrie.of(byId.values().stream()
+					.map(CountryRegistry::copyOf)
+					.collect(Collectors.toList()));
+		}
+
+		private static Snapshot of(Collection<Country> countries) {
+			Map<Long, Country> byId = new LinkedHashMap<>();
+			countries.stream()
+					.sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+					.forEach(country -> byId.put(country.getId(), country));
+
+			Map<String, Country> byAlpha2Code = new HashMap<>();
+			Map<String, Country> byAlpha3Code = new HashMap<>();
+			Map<String, Country> byIsd = new HashMap<>();
+			for (Country country : byId.values()) {
+				if (country.getAlpha2Code() != null)
+					byAlpha2Code.putIfAbsent(country.getAlpha2Code(), country);
+				if (country.getAlpha3Code() != null)
+					byAlpha3Code.putIfAbsent(country.getAlpha3Code(), country);
+				if (country.getIsd() != null)
+					byIsd.putIfAbsent(country.getIsd(), country);
+			}
+			return new Snapshot(byId, byAlpha2Code, byAlpha3Code, byIsd);
+		}
+	}
+}
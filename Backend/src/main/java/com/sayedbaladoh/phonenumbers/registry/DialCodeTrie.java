@@ -0,0 +1,157 @@
+package com.sayedbaladoh.phonenumbers.registry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sayedbaladoh.phonenumbers.model.Country;
+import com.sayedbaladoh.phonenumbers.model.DialCode;
+import com.sayedbaladoh.phonenumbers.phone.PhoneNumberToken;
+import com.sayedbaladoh.phonenumbers.phone.PhoneNumberTokenizer;
+
+/**
+ * Digit trie of the country dial codes used to resolve a phone number to its
+ * country by longest-prefix matching.
+ *
+ * Dial codes overlap (1, 1340, 1649, 1868...), so the longest code that
+ * prefixes the phone digits wins. The trie is stored in flat arrays, each node
+ * has ten child slots, and resolving a phone walks at most one node per digit
+ * of its <code>PhoneNumberToken</code> without allocating.
+ *
+ * Instances are immutable.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public final class DialCodeTrie {
+
+	private static final int RADIX = 10;
+	private static final int ROOT = 0;
+
+	/**
+	 * Child node of <code>node</code> for digit <code>d</code> is stored at
+	 * <code>children[node * RADIX + d]</code>, 0 means no child as the root is
+	 * never a child.
+	 */
+	private final int[] children;
+
+	/**
+	 * The dial code ending at each node, <code>null</code> for inner nodes.
+	 */
+	private final DialCode[] dialCodes;
+
+	private DialCodeTrie(int[] children, DialCode[] dialCodes) {
+		this.children = children;
+		this.dialCodes = dialCodes;
+	}
+
+	/**
+	 * Build a trie of the dial codes of the given countries.
+	 *
+	 * @param countries
+	 *            The countries ordered by Id, countries with a missing or
+	 *            non-numeric ISD are skipped.
+	 * @return the dial code trie.
+	 */
+	public static DialCodeTrie of(Collection<Country> countries) {
+		Map<String, List<Country>> countriesByIsd = new LinkedHashMap<>();
+		int capacity = 1;
+		for (Country country : countries) {
+			String isd = country.getIsd();
+			if (!isDigits(isd))
+				continue;
+			List<Country> sharing = countriesByIsd.computeIfAbsent(isd, key -> new ArrayList<>());
+			if (sharing.isEmpty())
+				capacity += isd.length();
+			sharing.add(country);
+		}
+
+		int[] children = new int[capacity * RADIX];
+		DialCode[] dialCodes = new DialCode[capacity];
+		int size = 1;
+		for (Map.Entry<String, List<Country>> entry : countriesByIsd.entrySet()) {
+			String isd = entry.getKey();
+			int node = ROOT;
+			for (int i = 0; i < isd.length(); i++) {
+				int slot = node * RADIX + (isd.charAt(i) - '0');
+				if (children[slot] == 0)
+					children[slot] = size++;
+				node = children[slot];
+			}
+			dialCodes[node] = new DialCode(isd, entry.getValue());
+		}
+
+		return new DialCodeTrie(Arrays.copyOf(children, size * RADIX), Arrays.copyOf(dialCodes, size));
+	}
+
+	/**
+	 * Resolve the dial code of a raw or formatted phone number.
+	 *
+	 * @param phone
+	 *            The phone number.
+	 * @return the longest matching dial code or <code>null</code> if none
+	 *         matches.
+	 * @see #resolve(PhoneNumberToken)
+	 */
+	public DialCode resolve(CharSequence phone) {
+		if (phone == null)
+			return null;
+		return resolve(PhoneNumberTokenizer.tokenize(phone));
+	}
+
+	/**
+	 * Resolve the dial code of a tokenized phone number.
+	 *
+	 * Accepts digits optionally separated by spaces, dashes or dots, with an
+	 * optional leading <code>+</code> or <code>00</code> international prefix
+	 * and the dial code optionally wrapped in parentheses. The digits up to the
+	 * first character that can't be part of a phone number are matched.
+	 *
+	 * When the dial code is wrapped in parentheses it must be a known code, the
+	 * result may still extend past the closing parenthesis, e.g.
+	 * <code>(1) 868 555 0100</code> resolves to 1868.
+	 *
+	 * @param token
+	 *            The phone number token.
+	 * @return the longest matching dial code or <code>null</code> if none
+	 *         matches.
+	 */
+	public DialCode resolve(PhoneNumberToken token) {
+		if (token == null || token.isUnclosed())
+			return null;
+
+		int enclosedLength = token.getEnclosedLength();
+		int length = token.length();
+		int node = ROOT;
+		DialCode longest = null;
+
+		for (int depth = 0; depth < length; depth++) {
+			node = children[node * RADIX + (token.charAt(depth) - '0')];
+			if (node == ROOT)
+				break;
+			if (dialCodes[node] != null)
+				longest = dialCodes[node];
+			if (depth + 1 == enclosedLength) {
+				if (dialCodes[node] == null)
+					return null;
+				enclosedLength = -1;
+			}
+		}
+
+		// The enclosed dial code must be matched entirely
+		return enclosedLength < 0 ? longest : null;
+	}
+
+	private static boolean isDigits(String value) {
+		if (value == null || value.isEmpty())
+			return false;
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) < '0' || value.charAt(i) > '9')
+				return false;
+		}
+		return true;
+	}
+}
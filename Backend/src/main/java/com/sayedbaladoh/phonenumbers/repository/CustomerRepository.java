@@ -3,10 +3,11 @@ package com.sayedbaladoh.phonenumbers.repository;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.sayedbaladoh.phonenumbers.model.Customer;
@@ -28,9 +29,38 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
 	Boolean existsByEmail(String email);
 
-	Page<Customer> findAllByNameContainingIgnoreCase(String name, Pageable pageable);
+	/*
+	 * Keyset pagination, the slices start after the (sort key, Id) of the last
+	 * returned customer. The pageable sorts by the same keys. The name bound
+	 * is repeated as name >= :afterName, the OR alone isn't a range SQLite
+	 * can search the (name, id) indexes with. The country code is compared as
+	 * upper(country_code), ignoring case as the indexes do.
+	 */
 
-	Page<Customer> findAllByCountryCodeIgnoreCase(String countryCode, Pageable pageable);
+	@Query("SELECT c FROM Customer c WHERE c.id > :afterId")
+	Slice<Customer> scrollById(@Param("afterId") long afterId, Pageable pageable);
+
+	@Query("SELECT c FROM Customer c WHERE c.name >= :afterName AND (c.name > :afterName OR c.id > :afterId)")
+	Slice<Customer> scrollByName(@Param("afterName") String afterName, @Param("afterId") long afterId,
+			Pageable pageable);
+
+	@Query("SELECT c FROM Customer c WHERE upper(c.name) LIKE upper(concat('%', :name, '%')) AND c.id > :afterId")
+	Slice<Customer> scrollByNameContainsById(@Param("name") String name, @Param("afterId") long afterId,
+			Pageable pageable);
+
+	@Query("SELECT c FROM Customer c WHERE upper(c.name) LIKE upper(concat('%', :name, '%')) "
+			+ "AND c.name >= :afterName AND (c.name > :afterName OR c.id > :afterId)")
+	Slice<Customer> scrollByNameContainsByName(@Param("name") String name, @Param("afterName") String afterName,
+			@Param("afterId") long afterId, Pageable pageable);
+
+	@Query("SELECT c FROM Customer c WHERE upper(c.countryCode) = upper(:countryCode) AND c.id > :afterId")
+	Slice<Customer> scrollByCountryCodeById(@Param("countryCode") String countryCode,
+			@Param("afterId") long afterId, Pageable pageable);
+
+	@Query("SELECT c FROM Customer c WHERE upper(c.countryCode) = upper(:countryCode) "
+			+ "AND c.name >= :afterName AND (c.name > :afterName OR c.id > :afterId)")
+	Slice<Customer> scrollByCountryCodeByName(@Param("countryCode") String countryCode,
+			@Param("afterName") String afterName, @Param("afterId") long afterId, Pageable pageable);
 
 //	@Query("SELECT c.countryCode AS countryCode, COUNT(c.id) AS count "
 //			+ "FROM Customer AS c GROUP BY c.countryCode ORDER BY COUNT(c.id) DESC")
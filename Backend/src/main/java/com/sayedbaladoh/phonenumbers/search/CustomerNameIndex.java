@@ -0,0 +1,67 @@
+package com.sayedbaladoh.phonenumbers.search;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Customer Name Index queries the SQLite FTS5 tables of the customers names:
+ * <code>customers_fts</code> of the name words and
+ * <code>customers_trigram</code> of the name trigrams, which finds the names
+ * containing any text of at least 3 characters, ignoring case.
+ *
+ * The FTS tables are external content tables over <code>customers</code>,
+ * they only store the name tokens, and triggers on <code>customers</code> keep
+ * them up to date whichever way the customers are written. The tables and
+ * their triggers are created by the <code>V2__customer_name_fts</code> and
+ * <code>V4__customer_name_trigram</code> migrations.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public final class CustomerNameIndex {
+
+	/**
+	 * The shortest text the trigram index can find.
+	 */
+	public static final int MIN_SUBSTRING_LENGTH = 3;
+
+	private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private CustomerNameIndex() {
+	}
+
+	/**
+	 * Convert a name search to an FTS5 query matching the names that contain a
+	 * word starting with each of the searched words.
+	 *
+	 * @param name
+	 *            The searched name.
+	 * @return the FTS5 query, or <code>null</code> if the name has no word.
+	 */
+	public static String toMatchQuery(String name) {
+		StringBuilder query = new StringBuilder();
+		for (String token : TOKEN_SEPARATOR.split(name.toLowerCase(Locale.ROOT))) {
+			if (token.isEmpty())
+				continue;
+			if (query.length() > 0)
+				query.append(' ');
+			query.append('"').append(token).append("\"*");
+		}
+		return query.length() == 0 ? null : query.toString();
+	}
+
+	/**
+	 * Convert a name search to an FTS5 query of the trigram index matching the
+	 * names that contain the name, ignoring case.
+	 *
+	 * @param name
+	 *            The searched name.
+	 * @return the FTS5 query, or <code>null</code> if the name is shorter than
+	 *         <code>MIN_SUBSTRING_LENGTH</code>.
+	 */
+	public static String toSubstringQuery(String name) {
+		if (name.codePointCount(0, name.length()) < MIN_SUBSTRING_LENGTH)
+			return null;
+		return '"' + name.replace("\"", "\"\"") + '"';
+	}
+}
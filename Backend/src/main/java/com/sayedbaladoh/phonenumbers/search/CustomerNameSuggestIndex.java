@@ -0,0 +1,209 @@
+package com.sayedbaladoh.phonenumbers.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sayedbaladoh.phonenumbers.model.CustomerSuggestion;
+
+/**
+ * Customer Name Suggest Index answers the name autocomplete from memory.
+ *
+ * Each name is indexed once per word, from the word to the end of the name,
+ * case folded, in a sorted map: the names with a word starting with the typed
+ * prefix are the keys of a single sub map, read in
+ * <code>O(log n + limit)</code> without touching the database.
+ *
+ * The index is built from the <code>customers</code> table in a background
+ * thread once the application is ready, it answers with the names loaded so
+ * far until then. <code>CustomerServiceImpl</code> and the bulk import keep it
+ * up to date on every create, update and delete. The indexed names are kept by
+ * Id as well, so a patch renaming a customer doesn't read its previous name.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerNameSuggestIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(CustomerNameSuggestIndex.class);
+
+	private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+	/**
+	 * Separates the folded name from the Id in the keys, sorts before any
+	 * character of the names.
+	 */
+	private static final char ID_SEPARATOR = '\u0000';
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${suggest.fetch-size:1000}")
+	private int fetchSize;
+
+	private final NavigableMap<String, CustomerSuggestion> suggestions = new ConcurrentSkipListMap<>();
+
+	private final Map<Long, CustomerSuggestion> suggestionsById = new ConcurrentHashMap<>();
+
+	/**
+	 * The Ids added, updated or deleted while building, the build skips them
+	 * as their rows may have been read before the change.
+	 */
+	private final Set<Long> changedWhileBuilding = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean ready;
+
+	private JdbcTemplate cursorTemplate;
+	private TransactionTemplate transactionTemplate;
+
+	@PostConstruct
+	public void init() {
+		cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+		cursorTemplate.setFetchSize(fetchSize);
+
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		Thread builder = new Thread(this::build, "customer-name-suggest-index");
+		builder.setDaemon(true);
+		builder.start();
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Get the customers with a name word starting with the prefix, ordered by
+	 * the matching part of the name.
+	 *
+	 * @param prefix
+	 *            The typed prefix.
+	 * @param limit
+	 *            The maximum number of suggestions.
+	 * @return the suggestions, each customer once.
+	 */
+	public List<CustomerSuggestion> suggest(String prefix, int limit) {
+		String from = fold(prefix).trim();
+		List<CustomerSuggestion> result = new ArrayList<>(limit);
+		if (from.isEmpty())
+			return result;
+
+		Set<Long> ids = new HashSet<>();
+		for (CustomerSuggestion suggestion : suggestions.subMap(from, from + Character.MAX_VALUE).values()) {
+			if (ids.add(suggestion.getId()))
+				result.add(suggestion);
+			if (result.size() == limit)
+				break;
+		}
+		return result;
+	}
+
+	public void add(Long id, String name) {
+		if (!ready)
+			changedWhileBuilding.add(id);
+		put(id, name);
+	}
+
+	public void update(Long id, String previousName, String name) {
+		if (!ready)
+			changedWhileBuilding.add(id);
+		if (previousName != null && previousName.equals(name))
+			return;
+		remove(id, previousName);
+		put(id, name);
+	}
+
+	/**
+	 * Rename an indexed customer, replacing the name indexed for its Id.
+	 */
+	public void update(Long id, String name) {
+		CustomerSuggestion previous = suggestionsById.get(id);
+		update(id, previous == null ? null : previous.getName(), name);
+	}
+
+	public void delete(Long id, String name) {
+		if (!ready)
+			changedWhileBuilding.add(id);
+		remove(id, name);
+	}
+
+	private void build() {
+		long started = System.currentTimeMillis();
+		try {
+			transactionTemplate.executeWithoutResult(transaction -> cursorTemplate.query(
+					"SELECT id, name FROM customers", rs -> {
+						long id = rs.getLong(1);
+						if (!changedWhileBuilding.contains(id))
+							put(id, rs.getString(2));
+					}));
+			logger.info("Customer name suggestions indexed in {} ms", System.currentTimeMillis() - started);
+		} catch (RuntimeException e) {
+			logger.error("Customer name suggestions indexing failed", e);
+		} finally {
+			ready = true;
+			changedWhileBuilding.clear();
+		}
+	}
+
+	private void put(Long id, String name) {
+		if (name == null)
+			return;
+		CustomerSuggestion suggestion = new CustomerSuggestion(id, name);
+		for (String key : keys(id, name))
+			suggestions.put(key, suggestion);
+		suggestionsById.put(id, suggestion);
+	}
+
+	private void remove(Long id, String name) {
+		if (name == null)
+			return;
+		for (String key : keys(id, name))
+			suggestions.remove(key);
+		suggestionsById.remove(id);
+	}
+
+	/**
+	 * A key per word of the name, from the word to the end of the name.
+	 */
+	private static List<String> keys(Long id, String name) {
+		String folded = fold(name);
+		List<String> keys = new ArrayList<>(3);
+		Matcher word = WORD.matcher(folded);
+		while (word.find())
+			keys.add(folded.substring(word.start()) + ID_SEPARATOR + id);
+		return keys;
+	}
+
+	private static String fold(String value) {
+		return value.toLowerCase(Locale.ROOT);
+	}
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.sayedbaladoh.phonenumbers.model.Country;
+import com.sayedbaladoh.phonenumbers.model.DialCode;
 
 /**
  * Country Service
@@ -33,5 +34,7 @@ public interface CountryService {
 
 	boolean existsByIsd(String isd);
 
+	Optional<DialCode> getDialCodeByPhone(String phone);
+
 	void delete(Long id);
 }
@@ -6,25 +6,39 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sayedbaladoh.phonenumbers.model.Country;
+import com.sayedbaladoh.phonenumbers.model.DialCode;
+import com.sayedbaladoh.phonenumbers.phone.PhoneNumberTokenizer;
+import com.sayedbaladoh.phonenumbers.registry.CountryRegistry;
 import com.sayedbaladoh.phonenumbers.repository.CountryRepository;
 
 /**
  * Country Service implementation
  * 
+ * Lookups by code are served from the in-memory <code>CountryRegistry</code>,
+ * writes go to the database and then refresh the registry.
+ * 
  * @author Sayed Baladoh
  *
  */
 @Service
+@Transactional(readOnly = true)
 public class CountryServiceImpl implements CountryService {
 
 	@Autowired
 	private CountryRepository countryRepository;
 
+	@Autowired
+	private CountryRegistry countryRegistry;
+
 	@Override
+	@Transactional
 	public Country save(Country Country) {
-		return countryRepository.save(Country);
+		Country savedCountry = countryRepository.save(Country);
+		countryRegistry.put(savedCountry);
+		return savedCountry;
 	}
 
 	@Override
@@ -39,36 +53,45 @@ public class CountryServiceImpl implements CountryService {
 
 	@Override
 	public Optional<Country> getByAlpha2Code(String alpha2Code) {
-		return countryRepository.findByAlpha2Code(alpha2Code);
+		return countryRegistry.getByAlpha2Code(alpha2Code);
 	}
 
 	@Override
 	public Optional<Country> getByAlpha3Code(String alpha3Code) {
-		return countryRepository.findByAlpha3Code(alpha3Code);
+		return countryRegistry.getByAlpha3Code(alpha3Code);
 	}
 
 	@Override
 	public Optional<Country> getByIsd(String isd) {
-		return countryRepository.findByIsd(isd);
+		return countryRegistry.getByIsd(isd);
 	}
 
 	@Override
 	public boolean existsByAlpha2Code(String alpha2Code) {
-		return countryRepository.existsByAlpha2Code(alpha2Code);
+		return countryRegistry.existsByAlpha2Code(alpha2Code);
 	}
 
 	@Override
 	public boolean existsByAlpha3Code(String alpha3Code) {
-		return countryRepository.existsByAlpha3Code(alpha3Code);
+		return countryRegistry.existsByAlpha3Code(alpha3Code);
 	}
 
 	@Override
 	public boolean existsByIsd(String isd) {
-		return countryRepository.existsByIsd(isd);
+		return countryRegistry.existsByIsd(isd);
+	}
+
+	@Override
+	public Optional<DialCode> getDialCodeByPhone(String phone) {
+		if (phone == null)
+			return Optional.empty();
+		return Optional.ofNullable(countryRegistry.resolveDialCode(PhoneNumberTokenizer.tokenize(phone)));
 	}
 
 	@Override
+	@Transactional
 	public void delete(Long id) {
 		countryRepository.deleteById(id);
+		countryRegistry.remove(id);
 	}
 }
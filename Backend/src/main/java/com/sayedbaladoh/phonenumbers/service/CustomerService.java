@@ -1,13 +1,20 @@
 package com.sayedbaladoh.phonenumbers.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import com.sayedbaladoh.phonenumbers.model.Customer;
 import com.sayedbaladoh.phonenumbers.model.CustomerCountryStatistics;
+import com.sayedbaladoh.phonenumbers.model.CustomerCursor;
+import com.sayedbaladoh.phonenumbers.model.CustomerFields;
+import com.sayedbaladoh.phonenumbers.model.CustomerSuggestion;
+import com.sayedbaladoh.phonenumbers.model.CustomerValidationResult;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
 
 /**
  * Customer Service
@@ -19,11 +26,25 @@ public interface CustomerService {
 
 	Customer save(Customer customer);
 
-	Page<Customer> getAll(Pageable pageable);
+	Optional<Customer> patch(Long id, Customer changes);
 
-	Page<Customer> getAllByNameContains(String name, Pageable pageable);
+	Page<Map<String, Object>> getAll(CustomerFields fields, Pageable pageable);
 
-	Page<Customer> getAllByCountryCode(String code, Pageable pageable);
+	Page<Map<String, Object>> getAllByNameContains(String name, CustomerFields fields, Pageable pageable);
+
+	Page<Map<String, Object>> getAllByCountryCode(String code, CustomerFields fields, Pageable pageable);
+
+	Page<Map<String, Object>> getAllByCountry(String country, CustomerFields fields, Pageable pageable);
+
+	Page<Map<String, Object>> getAllByState(PhoneState state, CustomerFields fields, Pageable pageable);
+
+	Slice<Customer> scroll(CustomerCursor after, int size);
+
+	Slice<Customer> scrollByNameContains(String name, CustomerCursor after, int size);
+
+	Slice<Customer> scrollByCountryCode(String code, CustomerCursor after, int size);
+
+	List<CustomerSuggestion> suggest(String prefix, int limit);
 
 	Optional<Customer> get(Long id);
 
@@ -33,7 +54,9 @@ public interface CustomerService {
 
 	boolean existsByPhone(String phone);
 
-	void delete(Long id);
+	List<CustomerValidationResult> validate(List<Customer> customers);
+
+	boolean delete(Long id);
 
 	List<CustomerCountryStatistics> getCountByCountryCode();
 }
@@ -1,76 +1,335 @@
 package com.sayedbaladoh.phonenumbers.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.sayedbaladoh.phonenumbers.availability.CustomerIdentityFilter;
+import com.sayedbaladoh.phonenumbers.cache.CustomerCache;
+import com.sayedbaladoh.phonenumbers.errorhandler.BadRequestException;
 import com.sayedbaladoh.phonenumbers.model.Customer;
 import com.sayedbaladoh.phonenumbers.model.CustomerCountryStatistics;
+import com.sayedbaladoh.phonenumbers.model.CustomerCursor;
+import com.sayedbaladoh.phonenumbers.model.CustomerCursor.SortKey;
+import com.sayedbaladoh.phonenumbers.model.CustomerFields;
+import com.sayedbaladoh.phonenumbers.model.CustomerSuggestion;
+import com.sayedbaladoh.phonenumbers.model.CustomerValidationResult;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+import com.sayedbaladoh.phonenumbers.phone.PhoneClassification;
+import com.sayedbaladoh.phonenumbers.phone.PhoneValidityEngine;
+import com.sayedbaladoh.phonenumbers.reader.CustomerProjectionReader;
 import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+import com.sayedbaladoh.phonenumbers.search.CustomerNameSuggestIndex;
+import com.sayedbaladoh.phonenumbers.statistics.CustomerStatisticsStore;
+import com.sayedbaladoh.phonenumbers.validator.CustomerBatchValidator;
+import com.sayedbaladoh.phonenumbers.writer.CustomerGroupCommitWriter;
+import com.sayedbaladoh.phonenumbers.writer.CustomerStatementWriter;
 
 /**
  * Customer Service implementation
  * 
+ * The phone number country and state are computed on every save, so listing
+ * customers by state is an index lookup instead of validating each phone at
+ * read time.
+ * 
+ * The customers count by country code is kept up to date in
+ * <code>CustomerStatisticsStore</code> on every save and delete instead of
+ * grouping the whole table on each request.
+ * 
+ * The name suggestions are served by the in-memory
+ * <code>CustomerNameSuggestIndex</code>, updated on every save and delete as
+ * well.
+ * 
+ * The phone and email availability checks only query the table when the
+ * value may be in the <code>CustomerIdentityFilter</code>.
+ * 
+ * The customers read by Id and by phone are cached in the
+ * <code>CustomerCache</code> and evicted on every save and delete.
+ * 
+ * Saves are committed in groups by the <code>CustomerGroupCommitWriter</code>
+ * thread, the calling thread only waits for its customer to be committed.
+ * Patches and deletes are a single statement of the
+ * <code>CustomerStatementWriter</code>, without loading the customer first.
+ * 
+ * The pages of customers are read by the
+ * <code>CustomerProjectionReader</code>, only the requested fields and
+ * without managed entities.
+ * 
  * @author Sayed Baladoh
  *
  */
 @Service
+@Transactional(readOnly = true)
 public class CustomerServiceImpl implements CustomerService {
 
 	@Autowired
 	private CustomerRepository customerRepository;
 
+	@Autowired
+	private PhoneValidityEngine phoneValidityEngine;
+
+	@Autowired
+	private CustomerStatisticsStore customerStatisticsStore;
+
+	@Autowired
+	private CustomerGroupCommitWriter customerGroupCommitWriter;
+
+	@Autowired
+	private CustomerNameSuggestIndex customerNameSuggestIndex;
+
+	@Autowired
+	private CustomerIdentityFilter customerIdentityFilter;
+
+	@Autowired
+	private CustomerBatchValidator customerBatchValidator;
+
+	@Autowired
+	private CustomerCache customerCache;
+
+	@Autowired
+	private CustomerStatementWriter customerStatementWriter;
+
+	@Autowired
+	private CustomerProjectionReader customerProjectionReader;
+
 	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public Customer save(Customer Customer) {
-		return customerRepository.save(Customer);
+		PhoneClassification classification = phoneValidityEngine.classify(Customer.getPhone());
+		Customer.setCountry(classification.getCountry());
+		Customer.setState(classification.getState());
+
+		boolean created = Customer.getId() == null;
+		String previousCountryCode = Customer.getStoredCountryCode();
+		String previousName = Customer.getStoredName();
+		boolean stored = Customer.isStored();
+
+		Customer saved;
+		try {
+			saved = customerGroupCommitWriter.save(Customer);
+		} catch (DataIntegrityViolationException e) {
+			// Taken by a customer written outside the service, missing from the
+			// identity filter until then
+			customerIdentityFilter.add(Customer.getPhone(), Customer.getEmail());
+			List<String> taken = customerBatchValidator.validateTaken(e);
+			if (taken.isEmpty())
+				throw e;
+			throw new BadRequestException("Invalid customer: " + String.join(", ", taken));
+		}
+		customerCache.evict(saved.getId(), saved.getPhone());
+		customerIdentityFilter.add(saved.getPhone(), saved.getEmail());
+		if (created) {
+			customerStatisticsStore.increment(saved.getCountryCode());
+			customerNameSuggestIndex.add(saved.getId(), saved.getName());
+		} else if (stored) {
+			customerStatisticsStore.move(previousCountryCode, saved.getCountryCode());
+			customerNameSuggestIndex.update(saved.getId(), previousName, saved.getName());
+		}
+		return saved;
+	}
+
+	/**
+	 * Update the supplied columns with one <code>UPDATE</code>, nothing is read
+	 * first. A phone or email taken by another customer fails on the unique
+	 * indexes and is rejected. The suggestions replace the name indexed for
+	 * the Id, and a changed country code reconciles the statistics in the
+	 * background, as the previous one isn't read.
+	 */
+	@Override
+	@Transactional
+	public Optional<Customer> patch(Long id, Customer changes) {
+		Map<String, Object> columns = new LinkedHashMap<>();
+		List<String> properties = new ArrayList<>();
+		if (changes.getName() != null) {
+			columns.put("name", changes.getName());
+			properties.add("name");
+		}
+		if (changes.getCountryCode() != null) {
+			columns.put("country_code", changes.getCountryCode());
+			properties.add("countryCode");
+		}
+		if (changes.getEmail() != null) {
+			columns.put("email", changes.getEmail());
+			properties.add("email");
+		}
+		if (changes.getGender() != null) {
+			columns.put("gender", changes.getGender());
+			properties.add("gender");
+		}
+		if (changes.getPhone() != null) {
+			PhoneClassification classification = phoneValidityEngine.classify(changes.getPhone());
+			columns.put("phone", changes.getPhone());
+			columns.put("country", classification.getCountry());
+			columns.put("state", classification.getState() == null ? null : classification.getState().name());
+			properties.add("phone");
+		}
+
+		List<String> errors = customerBatchValidator.validateProperties(changes, properties);
+		if (!errors.isEmpty())
+			throw new BadRequestException("Invalid customer: " + String.join(", ", errors));
+		if (columns.isEmpty())
+			return get(id);
+
+		Optional<Customer> patched;
+		try {
+			patched = customerStatementWriter.update(id, columns);
+		} catch (DataIntegrityViolationException e) {
+			List<String> taken = customerBatchValidator.validateTaken(e);
+			if (taken.isEmpty())
+				throw e;
+			throw new BadRequestException("Invalid customer: " + String.join(", ", taken));
+		}
+		if (patched.isPresent()) {
+			Customer customer = patched.get();
+			afterCommit(() -> {
+				customerCache.evict(id, customer.getPhone());
+				customerIdentityFilter.add(changes.getPhone(), changes.getEmail());
+				if (changes.getName() != null)
+					customerNameSuggestIndex.update(id, customer.getName());
+				if (changes.getCountryCode() != null)
+					customerStatisticsStore.requestReconcile();
+			});
+		}
+		return patched;
+	}
+
+	@Override
+	public Page<Map<String, Object>> getAll(CustomerFields fields, Pageable pageable) {
+		return customerProjectionReader.findAll(fields, pageable);
+	}
+
+	/**
+	 * Search the names containing the name, the names with words starting
+	 * with the searched words first, ordered by relevance, unless sorted.
+	 */
+	@Override
+	public Page<Map<String, Object>> getAllByNameContains(String name, CustomerFields fields, Pageable pageable) {
+		return customerProjectionReader.findAllByNameContaining(name, fields, pageable);
+	}
+
+	@Override
+	public Page<Map<String, Object>> getAllByCountryCode(String countryCode, CustomerFields fields,
+			Pageable pageable) {
+		return customerProjectionReader.findAllByCountryCode(countryCode, fields, pageable);
+	}
+
+	@Override
+	public Page<Map<String, Object>> getAllByCountry(String country, CustomerFields fields, Pageable pageable) {
+		return customerProjectionReader.findAllByCountry(country, fields, pageable);
 	}
 
 	@Override
-	public Page<Customer> getAll(Pageable pageable) {
-		return customerRepository.findAll(pageable);
+	public Page<Map<String, Object>> getAllByState(PhoneState state, CustomerFields fields, Pageable pageable) {
+		return customerProjectionReader.findAllByState(state, fields, pageable);
 	}
 
 	@Override
-	public Page<Customer> getAllByNameContains(String name, Pageable pageable) {
-		return customerRepository.findAllByNameContainingIgnoreCase(name, pageable);
+	public Slice<Customer> scroll(CustomerCursor after, int size) {
+		if (after.getSortKey() == SortKey.NAME)
+			return customerRepository.scrollByName(after.getName(), after.getId(), slice(after, size));
+		return customerRepository.scrollById(after.getId(), slice(after, size));
 	}
 
 	@Override
-	public Page<Customer> getAllByCountryCode(String countryCode, Pageable pageable) {
-		return customerRepository.findAllByCountryCodeIgnoreCase(countryCode, pageable);
+	public Slice<Customer> scrollByNameContains(String name, CustomerCursor after, int size) {
+		if (after.getSortKey() == SortKey.NAME)
+			return customerRepository.scrollByNameContainsByName(name, after.getName(), after.getId(),
+					slice(after, size));
+		return customerRepository.scrollByNameContainsById(name, after.getId(), slice(after, size));
+	}
+
+	@Override
+	public Slice<Customer> scrollByCountryCode(String countryCode, CustomerCursor after, int size) {
+		if (after.getSortKey() == SortKey.NAME)
+			return customerRepository.scrollByCountryCodeByName(countryCode, after.getName(), after.getId(),
+					slice(after, size));
+		return customerRepository.scrollByCountryCodeById(countryCode, after.getId(), slice(after, size));
+	}
+
+	private static Pageable slice(CustomerCursor after, int size) {
+		Sort sort = after.getSortKey() == SortKey.NAME ? Sort.by("name", "id") : Sort.by("id");
+		return PageRequest.of(0, size, sort);
 	}
 
 	@Override
 	public Optional<Customer> get(Long id) {
-		return customerRepository.findById(id);
+		return customerCache.get(id, customerRepository::findById);
 	}
 
 	@Override
 	public Optional<Customer> getByPhone(String phone) {
-		return customerRepository.findByPhone(phone);
+		return customerCache.getByPhone(phone, customerRepository::findByPhone);
+	}
+
+	@Override
+	public List<CustomerSuggestion> suggest(String prefix, int limit) {
+		return customerNameSuggestIndex.suggest(prefix, limit);
 	}
 
 	@Override
 	public List<CustomerCountryStatistics> getCountByCountryCode() {
-		return customerRepository.findCustomersCountByCountryCode();
+		return customerStatisticsStore.getCountByCountryCode();
 	}
 
 	@Override
 	public boolean existsByEmail(String email) {
-		return customerRepository.existsByEmail(email);
+		return customerIdentityFilter.isEmailTaken(email, customerRepository::existsByEmail);
 	}
 
 	@Override
 	public boolean existsByPhone(String phone) {
-		return customerRepository.existsByPhone(phone);
+		return customerIdentityFilter.isPhoneTaken(phone, customerRepository::existsByPhone);
+	}
+
+	@Override
+	public List<CustomerValidationResult> validate(List<Customer> customers) {
+		return customerBatchValidator.validate(customers);
 	}
 
 	@Override
-	public void delete(Long id) {
-		customerRepository.deleteById(id);
+	@Transactional
+	public boolean delete(Long id) {
+		Optional<Customer> deleted = customerStatementWriter.delete(id);
+		deleted.ifPresent(customer -> afterCommit(() -> {
+			customerCache.evict(id, customer.getPhone());
+			customerStatisticsStore.decrement(customer.getCountryCode());
+			customerNameSuggestIndex.delete(id, customer.getName());
+		}));
+		return deleted.isPresent();
+	}
+
+	/**
+	 * Update the cache and the in-memory indexes once the transaction commits,
+	 * a rolled back write leaves them as they were, and a read between the
+	 * write and its commit can't cache the previous customer again. Without a
+	 * transaction, they're updated at once.
+	 */
+	private static void afterCommit(Runnable update) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			update.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCommit() {
+				update.run();
+			}
+		});
 	}
 }
@@ -0,0 +1,133 @@
+package com.sayedbaladoh.phonenumbers.sqlstats;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * SQL Fingerprint normalizes a statement so its executions with different
+ * values are aggregated together.
+ *
+ * The string and number literals are replaced with <code>?</code>, the
+ * comments are removed, the whitespace is collapsed and a list of parameters,
+ * e.g. an <code>IN</code> list or a multi-row <code>VALUES</code>, is
+ * shortened to its first item, e.g.
+ * <code>SELECT * FROM customers WHERE id IN (1, 2, 3) AND name = 'Sara'</code>
+ * is <code>SELECT * FROM customers WHERE id IN (?, ...) AND name = ?</code>.
+ *
+ * The fingerprints of the most recent statements are cached, the application
+ * runs the same statement strings over and over.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public final class SqlFingerprint {
+
+	private static final int CACHE_SIZE = 10_000;
+
+	private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\?(?:, \\?)+\\)");
+	private static final Pattern ROW_LIST = Pattern
+			.compile("(\\(\\?(?:, \\.\\.\\.)?\\))(?:, \\(\\?(?:, \\.\\.\\.)?\\))+");
+
+	private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+	private SqlFingerprint() {
+	}
+
+	/**
+	 * @param sql
+	 *            The statement.
+	 * @return the fingerprint of the statement.
+	 */
+	public static String of(String sql) {
+		String fingerprint = cache.get(sql);
+		if (fingerprint == null) {
+			fingerprint = normalize(sql);
+			if (cache.size() >= CACHE_SIZE)
+				cache.clear();
+			cache.put(sql, fingerprint);
+		}
+		return fingerprint;
+	}
+
+	static String normalize(String sql) {
+		StringBuilder normalized = new StringBuilder(sql.length());
+		int length = sql.length();
+		int i = 0;
+		while (i < length) {
+			char c = sql.charAt(i);
+			if (Character.isWhitespace(c)) {
+				while (i < length && Character.isWhitespace(sql.charAt(i)))
+					i++;
+				appendSpace(normalized);
+			} else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+				while (i < length && sql.charAt(i) != '\n')
+					i++;
+				appendSpace(normalized);
+			} else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+				int end = sql.indexOf("*/", i + 2);
+				i = end < 0 ? length : end + 2;
+				appendSpace(normalized);
+			} else if (c == '\'') {
+				i = skipString(sql, i + 1);
+				normalized.append('?');
+			} else if (c == '"' || c == '`' || c == '[') {
+				char close = c == '[' ? ']' : c;
+				int end = sql.indexOf(close, i + 1);
+				end = end < 0 ? length : end + 1;
+				normalized.append(sql, i, end);
+				i = end;
+			} else if (Character.isDigit(c) && !isIdentifierPart(normalized)) {
+				while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.'))
+					i++;
+				normalized.append('?');
+			} else {
+				if (c == ',' || c == ')')
+					trimSpace(normalized);
+				normalized.append(c);
+				if (c == ',')
+					normalized.append(' ');
+				i++;
+			}
+		}
+		trimSpace(normalized);
+
+		String fingerprint = PARAMETER_LIST.matcher(normalized).replaceAll("(?, ...)");
+		return ROW_LIST.matcher(fingerprint).replaceAll("$1, ...");
+	}
+
+	private static boolean isIdentifierPart(StringBuilder normalized) {
+		if (normalized.length() == 0)
+			return false;
+		char previous = normalized.charAt(normalized.length() - 1);
+		return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$' || previous == '?';
+	}
+
+	/**
+	 * @return the index after the closing quote, <code>''</code> is an
+	 *         escaped quote.
+	 */
+	private static int skipString(String sql, int i) {
+		while (i < sql.length()) {
+			if (sql.charAt(i++) != '\'')
+				continue;
+			if (i < sql.length() && sql.charAt(i) == '\'')
+				i++;
+			else
+				break;
+		}
+		return i;
+	}
+
+	private static void appendSpace(StringBuilder normalized) {
+		int last = normalized.length() - 1;
+		if (last >= 0 && normalized.charAt(last) != ' ' && normalized.charAt(last) != '(')
+			normalized.append(' ');
+	}
+
+	private static void trimSpace(StringBuilder normalized) {
+		int last = normalized.length() - 1;
+		if (last >= 0 && normalized.charAt(last) == ' ')
+			normalized.setLength(last);
+	}
+}
@@ -0,0 +1,87 @@
+package com.sayedbaladoh.phonenumbers.sqlstats;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * SQL Plan Capture explains the slowest statement fingerprints.
+ *
+ * Every <code>sqlstats.explain-interval</code> ms, the
+ * <code>sqlstats.explain-top</code> fingerprints with the highest mean time
+ * and no plan yet get their <code>EXPLAIN QUERY PLAN</code>, on a read-only
+ * connection. The parameters are unbound, SQLite plans them as
+ * <code>NULL</code>s, and the shortened lists are explained with their first
+ * item.
+ *
+ * A plan is captured once per fingerprint, until the statistics are reset.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class SqlPlanCapture {
+
+	private static final Logger logger = LoggerFactory.getLogger(SqlPlanCapture.class);
+
+	private static final Pattern EXPLAINABLE = Pattern.compile("^(SELECT|WITH|INSERT|UPDATE|DELETE|REPLACE)\\b.*",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+	@Autowired
+	private SqlStatistics sqlStatistics;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${sqlstats.explain-top:10}")
+	private int explainTop;
+
+	private TransactionTemplate transactionTemplate;
+
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+	}
+
+	@Scheduled(
+			initialDelayString = "${sqlstats.explain-interval:60000}",
+			fixedDelayString = "${sqlstats.explain-interval:60000}")
+	public void capture() {
+		for (String fingerprint : sqlStatistics.getSlowestWithoutPlan(explainTop))
+			sqlStatistics.setPlan(fingerprint, explain(fingerprint));
+	}
+
+	/**
+	 * @return the plan details, a note if the statement can't be explained.
+	 */
+	List<String> explain(String fingerprint) {
+		if (!EXPLAINABLE.matcher(fingerprint).matches())
+			return Collections.singletonList("not explainable");
+
+		String sql = fingerprint.replace(", ...", "");
+		try {
+			return transactionTemplate.execute(transaction -> jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql,
+					(rs, rowNum) -> rs.getString("detail")));
+		} catch (DataAccessException e) {
+			logger.debug("Explain of {} failed", fingerprint, e);
+			return Collections.singletonList("explain failed: " + e.getMostSpecificCause().getMessage());
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.sayedbaladoh.phonenumbers.sqlstats;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The aggregated executions of a statement fingerprint.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class SqlStatementStats {
+
+	private final String fingerprint;
+
+	private final long calls;
+
+	private final double totalMillis;
+
+	private final double meanMillis;
+
+	/**
+	 * The 99th percentile, within the 12.5% precision of the histogram.
+	 */
+	private final double p99Millis;
+
+	private final double maxMillis;
+
+	/**
+	 * The rows read or written.
+	 */
+	private final long rows;
+
+	/**
+	 * The <code>EXPLAIN QUERY PLAN</code> details, <code>null</code> until
+	 * captured.
+	 */
+	private final List<String> plan;
+}
@@ -0,0 +1,177 @@
+package com.sayedbaladoh.phonenumbers.sqlstats;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * SQL Statistics aggregates the statement executions by fingerprint, as
+ * <code>pg_stat_statements</code> does: calls, total, mean, p99 and max time
+ * and rows.
+ *
+ * The executions are recorded by <code>SqlStatsDataSource</code> without
+ * locks: the counters are <code>LongAdder</code>s and the latencies are
+ * counted in a log-linear histogram of 8 buckets per power of two. At most
+ * <code>sqlstats.max-fingerprints</code> fingerprints are kept, the executions
+ * of any further statement are aggregated as <code>&lt;other&gt;</code>.
+ *
+ * The slowest fingerprints get their <code>EXPLAIN QUERY PLAN</code> from
+ * <code>SqlPlanCapture</code>.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class SqlStatistics {
+
+	static final String OTHER = "<other>";
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private static final Comparator<Fingerprint> BY_TOTAL_DESC = Comparator
+			.comparingLong((Fingerprint fingerprint) -> fingerprint.totalNanos.sum()).reversed();
+
+	@Value("${sqlstats.max-fingerprints:1000}")
+	private int maxFingerprints;
+
+	private volatile Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+	/**
+	 * Record an execution.
+	 *
+	 * @param sql
+	 *            The statement fingerprint.
+	 * @param nanos
+	 *            The execution time, with the rows read.
+	 * @param rows
+	 *            The rows read or written.
+	 */
+	public void record(String sql, long nanos, long rows) {
+		Map<String, Fingerprint> current = fingerprints;
+		Fingerprint fingerprint = current.get(sql);
+		if (fingerprint == null)
+			fingerprint = current.computeIfAbsent(current.size() < maxFingerprints ? sql : OTHER, Fingerprint::new);
+		fingerprint.record(nanos, rows);
+	}
+
+	/**
+	 * @param limit
+	 *            The maximum number of fingerprints.
+	 * @return the fingerprints by total time, the most expensive first.
+	 */
+	public List<SqlStatementStats> getStatements(int limit) {
+		return fingerprints.values().stream()
+				.sorted(BY_TOTAL_DESC)
+				.limit(limit)
+				.map(Fingerprint::toStats)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * @param limit
+	 *            The maximum number of fingerprints.
+	 * @return the fingerprints without a plan by mean time, the slowest first.
+	 */
+	List<String> getSlowestWithoutPlan(int limit) {
+		return fingerprints.values().stream()
+				.filter(fingerprint -> fingerprint.plan == null && !OTHER.equals(fingerprint.sql))
+				.sorted(Comparator.comparingDouble(Fingerprint::meanNanos).reversed())
+				.limit(limit)
+				.map(fingerprint -> fingerprint.sql)
+				.collect(Collectors.toList());
+	}
+
+	void setPlan(String sql, List<String> plan) {
+		Fingerprint fingerprint = fingerprints.get(sql);
+		if (fingerprint != null)
+			fingerprint.plan = plan;
+	}
+
+	/**
+	 * Forget all the fingerprints and their plans.
+	 */
+	public void reset() {
+		fingerprints = new ConcurrentHashMap<>();
+	}
+
+	static int bucket(long nanos) {
+		if (nanos < SUB_BUCKETS)
+			return (int) Math.max(0, nanos);
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @return the highest value of the bucket.
+	 */
+	static long bucketUpperBound(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	private static double millis(double nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	private static final class Fingerprint {
+
+		private final String sql;
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder rows = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+		private volatile List<String> plan;
+
+		private Fingerprint(String sql) {
+			this.sql = sql;
+		}
+
+		private void record(long nanos, long rowCount) {
+			calls.increment();
+			totalNanos.add(nanos);
+			rows.add(rowCount);
+			histogram.incrementAndGet(bucket(nanos));
+			if (nanos > maxNanos.get())
+				maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		private double meanNanos() {
+			long count = calls.sum();
+			return count == 0 ? 0 : (double) totalNanos.sum() / count;
+		}
+
+		private long percentileNanos(double percentile) {
+			long count = 0;
+			for (int i = 0; i < BUCKETS; i++)
+				count += histogram.get(i);
+			long rank = (long) Math.ceil(count * percentile);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += histogram.get(i);
+				if (seen >= rank && seen > 0)
+					return Math.min(bucketUpperBound(i), maxNanos.get());
+			}
+			return 0;
+		}
+
+		private SqlStatementStats toStats() {
+			return new SqlStatementStats(sql, calls.sum(), millis(totalNanos.sum()), millis(meanNanos()),
+					millis(percentileNanos(0.99)), millis(maxNanos.get()), rows.sum(), plan);
+		}
+	}
+}
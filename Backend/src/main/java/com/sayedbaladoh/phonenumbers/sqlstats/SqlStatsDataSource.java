@@ -0,0 +1,230 @@
+package com.sayedbaladoh.phonenumbers.sqlstats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * SQL Stats Data Source is a JDBC proxy recording every statement execution
+ * in <code>SqlStatistics</code> by fingerprint.
+ *
+ * The connections, statements and result sets are wrapped in dynamic proxies.
+ * SQLite steps a query while its rows are read, a query is recorded once its
+ * result set is exhausted or closed, with the time spent reading the rows and
+ * their number. Updates and batches are recorded with their update counts.
+ *
+ * The <code>EXPLAIN</code> statements, e.g. of <code>SqlPlanCapture</code>,
+ * aren't recorded.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+
+	private final SqlStatistics sqlStatistics;
+
+	public SqlStatsDataSource(DataSource targetDataSource, SqlStatistics sqlStatistics) {
+		super(targetDataSource);
+		this.sqlStatistics = sqlStatistics;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return proxy(Connection.class,
+				new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+	}
+
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(SqlStatsDataSource.class.getClassLoader(),
+				new Class<?>[] { type }, handler));
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private static boolean isExplain(String sql) {
+		return sql.regionMatches(true, 0, "EXPLAIN", 0, 7);
+	}
+
+	/**
+	 * Wrap the statements, the proxy is unwrapped as its target.
+	 */
+	private final class ConnectionHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private ConnectionHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "createStatement":
+				return proxy(Statement.class,
+						new StatementHandler((Statement) SqlStatsDataSource.invoke(target, method, args), null));
+			case "prepareStatement":
+				return proxy(PreparedStatement.class, new StatementHandler(
+						(Statement) SqlStatsDataSource.invoke(target, method, args), (String) args[0]));
+			case "prepareCall":
+				return proxy(CallableStatement.class, new StatementHandler(
+						(Statement) SqlStatsDataSource.invoke(target, method, args), (String) args[0]));
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				return SqlStatsDataSource.invoke(target, method, args);
+			}
+		}
+	}
+
+	/**
+	 * Record the executions of a statement, the SQL of a prepared statement is
+	 * known when it's prepared, a plain statement gets it on each execution.
+	 */
+	private final class StatementHandler implements InvocationHandler {
+
+		private final Statement target;
+		private final String fingerprint;
+		private String batchSql;
+		private ResultSetHandler openResultSet;
+
+		private StatementHandler(Statement target, String sql) {
+			this.target = target;
+			this.fingerprint = sql == null || isExplain(sql) ? null : SqlFingerprint.of(sql);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (!name.startsWith("execute") && !name.equals("addBatch") && !name.equals("close"))
+				return SqlStatsDataSource.invoke(target, method, args);
+
+			if (name.equals("close")) {
+				flushResultSet();
+				return SqlStatsDataSource.invoke(target, method, args);
+			}
+
+			String sql = fingerprint;
+			if (args != null && args.length > 0 && args[0] instanceof String) {
+				String statement = (String) args[0];
+				sql = isExplain(statement) ? null : SqlFingerprint.of(statement);
+			}
+			if (name.equals("addBatch")) {
+				if (batchSql == null)
+					batchSql = sql;
+				return SqlStatsDataSource.invoke(target, method, args);
+			}
+			if (name.startsWith("executeLarge") || name.equals("executeBatch")) {
+				sql = sql == null ? batchSql : sql;
+				batchSql = null;
+			}
+			if (sql == null)
+				return SqlStatsDataSource.invoke(target, method, args);
+
+			flushResultSet();
+			long started = System.nanoTime();
+			Object result = SqlStatsDataSource.invoke(target, method, args);
+			long nanos = System.nanoTime() - started;
+			if (result instanceof ResultSet) {
+				openResultSet = new ResultSetHandler((ResultSet) result, sql, nanos);
+				return proxy(ResultSet.class, openResultSet);
+			}
+			sqlStatistics.record(sql, nanos, rows(result));
+			return result;
+		}
+
+		private void flushResultSet() {
+			if (openResultSet != null)
+				openResultSet.record();
+			openResultSet = null;
+		}
+
+		private long rows(Object result) throws SQLException {
+			if (result instanceof Number)
+				return Math.max(0, ((Number) result).longValue());
+			if (result instanceof int[]) {
+				long rows = 0;
+				for (int count : (int[]) result)
+					rows += Math.max(0, count);
+				return rows;
+			}
+			if (result instanceof long[]) {
+				long rows = 0;
+				for (long count : (long[]) result)
+					rows += Math.max(0, count);
+				return rows;
+			}
+			// execute(), the update count of a statement without a result
+			// set
+			return result instanceof Boolean && !((Boolean) result) ? Math.max(0, target.getUpdateCount()) : 0;
+		}
+	}
+
+	/**
+	 * Count the rows and the time spent reading them, recorded once.
+	 */
+	private final class ResultSetHandler implements InvocationHandler {
+
+		private final ResultSet target;
+		private final String sql;
+		private long nanos;
+		private long rows;
+		private boolean recorded;
+
+		private ResultSetHandler(ResultSet target, String sql, long nanos) {
+			this.target = target;
+			this.sql = sql;
+			this.nanos = nanos;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "next":
+				long started = System.nanoTime();
+				boolean next = target.next();
+				nanos += System.nanoTime() - started;
+				if (next)
+					rows++;
+				else
+					record();
+				return next;
+			case "close":
+				record();
+				return SqlStatsDataSource.invoke(target, method, args);
+			default:
+				return SqlStatsDataSource.invoke(target, method, args);
+			}
+		}
+
+		private void record() {
+			if (recorded)
+				return;
+			recorded = true;
+			sqlStatistics.record(sql, nanos, rows);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.sayedbaladoh.phonenumbers.sqlstats;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint reporting the statement statistics by fingerprint at
+ * <code>/actuator/sqlstats</code>, the most expensive first, a DELETE resets
+ * them.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+	private static final int DEFAULT_LIMIT = 50;
+
+	@Autowired
+	private SqlStatistics sqlStatistics;
+
+	@ReadOperation
+	public List<SqlStatementStats> statements(@Nullable Integer limit) {
+		return sqlStatistics.getStatements(limit == null ? DEFAULT_LIMIT : limit);
+	}
+
+	@DeleteOperation
+	public void reset() {
+		sqlStatistics.reset();
+	}
+}
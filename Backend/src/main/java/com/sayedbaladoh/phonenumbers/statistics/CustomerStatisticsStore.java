@@ -0,0 +1,242 @@
+package com.sayedbaladoh.phonenumbers.statistics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sayedbaladoh.phonenumbers.model.CustomerCountryStatistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Customer Statistics Store keeps the number of customers per country code in
+ * memory, so the statistics are served without a <code>GROUP BY</code> over
+ * the whole <code>customers</code> table.
+ *
+ * The counters are seeded from the table once the application is ready, then
+ * updated by <code>CustomerServiceImpl</code> on every save and delete. Rows
+ * written outside the service (the phone state backfill, imports, manual SQL)
+ * or a race with a concurrent update may leave the counters slightly off, so
+ * they are periodically reconciled against the table.
+ *
+ * The changes counted while the table is read are kept per country code and
+ * added to the counts read, so the reconciliation doesn't lose them. The
+ * counters are only locked exclusively while the reconciled counts are set.
+ *
+ * A change whose previous country code isn't known, a patch of the country
+ * code, requests a reconciliation in the background instead.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerStatisticsStore {
+
+	/**
+	 * <code>ConcurrentHashMap</code> doesn't accept <code>null</code> keys.
+	 */
+	private static final String NO_COUNTRY_CODE = "";
+
+	private static final Logger logger = LoggerFactory.getLogger(CustomerStatisticsStore.class);
+
+	private static final Comparator<CustomerCountryStatistics> BY_COUNT_DESC = Comparator
+			.comparing(CustomerCountryStatistics::getCount).reversed()
+			.thenComparing(CustomerCountryStatistics::getCountryCode,
+					Comparator.nullsFirst(Comparator.naturalOrder()));
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+	/**
+	 * Changes are counted under the read lock, the reconciled counts are set
+	 * under the write lock.
+	 */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * The changes counted since the running reconciliation started reading the
+	 * table, <code>null</code> if none is running. Guarded by the lock.
+	 */
+	private Map<String, LongAdder> changesWhileReconciling;
+
+	private TransactionTemplate transactionTemplate;
+
+	private final ExecutorService reconciler = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "customer-statistics-reconcile");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		reconciler.shutdownNow();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		reconcile();
+	}
+
+	/**
+	 * Set the counters to the customers count per country code from the table
+	 * plus the changes counted while reading it. The table is read in a
+	 * read-only transaction, on the read pool.
+	 */
+	@Scheduled(
+			initialDelayString = "${statistics.reconcile-interval:300000}",
+			fixedDelayString = "${statistics.reconcile-interval:300000}")
+	public synchronized void reconcile() {
+		Map<String, LongAdder> changes = new ConcurrentHashMap<>();
+		Map<String, Long> reconciled = new HashMap<>();
+		setChangesWhileReconciling(changes);
+		try {
+			transactionTemplate.executeWithoutResult(transaction -> jdbcTemplate.query(
+					"SELECT country_code, COUNT(id) FROM customers GROUP BY country_code", rs -> {
+						reconciled.merge(key(rs.getString(1)), rs.getLong(2), Long::sum);
+					}));
+		} catch (RuntimeException e) {
+			setChangesWhileReconciling(null);
+			throw e;
+		}
+
+		lock.writeLock().lock();
+		try {
+			changes.forEach((key, change) -> reconciled.merge(key, change.sum(), Long::sum));
+			counts.keySet().retainAll(reconciled.keySet());
+			reconciled.forEach((key, count) -> {
+				LongAdder counter = counts.computeIfAbsent(key, k -> new LongAdder());
+				counter.reset();
+				counter.add(count);
+			});
+			changesWhileReconciling = null;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Reconcile the counters in the background. The requests made before the
+	 * pending reconciliation starts are served by it.
+	 */
+	public void requestReconcile() {
+		if (!reconcileRequested.compareAndSet(false, true))
+			return;
+		reconciler.execute(() -> {
+			reconcileRequested.set(false);
+			try {
+				reconcile();
+			} catch (RuntimeException e) {
+				logger.error("Customer statistics reconciliation failed", e);
+			}
+		});
+	}
+
+	public void increment(String countryCode) {
+		add(countryCode, 1);
+	}
+
+	public void decrement(String countryCode) {
+		add(countryCode, -1);
+	}
+
+	/**
+	 * Move a customer from a country code to another.
+	 */
+	public void move(String fromCountryCode, String toCountryCode) {
+		if (key(fromCountryCode).equals(key(toCountryCode)))
+			return;
+		decrement(fromCountryCode);
+		increment(toCountryCode);
+	}
+
+	/**
+	 * Get the customers count per country code, the most common first.
+	 *
+	 * @return a list of customers count by country code.
+	 */
+	public List<CustomerCountryStatistics> getCountByCountryCode() {
+		List<CustomerCountryStatistics> statistics = new ArrayList<>(counts.size());
+		lock.readLock().lock();
+		try {
+			counts.forEach((countryCode, count) -> {
+				long sum = count.sum();
+				if (sum > 0)
+					statistics.add(new CountryCount(NO_COUNTRY_CODE.equals(countryCode) ? null : countryCode, sum));
+			});
+		} finally {
+			lock.readLock().unlock();
+		}
+		statistics.sort(BY_COUNT_DESC);
+		return statistics;
+	}
+
+	private void add(String countryCode, long change) {
+		lock.readLock().lock();
+		try {
+			counts.computeIfAbsent(key(countryCode), key -> new LongAdder()).add(change);
+			if (changesWhileReconciling != null)
+				changesWhileReconciling.computeIfAbsent(key(countryCode), key -> new LongAdder()).add(change);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void setChangesWhileReconciling(Map<String, LongAdder> changes) {
+		lock.writeLock().lock();
+		try {
+			changesWhileReconciling = changes;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private static String key(String countryCode) {
+		return countryCode == null ? NO_COUNTRY_CODE : countryCode;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	public static class CountryCount implements CustomerCountryStatistics {
+
+		private final String countryCode;
+
+		private final Long count;
+	}
+}
@@ -0,0 +1,126 @@
+package com.sayedbaladoh.phonenumbers.timing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Request Timing accumulates the time a request spends in each phase, e.g.
+ * <code>validation.PhoneNumber</code>, <code>repository</code>,
+ * <code>commit</code> or <code>serialization</code>.
+ *
+ * The timing of the current request is bound to the request thread by
+ * <code>ServerTimingFilter</code>. Outside a timed request, or with the server
+ * timing disabled, {@link #current()} is <code>null</code> and recording a
+ * phase is a thread local lookup only.
+ *
+ * The phases may nest, e.g. a validator lookup is also a repository call, the
+ * phases don't add up to the total.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public final class RequestTiming {
+
+	private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+	private final long started = System.nanoTime();
+	private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+	/**
+	 * Start timing a request on the current thread.
+	 *
+	 * @return the request timing.
+	 */
+	public static RequestTiming start() {
+		RequestTiming timing = new RequestTiming();
+		CURRENT.set(timing);
+		return timing;
+	}
+
+	/**
+	 * Stop timing the request of the current thread.
+	 */
+	public static void stop() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * @return the timing of the current request, <code>null</code> if not
+	 *         timed.
+	 */
+	public static RequestTiming current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Record a phase of the current request, if timed.
+	 *
+	 * @param phase
+	 *            The phase name.
+	 * @param startedNanos
+	 *            The phase start, from <code>System.nanoTime()</code>.
+	 */
+	public static void record(String phase, long startedNanos) {
+		RequestTiming timing = CURRENT.get();
+		if (timing != null)
+			timing.add(phase, System.nanoTime() - startedNanos);
+	}
+
+	/**
+	 * Add a phase duration, repeated phases are summed.
+	 *
+	 * @param phase
+	 *            The phase name.
+	 * @param nanos
+	 *            The duration in ns.
+	 */
+	public synchronized void add(String phase, long nanos) {
+		Phase current = phases.computeIfAbsent(phase, name -> new Phase());
+		current.nanos += nanos;
+		current.count++;
+	}
+
+	/**
+	 * @return the total duration of each phase in ns, in the recording order.
+	 */
+	public synchronized Map<String, Long> getPhases() {
+		Map<String, Long> durations = new LinkedHashMap<>();
+		phases.forEach((name, phase) -> durations.put(name, phase.nanos));
+		return Collections.unmodifiableMap(durations);
+	}
+
+	/**
+	 * @return the request duration so far in ns.
+	 */
+	public long getElapsed() {
+		return System.nanoTime() - started;
+	}
+
+	/**
+	 * The <code>Server-Timing</code> header value, the phases and the total so
+	 * far in ms, e.g.
+	 * <code>validation.PhoneNumber;dur=0.052, repository;desc="2 calls";dur=1.204, total;dur=3.870</code>.
+	 */
+	public synchronized String toHeaderValue() {
+		StringBuilder value = new StringBuilder();
+		phases.forEach((name, phase) -> {
+			value.append(name);
+			if (phase.count > 1)
+				value.append(";desc=\"").append(phase.count).append(" calls\"");
+			value.append(";dur=").append(millis(phase.nanos)).append(", ");
+		});
+		return value.append("total;dur=").append(millis(getElapsed())).toString();
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+	}
+
+	private static final class Phase {
+
+		private long nanos;
+		private int count;
+	}
+}
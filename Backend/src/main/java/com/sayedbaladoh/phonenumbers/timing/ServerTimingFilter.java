@@ -0,0 +1,127 @@
+package com.sayedbaladoh.phonenumbers.timing;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Server Timing Filter times each request by phase.
+ *
+ * The phases recorded while the request runs are sent as the
+ * <code>Server-Timing</code> response header, written just before the
+ * response is committed: when the body is first written, on a flush or an
+ * error, or after the request if none of them happened. The header covers the
+ * phases recorded until then, the serialization of a JSON body included.
+ *
+ * Each phase is also recorded as the <code>http.server.requests.phases</code>
+ * timer, tagged by method, URI pattern and phase.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+	public static final String HEADER = "Server-Timing";
+
+	private final MeterRegistry meterRegistry;
+
+	public ServerTimingFilter(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		RequestTiming timing = RequestTiming.start();
+		ServerTimingResponse timedResponse = new ServerTimingResponse(response, timing);
+		try {
+			chain.doFilter(request, timedResponse);
+		} finally {
+			RequestTiming.stop();
+			timedResponse.writeServerTiming();
+			record(request, timing);
+		}
+	}
+
+	private void record(HttpServletRequest request, RequestTiming timing) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+		timing.getPhases().forEach((phase, nanos) -> Timer.builder("http.server.requests.phases")
+				.tag("method", request.getMethod())
+				.tag("uri", uri)
+				.tag("phase", phase)
+				.description("Request time by phase")
+				.register(meterRegistry)
+				.record(nanos, TimeUnit.NANOSECONDS));
+	}
+
+	/**
+	 * Write the header once, before anything commits the response.
+	 */
+	private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+		private final RequestTiming timing;
+		private boolean written;
+
+		private ServerTimingResponse(HttpServletResponse response, RequestTiming timing) {
+			super(response);
+			this.timing = timing;
+		}
+
+		private void writeServerTiming() {
+			if (written || isCommitted())
+				return;
+			written = true;
+			setHeader(HEADER, timing.toHeaderValue());
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			writeServerTiming();
+			return super.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			writeServerTiming();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			writeServerTiming();
+			super.flushBuffer();
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			writeServerTiming();
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			writeServerTiming();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			writeServerTiming();
+			super.sendRedirect(location);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.sayedbaladoh.phonenumbers.timing;
+
+import java.lang.annotation.Annotation;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ConstraintValidatorFactory;
+import javax.validation.metadata.ConstraintDescriptor;
+
+import org.hibernate.validator.constraintvalidation.HibernateConstraintValidator;
+import org.hibernate.validator.constraintvalidation.HibernateConstraintValidatorInitializationContext;
+
+/**
+ * Timed Constraint Validator Factory wraps the validators of the given factory
+ * to record each check as the <code>validation.&lt;Constraint&gt;</code>
+ * phase of the current request, e.g. <code>validation.PhoneTaken</code>.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public class TimedConstraintValidatorFactory implements ConstraintValidatorFactory {
+
+	private final ConstraintValidatorFactory delegate;
+
+	public TimedConstraintValidatorFactory(ConstraintValidatorFactory delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+		// Hibernate Validator only relies on the ConstraintValidator type of
+		// the instance, the validated type is resolved from the key
+		return (T) new TimedConstraintValidator<>(delegate.getInstance(key));
+	}
+
+	@Override
+	public void releaseInstance(ConstraintValidator<?, ?> instance) {
+		if (instance instanceof TimedConstraintValidator)
+			instance = ((TimedConstraintValidator<?, ?>) instance).delegate;
+		delegate.releaseInstance(instance);
+	}
+
+	private static final class TimedConstraintValidator<A extends Annotation, T>
+			implements HibernateConstraintValidator<A, T> {
+
+		private final ConstraintValidator<A, T> delegate;
+		private String phase;
+
+		@SuppressWarnings("unchecked")
+		private TimedConstraintValidator(ConstraintValidator<?, ?> delegate) {
+			this.delegate = (ConstraintValidator<A, T>) delegate;
+		}
+
+		@Override
+		public void initialize(ConstraintDescriptor<A> constraintDescriptor,
+				HibernateConstraintValidatorInitializationContext initializationContext) {
+			if (delegate instanceof HibernateConstraintValidator)
+				((HibernateConstraintValidator<A, T>) delegate).initialize(constraintDescriptor,
+						initializationContext);
+		}
+
+		@Override
+		public void initialize(A constraintAnnotation) {
+			phase = "validation." + constraintAnnotation.annotationType().getSimpleName();
+			delegate.initialize(constraintAnnotation);
+		}
+
+		@Override
+		public boolean isValid(T value, ConstraintValidatorContext context) {
+			RequestTiming timing = RequestTiming.current();
+			if (timing == null)
+				return delegate.isValid(value, context);
+
+			long started = System.nanoTime();
+			try {
+				return delegate.isValid(value, context);
+			} finally {
+				timing.add(phase, System.nanoTime() - started);
+			}
+		}
+	}
+}
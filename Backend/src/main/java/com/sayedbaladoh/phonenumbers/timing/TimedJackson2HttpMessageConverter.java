@@ -0,0 +1,61 @@
+package com.sayedbaladoh.phonenumbers.timing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Timed Jackson HTTP message converter records the JSON serialization as the
+ * <code>serialization</code> phase of the current request.
+ *
+ * The body of a timed request is serialized to a buffer before it's written,
+ * the serialization is timed on its own, not with the client reading the
+ * response, and it's recorded before the response headers are sent.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+	public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+		super(objectMapper);
+	}
+
+	@Override
+	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		RequestTiming timing = RequestTiming.current();
+		if (timing == null) {
+			super.writeInternal(object, type, outputMessage);
+			return;
+		}
+
+		long started = System.nanoTime();
+		ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+		super.writeInternal(object, type, new HttpOutputMessage() {
+
+			@Override
+			public OutputStream getBody() {
+				return body;
+			}
+
+			@Override
+			public HttpHeaders getHeaders() {
+				return outputMessage.getHeaders();
+			}
+		});
+		timing.add("serialization", System.nanoTime() - started);
+
+		if (outputMessage.getHeaders().getContentLength() < 0)
+			outputMessage.getHeaders().setContentLength(body.size());
+		body.writeTo(outputMessage.getBody());
+	}
+}
@@ -0,0 +1,26 @@
+package com.sayedbaladoh.phonenumbers.timing;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Timed JPA Transaction Manager records each commit, the Hibernate flush and
+ * the SQLite commit, as the <code>commit</code> phase of the current request.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+public class TimedJpaTransactionManager extends JpaTransactionManager {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	protected void doCommit(DefaultTransactionStatus status) {
+		long started = System.nanoTime();
+		try {
+			super.doCommit(status);
+		} finally {
+			RequestTiming.record("commit", started);
+		}
+	}
+}
@@ -10,7 +10,8 @@ import com.sayedbaladoh.phonenumbers.service.CountryService;
 /**
  * Validator of country dial code.
  * 
- * Check if a value is a valid country phone code
+ * Check if a phone number starts with a valid country phone code, the dial
+ * code may be wrapped in parentheses or not.
  * 
  * @author Sayed Baladoh
  *
@@ -23,14 +24,8 @@ public class CountryDialCodeValidator implements ConstraintValidator<CountryDial
 	@Override
 	public boolean isValid(String value, ConstraintValidatorContext ctx) {
 
-		if (countryService != null) {
-			if (value.matches("^(\\\\(\\\\d{1,6}\\\\))[- .]?(\\\\d{3}[- .]?){2}\\\\d{1,4}$")) {
-				int index = value.indexOf(")");
-				String isd = value.substring(1, index);
-				// System.out.println("Phone: " + value + ", ISD: " + isd);
-				return countryService.existsByIsd(isd);
-			}
-		}
+		if (value != null && countryService != null)
+			return countryService.getDialCodeByPhone(value).isPresent();
 
 		return true;
 	}
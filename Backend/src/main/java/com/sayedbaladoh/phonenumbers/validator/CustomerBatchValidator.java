@@ -0,0 +1,241 @@
+package com.sayedbaladoh.phonenumbers.validator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintViolation;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.validation.beanvalidation.SpringConstraintValidatorFactory;
+
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.model.CustomerValidationResult;
+
+/**
+ * Customer Batch Validator checks many customers against the
+ * <code>Customer</code> constraints at once.
+ *
+ * The constraints are validated without the <code>PhoneTaken</code> and
+ * <code>EmailTaken</code> queries per customer: the phones and emails of the
+ * whole batch are looked up with one <code>IN</code> query per
+ * <code>LOOKUP_SIZE</code> values, and a value repeated in the batch is taken
+ * by its first occurrence.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerBatchValidator {
+
+	/**
+	 * Values per <code>IN</code> query, below the SQLite bound parameters
+	 * limit.
+	 */
+	private static final int LOOKUP_SIZE = 500;
+
+	/**
+	 * The SQLite message of a unique index violation, followed by the
+	 * violating columns.
+	 */
+	private static final String UNIQUE_VIOLATION = "UNIQUE constraint failed: ";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MessageSource messageSource;
+
+	@Autowired
+	private AutowireCapableBeanFactory beanFactory;
+
+	private LocalValidatorFactoryBean validator;
+
+	@PostConstruct
+	public void init() {
+		validator = new LocalValidatorFactoryBean();
+		validator.setValidationMessageSource(messageSource);
+		validator.setConstraintValidatorFactory(new SpringConstraintValidatorFactory(beanFactory) {
+
+			@Override
+			public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+				// Without a customer service the uniqueness validators accept
+				// any value, uniqueness is checked for the whole batch
+				if (key == PhoneTakenValidator.class || key == EmailTakenValidator.class)
+					return BeanUtils.instantiateClass(key);
+				return super.getInstance(key);
+			}
+		});
+		validator.afterPropertiesSet();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		validator.close();
+	}
+
+	/**
+	 * Validate a customer against its constraints, except the phone and email
+	 * uniqueness.
+	 *
+	 * @param customer
+	 *            The customer.
+	 * @return the violations as 'field: message', sorted.
+	 */
+	public List<String> validateConstraints(Customer customer) {
+		List<String> errors = new ArrayList<>();
+		for (ConstraintViolation<Customer> violation : validator.validate(customer))
+			errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+		Collections.sort(errors);
+		return errors;
+	}
+
+	/**
+	 * Validate a customer against its constraints in a locale, except the phone
+	 * and email uniqueness. The messages are interpolated in the locale of the
+	 * current thread, which the pool threads of a parallel validation don't
+	 * have.
+	 *
+	 * @param customer
+	 *            The customer.
+	 * @param locale
+	 *            The locale of the messages.
+	 * @return the violations as 'field: message', sorted.
+	 */
+	public List<String> validateConstraints(Customer customer, Locale locale) {
+		LocaleContext previous = LocaleContextHolder.getLocaleContext();
+		LocaleContextHolder.setLocale(locale);
+		try {
+			return validateConstraints(customer);
+		} finally {
+			LocaleContextHolder.setLocaleContext(previous);
+		}
+	}
+
+	/**
+	 * Validate some properties of a customer against their constraints, except
+	 * the phone and email uniqueness.
+	 *
+	 * @param customer
+	 *            The customer.
+	 * @param properties
+	 *            The names of the properties to validate.
+	 * @return the violations as 'field: message', sorted.
+	 */
+	public List<String> validateProperties(Customer customer, Collection<String> properties) {
+		List<String> errors = new ArrayList<>();
+		for (String property : properties)
+			for (ConstraintViolation<Customer> violation : validator.validateProperty(customer, property))
+				errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+		Collections.sort(errors);
+		return errors;
+	}
+
+	/**
+	 * Validate a failed write didn't violate the phone or email uniqueness,
+	 * enforced by the unique indexes of the <code>customers</code> table.
+	 *
+	 * @param e
+	 *            The write failure.
+	 * @return the violations as 'field: message', empty if the failure isn't a
+	 *         phone or email taken by another customer.
+	 */
+	public List<String> validateTaken(DataIntegrityViolationException e) {
+		String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+		String taken = messageSource.getMessage("taken", null, LocaleContextHolder.getLocale());
+		List<String> errors = new ArrayList<>();
+		if (cause.contains(UNIQUE_VIOLATION + "customers.email"))
+			errors.add("email: " + taken);
+		if (cause.contains(UNIQUE_VIOLATION + "customers.phone"))
+			errors.add("phone: " + taken);
+		return errors;
+	}
+
+	/**
+	 * Validate the customers against all their constraints.
+	 *
+	 * @param customers
+	 *            The candidate customers.
+	 * @return the result of each customer, in order.
+	 */
+	@Transactional(readOnly = true)
+	public List<CustomerValidationResult> validate(List<Customer> customers) {
+		Locale locale = LocaleContextHolder.getLocale();
+		List<List<String>> errors = IntStream.range(0, customers.size()).parallel()
+				.mapToObj(index -> validateConstraints(customers.get(index), locale))
+				.collect(Collectors.toList());
+
+		Set<String> phones = findTakenPhones(customers.stream());
+		Set<String> emails = findTakenEmails(customers.stream());
+		String taken = messageSource.getMessage("taken", null, locale);
+
+		List<CustomerValidationResult> results = new ArrayList<>(customers.size());
+		for (int index = 0; index < customers.size(); index++) {
+			Customer customer = customers.get(index);
+			List<String> customerErrors = errors.get(index);
+			if (customer.getPhone() != null && !phones.add(customer.getPhone()))
+				customerErrors.add("phone: " + taken);
+			if (customer.getEmail() != null && !emails.add(customer.getEmail()))
+				customerErrors.add("email: " + taken);
+			Collections.sort(customerErrors);
+			results.add(new CustomerValidationResult(index, customerErrors.isEmpty(), customerErrors));
+		}
+		return results;
+	}
+
+	/**
+	 * Find the phones of the customers already taken by existing customers.
+	 *
+	 * @param customers
+	 *            The candidate customers.
+	 * @return the taken phones, a mutable set.
+	 */
+	public Set<String> findTakenPhones(Stream<Customer> customers) {
+		return findTaken("phone", customers.map(Customer::getPhone));
+	}
+
+	/**
+	 * Find the emails of the customers already taken by existing customers.
+	 *
+	 * @param customers
+	 *            The candidate customers.
+	 * @return the taken emails, a mutable set.
+	 */
+	public Set<String> findTakenEmails(Stream<Customer> customers) {
+		return findTaken("email", customers.map(Customer::getEmail));
+	}
+
+	private Set<String> findTaken(String column, Stream<String> values) {
+		List<String> distinct = values.filter(value -> value != null).distinct().collect(Collectors.toList());
+		Set<String> taken = new HashSet<>();
+		for (int from = 0; from < distinct.size(); from += LOOKUP_SIZE) {
+			Collection<String> chunk = distinct.subList(from, Math.min(from + LOOKUP_SIZE, distinct.size()));
+			String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+			jdbcTemplate.query("SELECT " + column + " FROM customers WHERE " + column + " IN (" + placeholders + ")",
+					rs -> {
+						taken.add(rs.getString(1));
+					}, chunk.toArray());
+		}
+		return taken;
+	}
+}
@@ -0,0 +1,27 @@
+package com.sayedbaladoh.phonenumbers.validator;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+import com.sayedbaladoh.phonenumbers.phone.PhoneNumberTokenizer;
+
+/**
+ * Validator of phone number format.
+ * 
+ * Check if a phone number is formatted as '(country code) phone number', the
+ * dial code may be wrapped in parentheses or not.
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+public class PhoneNumberValidator implements ConstraintValidator<PhoneNumber, String> {
+
+	@Override
+	public boolean isValid(String value, ConstraintValidatorContext ctx) {
+		if (value == null)
+			return true;
+
+		return PhoneNumberTokenizer.tokenize(value).isWellFormed();
+	}
+
+}
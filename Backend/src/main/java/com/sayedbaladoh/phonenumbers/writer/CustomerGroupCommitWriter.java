@@ -0,0 +1,238 @@
+package com.sayedbaladoh.phonenumbers.writer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+import com.sayedbaladoh.phonenumbers.timing.RequestTiming;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Customer Group Commit Writer saves the customers of concurrent requests on a
+ * single writer thread.
+ *
+ * The thread waits for a save, then drains the queue for up to
+ * <code>group-commit.max-delay</code> ms or
+ * <code>group-commit.max-batch-size</code> saves and commits them in one
+ * transaction, so a burst of requests costs a single commit instead of a
+ * commit per request competing for the database lock.
+ *
+ * If the batch fails, e.g. a constraint violation of one of the customers,
+ * each customer is saved again in its own transaction so every caller gets its
+ * own result or error.
+ *
+ * A caller already in a transaction saves in that transaction, which holds
+ * the writer connection until it completes. Once it ran a statement, its new
+ * blocks of Ids are reserved in that transaction, see
+ * <code>IdBlockGenerator</code>.
+ *
+ * The queue depth, the batch size and the commit latency are exported as
+ * <code>customers.write.*</code> metrics. The wait of a request for its batch
+ * is its <code>group-commit</code> server timing phase.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerGroupCommitWriter {
+
+	private static final Logger logger = LoggerFactory.getLogger(CustomerGroupCommitWriter.class);
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${group-commit.max-batch-size:200}")
+	private int maxBatchSize;
+
+	@Value("${group-commit.max-delay:5}")
+	private long maxDelay;
+
+	@Value("${group-commit.queue-capacity:10000}")
+	private int queueCapacity;
+
+	@Value("${group-commit.timeout:30000}")
+	private long timeout;
+
+	private BlockingQueue<PendingSave> queue;
+	private TransactionTemplate transactionTemplate;
+	private DistributionSummary batchSize;
+	private Timer commitLatency;
+	private Thread writer;
+
+	@PostConstruct
+	public void init() {
+		queue = new LinkedBlockingQueue<>(queueCapacity);
+		transactionTemplate = new TransactionTemplate(transactionManager);
+
+		Gauge.builder("customers.write.queue.depth", queue, BlockingQueue::size)
+				.description("Customer saves waiting for the writer")
+				.register(meterRegistry);
+		batchSize = DistributionSummary.builder("customers.write.batch.size")
+				.description("Customer saves committed together")
+				.register(meterRegistry);
+		commitLatency = Timer.builder("customers.write.commit.latency")
+				.description("Customer saves batch transaction duration")
+				.register(meterRegistry);
+
+		writer = new Thread(this::run, "customer-group-commit");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		writer.interrupt();
+	}
+
+	/**
+	 * Save a customer on the writer thread and wait for its commit.
+	 *
+	 * @param customer
+	 *            The customer to save.
+	 * @return the saved customer.
+	 */
+	public Customer save(Customer customer) {
+		if (TransactionSynchronizationManager.isActualTransactionActive())
+			return customerRepository.save(customer);
+
+		PendingSave pending = new PendingSave(customer);
+		long started = System.nanoTime();
+		try {
+			if (!queue.offer(pending, timeout, TimeUnit.MILLISECONDS))
+				throw new IllegalStateException("Customer writer queue is full");
+			return pending.result.get(timeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while saving the customer", e);
+		} catch (TimeoutException e) {
+			throw new IllegalStateException("Timed out while saving the customer", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			RequestTiming.record("group-commit", started);
+		}
+	}
+
+	private void run() {
+		List<PendingSave> batch = new ArrayList<>(maxBatchSize);
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				batch.add(queue.take());
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelay);
+				while (batch.size() < maxBatchSize) {
+					PendingSave pending = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (pending == null)
+						break;
+					batch.add(pending);
+				}
+				write(batch);
+				batch.clear();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			IllegalStateException stopped = new IllegalStateException("Customer writer stopped");
+			batch.forEach(pending -> pending.result.completeExceptionally(stopped));
+			queue.forEach(pending -> pending.result.completeExceptionally(stopped));
+		}
+	}
+
+	private void write(List<PendingSave> batch) {
+		batchSize.record(batch.size());
+
+		try {
+			List<Customer> saved = commitLatency.record(() -> transactionTemplate.execute(transaction -> {
+				Customer[] customers = new Customer[batch.size()];
+				allocateIds(batch, customers);
+				for (int i = 0; i < batch.size(); i++) {
+					if (customers[i] == null)
+						customers[i] = customerRepository.save(batch.get(i).customer);
+				}
+				return Arrays.asList(customers);
+			}));
+			for (int i = 0; i < batch.size(); i++)
+				batch.get(i).result.complete(saved.get(i));
+		} catch (RuntimeException e) {
+			if (batch.size() == 1) {
+				batch.get(0).result.completeExceptionally(e);
+				return;
+			}
+			logger.debug("Customer saves batch of {} failed, saving one by one", batch.size(), e);
+			for (PendingSave pending : batch)
+				writeOne(pending);
+		}
+	}
+
+	/**
+	 * Persist the new customers before any statement of the batch.
+	 *
+	 * Persisting doesn't run a statement until the flush, it only assigns the
+	 * Id. A new block of Ids is reserved from <code>hibernate_sequence</code>
+	 * on a connection of its own, which the single writer pool can only lend
+	 * while the batch hasn't taken the writer connection yet. The updates,
+	 * which select the customer first, come after.
+	 */
+	private void allocateIds(List<PendingSave> batch, Customer[] customers) {
+		for (int i = 0; i < batch.size(); i++) {
+			PendingSave pending = batch.get(i);
+			if (pending.isNew)
+				customers[i] = customerRepository.save(pending.customer);
+		}
+	}
+
+	private void writeOne(PendingSave pending) {
+		// The Id generated by the rolled back batch wasn't saved
+		if (pending.isNew)
+			pending.customer.setId(null);
+		try {
+			pending.result.complete(commitLatency.record(
+					() -> transactionTemplate.execute(transaction -> customerRepository.save(pending.customer))));
+		} catch (RuntimeException e) {
+			pending.result.completeExceptionally(e);
+		}
+	}
+
+	private static final class PendingSave {
+
+		private final Customer customer;
+		private final boolean isNew;
+		private final CompletableFuture<Customer> result = new CompletableFuture<>();
+
+		private PendingSave(Customer customer) {
+			this.customer = customer;
+			this.isNew = customer.getId() == null;
+		}
+	}
+}
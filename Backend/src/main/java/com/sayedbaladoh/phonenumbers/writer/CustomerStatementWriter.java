@@ -0,0 +1,102 @@
+package com.sayedbaladoh.phonenumbers.writer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+
+/**
+ * Customer Statement Writer updates and deletes a customer with a single
+ * statement, without loading it first.
+ *
+ * The statements return the written row with <code>RETURNING</code>, so a
+ * missing customer is told by the returned rows and the callers get the
+ * customer without another query.
+ *
+ * The statements join the caller transaction, they run on the writer
+ * connection.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@Component
+public class CustomerStatementWriter {
+
+	private static final String COLUMNS = "id, name, phone, email, gender, country_code, country, state, "
+			+ "created_at, updated_at";
+
+	private static final RowMapper<Customer> CUSTOMER = CustomerStatementWriter::mapCustomer;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Update the given columns of a customer.
+	 *
+	 * @param id
+	 *            The customer Id.
+	 * @param columns
+	 *            The new values by column name, only the columns to update.
+	 *            The names must be trusted, they're part of the statement.
+	 * @return the updated customer, empty if not found.
+	 */
+	public Optional<Customer> update(Long id, Map<String, Object> columns) {
+		StringBuilder sql = new StringBuilder("UPDATE customers SET updated_at = ?");
+		List<Object> args = new ArrayList<>(columns.size() + 2);
+		args.add(Instant.now().toEpochMilli());
+		columns.forEach((column, value) -> {
+			sql.append(", ").append(column).append(" = ?");
+			args.add(value);
+		});
+		sql.append(" WHERE id = ? RETURNING ").append(COLUMNS);
+		args.add(id);
+		return first(jdbcTemplate.query(sql.toString(), CUSTOMER, args.toArray()));
+	}
+
+	/**
+	 * Delete a customer.
+	 *
+	 * @param id
+	 *            The customer Id.
+	 * @return the deleted customer, empty if not found.
+	 */
+	public Optional<Customer> delete(Long id) {
+		return first(jdbcTemplate.query("DELETE FROM customers WHERE id = ? RETURNING " + COLUMNS, CUSTOMER, id));
+	}
+
+	private static <T> Optional<T> first(List<T> rows) {
+		return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+	}
+
+	private static Customer mapCustomer(ResultSet rs, int rowNum) throws SQLException {
+		Customer customer = new Customer();
+		customer.setId(rs.getLong("id"));
+		customer.setName(rs.getString("name"));
+		customer.setPhone(rs.getString("phone"));
+		customer.setEmail(rs.getString("email"));
+		customer.setGender(rs.getString("gender"));
+		customer.setCountryCode(rs.getString("country_code"));
+		customer.setCountry(rs.getString("country"));
+		String state = rs.getString("state");
+		customer.setState(state == null ? null : PhoneState.valueOf(state));
+		customer.setCreatedAt(instant(rs, "created_at"));
+		customer.setUpdatedAt(instant(rs, "updated_at"));
+		return customer;
+	}
+
+	private static Instant instant(ResultSet rs, String column) throws SQLException {
+		long millis = rs.getLong(column);
+		return rs.wasNull() ? null : Instant.ofEpochMilli(millis);
+	}
+}
@@ -1,70 +1,5 @@
------------------------
---- Table customers ---
------------------------
---- CREATE TABLE customers (id bigint not null, created_at timestamp not null, updated_at timestamp not null, country_code varchar, email varchar, gender varchar, name varchar not null, phone varchar not null, primary key (id));
-
-INSERT INTO "customers" (id, created_at, updated_at, email, name, country_code, phone) 
-VALUES
-(0,'1614115496450','1614115496450',NULL,'Walid Hammadi','MA','(212) 6007989253'),
-(1,'1614115496450','1614115496450',NULL,'Yosaf Karrouch','MA','(212) 698054317'),
-(2,'1614115496450','1614115496450',NULL,'Younes Boutikyad','MA','(212) 6546545369'),
-(3,'1614115496450','1614115496450',NULL,'Houda Houda','MA','(212) 6617344445'),
-(4,'1614115496450','1614115496450',NULL,'Chouf Malo','MA','(212) 691933626'),
-(5,'1614115496450','1614115496450',NULL,'soufiane fritisse ','MA','(212) 633963130'),
-(6,'1614115496450','1614115496450',NULL,'Nada Sofie','MA','(212) 654642448'),
-(7,'1614115496450','1614115496450',NULL,'Edunildo Gomes Alberto ','MZ','(258) 847651504'),
-(8,'1614115496450','1614115496450',NULL,'Walla''s Singz Junior','MZ','(258) 846565883'),
-(9,'1614115496450','1614115496450',NULL,'sevilton sylvestre','MZ','(258) 849181828'),
-(10,'1614115496450','1614115496450',NULL,'Tanvi Sachdeva','MZ','(258) 84330678235'),
-(11,'1614115496450','1614115496450',NULL,'Florencio Samuel','MZ','(258) 847602609'),
-(12,'1614115496450','1614115496450',NULL,'Solo Dolo','MZ','(258) 042423566'),
-(13,'1614115496450','1614115496450',NULL,'Pedro B 173','MZ','(258) 823747618'),
-(14,'1614115496450','1614115496450',NULL,'Ezequiel Fenias','MZ','(258) 848826725'),
-(15,'1614115496450','1614115496450',NULL,'JACKSON NELLY','UG','(256) 775069443'),
-(16,'1614115496450','1614115496450',NULL,'Kiwanuka Budallah','UG','(256) 7503O6263'),
-(17,'1614115496450','1614115496450',NULL,'VINEET SETH','UG','(256) 704244430'),
-(18,'1614115496450','1614115496450',NULL,'Jokkene Richard','UG','(256) 7734127498'),
-(19,'1614115496450','1614115496450',NULL,'Ogwal David','UG','(256) 7771031454'),
-(20,'1614115496450','1614115496450',NULL,'pt shop 0901 Ultimo ','UG','(256) 3142345678'),
-(21,'1614115496450','1614115496450',NULL,'Daniel Makori','UG','(256) 714660221'),
-(22,'1614115496450','1614115496450',NULL,'shop23 sales','ET','(251) 9773199405'),
-(23,'1614115496450','1614115496450',NULL,'Filimon Embaye','ET','(251) 914701723'),
-(24,'1614115496450','1614115496450',NULL,'ABRAHAM NEGASH','ET','(251) 911203317'),
-(25,'1614115496450','1614115496450',NULL,'ZEKARIAS KEBEDE','ET','(251) 9119454961'),
-(26,'1614115496450','1614115496450',NULL,'EPHREM KINFE','ET','(251) 914148181'),
-(27,'1614115496450','1614115496450',NULL,'Karim Niki','ET','(251) 966002259'),
-(28,'1614115496450','1614115496450',NULL,'Frehiwot Teka','ET','(251) 988200000'),
-(29,'1614115496450','1614115496450',NULL,'Fanetahune Abaia','ET','(251) 924418461'),
-(30,'1614115496450','1614115496450',NULL,'Yonatan Tekelay','ET','(251) 911168450'),
-(31,'1614115496450','1614115496450',NULL,'EMILE CHRISTIAN KOUKOU DIKANDA HONORE ','CM','(237) 697151594'),
-(32,'1614115496450','1614115496450',NULL,'MICHAEL MICHAEL','CM','(237) 677046616'),
-(33,'1614115496450','1614115496450',NULL,'ARREYMANYOR ROLAND TABOT','CM','(237) 6A0311634'),
-(34,'1614115496450','1614115496450',NULL,'LOUIS PARFAIT OMBES NTSO','CM','(237) 673122155'),
-(35,'1614115496450','1614115496450',NULL,'JOSEPH FELICIEN NOMO','CM','(237) 695539786'),
-(36,'1614115496450','1614115496450',NULL,'SUGAR STARRK BARRAGAN','CM','(237) 6780009592'),
-(37,'1614115496450','1614115496450',NULL,'WILLIAM KEMFANG','CM','(237) 6622284920'),
-(38,'1614115496450','1614115496450',NULL,'THOMAS WILFRIED LOMO LOMO','CM','(237) 696443597'),
-(39,'1614115496450','1614115496450',NULL,'Dominique mekontchou','CM','(237) 691816558'),
-(40,'1614115496450','1614115496450',NULL,'Nelson Nelson','CM','(237) 699209115');
-
---CREATE TABLE customers (id bigint not null, created_at timestamp not null, updated_at timestamp not null, email varchar, name varchar not null, phone varchar not null, patterns varchar, country_code varchar not null, gender varchar, pattern varchar, primary key (id));
-
-
------------------------
---- Table countries ---
------------------------
---CREATE TABLE IF NOT EXISTS [countries] (
---[id] INT NULL,
---[name] VARCHAR NULL,
---[alpha_2_code] VARCHAR NULL,
---[alpha_3_code] VARCHAR NULL,
---[isd_code] INT NULL
---);
-
---CREATE TABLE countries (id bigint not null, alpha_2_code varchar not null, alpha_3_code varchar not null, isd_code varchar not null, name varchar not null, primary key (id));
-
-
-INSERT INTO "countries" 
+-- The countries reference data, replaced whenever this file changes.
+INSERT OR REPLACE INTO countries
 (id, name, alpha_2_code, alpha_3_code, isd_code)
 VALUES
 (1,'Afghanistan','AF','AFG',93),
@@ -311,4 +246,5 @@ VALUES
 (242,'Zambia','ZM','ZMB',260),
 (243,'Zimbabwe','ZW','ZWE',263);
 
-update hibernate_sequence set next_val =245;
+-- The countries and sample customers Ids are below 245
+UPDATE hibernate_sequence SET next_val = MAX(next_val, 245);
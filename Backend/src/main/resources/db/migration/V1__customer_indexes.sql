@@ -0,0 +1,21 @@
+-- Customers indexes, the mapped tables are created by Hibernate.
+-- The customers Id isn't the rowid, an index ending with the Id covers the
+-- count queries of the pages and the keyset ordering of the slices.
+
+-- Pages and slices by phone state and by phone country
+DROP INDEX IF EXISTS idx_customers_state;
+CREATE INDEX IF NOT EXISTS idx_customers_state_id ON customers (state, id);
+DROP INDEX IF EXISTS idx_customers_country;
+CREATE INDEX IF NOT EXISTS idx_customers_country_id ON customers (country, id);
+
+-- Slices by name, statistics by country code and slices by country code
+CREATE INDEX IF NOT EXISTS idx_customers_name_id ON customers (name, id);
+CREATE INDEX IF NOT EXISTS idx_customers_country_code_id ON customers (country_code, id);
+
+-- Pages by country code ignoring case, compared as upper(country_code)
+CREATE INDEX IF NOT EXISTS idx_customers_upper_country_code_id ON customers (upper(country_code), id);
+
+-- Profile by phone and the phone and email availability checks, unique as
+-- declared by the Customer entity, which the SQLite dialect doesn't create
+CREATE UNIQUE INDEX IF NOT EXISTS idx_customers_phone ON customers (phone);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_customers_email ON customers (email);
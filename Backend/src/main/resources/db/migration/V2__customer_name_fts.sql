@@ -0,0 +1,19 @@
+-- Full text index of the customers names, an external content table over
+-- customers kept up to date by triggers, see CustomerNameIndex.
+CREATE VIRTUAL TABLE IF NOT EXISTS customers_fts USING fts5(name,
+		content = 'customers', content_rowid = 'id', tokenize = 'unicode61 remove_diacritics 2');
+
+CREATE TRIGGER IF NOT EXISTS customers_fts_insert AFTER INSERT ON customers BEGIN
+	INSERT INTO customers_fts (rowid, name) VALUES (new.id, new.name);
+END;
+
+CREATE TRIGGER IF NOT EXISTS customers_fts_delete AFTER DELETE ON customers BEGIN
+	INSERT INTO customers_fts (customers_fts, rowid, name) VALUES ('delete', old.id, old.name);
+END;
+
+CREATE TRIGGER IF NOT EXISTS customers_fts_update AFTER UPDATE OF name ON customers BEGIN
+	INSERT INTO customers_fts (customers_fts, rowid, name) VALUES ('delete', old.id, old.name);
+	INSERT INTO customers_fts (rowid, name) VALUES (new.id, new.name);
+END;
+
+INSERT INTO customers_fts (customers_fts) VALUES ('rebuild');
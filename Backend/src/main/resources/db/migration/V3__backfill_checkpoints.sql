@@ -0,0 +1,5 @@
+-- Last processed customer Id of each backfill job, see PhoneStateBackfill.
+CREATE TABLE IF NOT EXISTS backfill_checkpoints (
+	name VARCHAR(50) NOT NULL PRIMARY KEY,
+	last_id BIGINT NOT NULL
+);
@@ -0,0 +1,21 @@
+-- Trigram index of the customers names, serving the name contains search of
+-- at least 3 characters without scanning customers, see CustomerNameIndex.
+-- An external content table over customers kept up to date by triggers, as
+-- customers_fts.
+CREATE VIRTUAL TABLE IF NOT EXISTS customers_trigram USING fts5(name,
+		content = 'customers', content_rowid = 'id', tokenize = 'trigram');
+
+CREATE TRIGGER IF NOT EXISTS customers_trigram_insert AFTER INSERT ON customers BEGIN
+	INSERT INTO customers_trigram (rowid, name) VALUES (new.id, new.name);
+END;
+
+CREATE TRIGGER IF NOT EXISTS customers_trigram_delete AFTER DELETE ON customers BEGIN
+	INSERT INTO customers_trigram (customers_trigram, rowid, name) VALUES ('delete', old.id, old.name);
+END;
+
+CREATE TRIGGER IF NOT EXISTS customers_trigram_update AFTER UPDATE OF name ON customers BEGIN
+	INSERT INTO customers_trigram (customers_trigram, rowid, name) VALUES ('delete', old.id, old.name);
+	INSERT INTO customers_trigram (rowid, name) VALUES (new.id, new.name);
+END;
+
+INSERT INTO customers_trigram (customers_trigram) VALUES ('rebuild');
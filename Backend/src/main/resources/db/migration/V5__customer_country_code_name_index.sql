@@ -0,0 +1,3 @@
+-- Slices by country code sorted by name, searched from the country code and
+-- the name of the last returned customer rather than sorting the country.
+CREATE INDEX IF NOT EXISTS idx_customers_country_code_name_id ON customers (country_code, name, id);
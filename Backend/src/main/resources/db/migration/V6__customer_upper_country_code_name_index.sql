@@ -0,0 +1,5 @@
+-- Slices by country code sorted by name, ignoring case like the pages: the
+-- country code is compared as upper(country_code), which the V5 index can't
+-- serve, so it's replaced.
+DROP INDEX IF EXISTS idx_customers_country_code_name_id;
+CREATE INDEX IF NOT EXISTS idx_customers_upper_country_code_name_id ON customers (upper(country_code), name, id);
@@ -0,0 +1,14 @@
+-- The mapped tables, as created by Hibernate, for the profiles that don't let
+-- Hibernate create them, e.g. prod. Runs before every migrate. The customers
+-- phone and email are unique, with the same indexes as V1.
+CREATE TABLE IF NOT EXISTS countries (id bigint not null, alpha_2_code varchar not null,
+		alpha_3_code varchar not null, isd_code varchar not null, name varchar not null, primary key (id));
+
+CREATE TABLE IF NOT EXISTS customers (id bigint not null, created_at timestamp not null,
+		updated_at timestamp not null, country varchar, country_code varchar, email varchar, gender varchar,
+		name varchar not null, phone varchar not null, state varchar, primary key (id));
+CREATE UNIQUE INDEX IF NOT EXISTS idx_customers_phone ON customers (phone);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_customers_email ON customers (email);
+
+CREATE TABLE IF NOT EXISTS hibernate_sequence (next_val bigint);
+INSERT INTO hibernate_sequence (next_val) SELECT 1 WHERE NOT EXISTS (SELECT * FROM hibernate_sequence);
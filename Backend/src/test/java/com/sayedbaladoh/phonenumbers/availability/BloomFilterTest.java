@@ -0,0 +1,67 @@
+package com.sayedbaladoh.phonenumbers.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bloom Filter units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class BloomFilterTest {
+
+	private static final int VALUES = 10000;
+
+	/**
+	 * Validate every added value is possibly present
+	 */
+	@Test
+	public void givenAddedValues_whenMightContain_thenReturnTrue() {
+		// Data preparation
+		BloomFilter filter = BloomFilter.create(VALUES, 0.01);
+		for (int i = 0; i < VALUES; i++)
+			filter.add("(212) 6" + i);
+
+		// Method call and Verification
+		for (int i = 0; i < VALUES; i++)
+			assertThat(filter.mightContain("(212) 6" + i)).isTrue();
+	}
+
+	/**
+	 * Validate the false positive rate of the values never added stays close
+	 * to the configured rate
+	 */
+	@Test
+	public void givenFullFilter_whenMightContainOtherValues_thenFewFalsePositives() {
+		// Data preparation
+		BloomFilter filter = BloomFilter.create(VALUES, 0.01);
+		for (int i = 0; i < VALUES; i++)
+			filter.add("customer" + i + "@test.com");
+
+		// Method call
+		int falsePositives = 0;
+		for (int i = 0; i < VALUES; i++)
+			if (filter.mightContain("other" + i + "@test.com"))
+				falsePositives++;
+
+		// Verification
+		assertThat((double) falsePositives / VALUES).isLessThan(0.02);
+		assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.02);
+		assertThat(filter.getHashCount()).isEqualTo(7);
+	}
+
+	/**
+	 * Validate an empty filter has no false positives
+	 */
+	@Test
+	public void givenEmptyFilter_whenMightContain_thenReturnFalse() {
+		// Data preparation
+		BloomFilter filter = BloomFilter.create(VALUES, 0.01);
+
+		// Method call and Verification
+		assertThat(filter.mightContain("(20) 1235478915")).isFalse();
+		assertThat(filter.expectedFalsePositiveRate()).isZero();
+	}
+}
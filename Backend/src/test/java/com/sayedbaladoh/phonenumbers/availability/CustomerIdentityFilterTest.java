@@ -0,0 +1,120 @@
+package com.sayedbaladoh.phonenumbers.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Customer Identity Filter units' test
+ *
+ * The table lookups always find the value: a value reported available was
+ * answered by the filters without a query.
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class CustomerIdentityFilterTest {
+
+	/**
+	 * Validate the rebuilt filters answer the values missing from the table
+	 * without a query, and pass the others to the table
+	 *
+	 * @throws SQLException
+	 */
+	@Test
+	public void givenTableRows_whenRebuild_thenOnlyRowsPassedToTable() throws SQLException {
+		// Data preparation
+		JdbcTemplate cursorTemplate = Mockito.mock(JdbcTemplate.class);
+		CustomerIdentityFilter filter = getFilter(cursorTemplate, 1);
+		ResultSet rs = getRow("(212) 698054317", "Customer@Test.com");
+		Mockito.doAnswer(invocation -> {
+			invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+			return null;
+		}).when(cursorTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+		// Verification: every check is passed to the table until the rebuild
+		assertThat(filter.isPhoneTaken("(212) 698054318", value -> true)).isTrue();
+
+		// Method call
+		filter.rebuild();
+
+		// Verification
+		assertThat(filter.isPhoneTaken("(212) 698054317", value -> true)).isTrue();
+		assertThat(filter.isPhoneTaken("(212)  698054317", value -> true)).isTrue();
+		assertThat(filter.isEmailTaken(" customer@test.com", value -> true)).isTrue();
+		assertThat(filter.isPhoneTaken("(212) 698054318", value -> true)).isFalse();
+		assertThat(filter.isEmailTaken("other@test.com", value -> true)).isFalse();
+	}
+
+	/**
+	 * Validate the values saved while the table is read are kept by the
+	 * rebuilt filters, and answered by the current filters meanwhile
+	 *
+	 * @throws SQLException
+	 */
+	@Test
+	public void givenAddDuringRebuild_whenRebuild_thenKeepAddedValues() throws SQLException {
+		// Data preparation
+		JdbcTemplate cursorTemplate = Mockito.mock(JdbcTemplate.class);
+		CustomerIdentityFilter filter = getFilter(cursorTemplate, 1);
+		ResultSet rs = getRow("(212) 698054317", null);
+		Mockito.doAnswer(invocation -> {
+			invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+			return null;
+		}).when(cursorTemplate).query(anyString(), any(RowCallbackHandler.class));
+		filter.rebuild();
+
+		Mockito.doAnswer(invocation -> {
+			filter.add("(212) 698054319", "added@test.com");
+			assertThat(filter.isPhoneTaken("(212) 698054319", value -> true)).isTrue();
+			invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+			return null;
+		}).when(cursorTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+		// Method call
+		filter.rebuild();
+
+		// Verification
+		assertThat(filter.isPhoneTaken("(212) 698054317", value -> true)).isTrue();
+		assertThat(filter.isPhoneTaken("(212) 698054319", value -> true)).isTrue();
+		assertThat(filter.isEmailTaken("added@test.com", value -> true)).isTrue();
+		assertThat(filter.isPhoneTaken("(212) 698054318", value -> true)).isFalse();
+	}
+
+	private CustomerIdentityFilter getFilter(JdbcTemplate cursorTemplate, long customers) {
+		CustomerIdentityFilter filter = new CustomerIdentityFilter();
+		JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+		Mockito.when(jdbcTemplate.getDataSource()).thenReturn(Mockito.mock(DataSource.class));
+		Mockito.when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(customers);
+		ReflectionTestUtils.setField(filter, "jdbcTemplate", jdbcTemplate);
+		ReflectionTestUtils.setField(filter, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(filter, "expectedCustomers", 1000L);
+		ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+		filter.init();
+		ReflectionTestUtils.setField(filter, "cursorTemplate", cursorTemplate);
+		return filter;
+	}
+
+	private ResultSet getRow(String phone, String email) throws SQLException {
+		ResultSet rs = Mockito.mock(ResultSet.class);
+		Mockito.when(rs.getString(1)).thenReturn(phone);
+		Mockito.when(rs.getString(2)).thenReturn(email);
+		return rs;
+	}
+}
@@ -0,0 +1,177 @@
+package com.sayedbaladoh.phonenumbers.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.sayedbaladoh.phonenumbers.model.Customer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Customer Cache units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { CustomerCache.class, SimpleMeterRegistry.class })
+class CustomerCacheTest {
+
+	private final Long FIRST_CUSTOMER_ID = 1L;
+	private final Long INVALID_ID = -1L;
+
+	@Autowired
+	private CustomerCache customerCache;
+
+	private Map<Long, Customer> table;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp() {
+		// Data preparation
+		Customer customer = new Customer();
+		customer.setId(FIRST_CUSTOMER_ID);
+		customer.setName("Mohamed Ahmed");
+		customer.setPhone("(20) 1235478915");
+
+		table = new HashMap<>();
+		table.put(FIRST_CUSTOMER_ID, customer);
+		loads = new AtomicInteger();
+		customerCache.evict(FIRST_CUSTOMER_ID, customer.getPhone());
+		customerCache.evict(INVALID_ID, null);
+	}
+
+	/**
+	 * Validate a customer is loaded once and each read gets its own copy
+	 */
+	@Test
+	public void givenCachedCustomer_whenGet_thenReturnCopyWithoutLoading() {
+		// Method call
+		Customer first = customerCache.get(FIRST_CUSTOMER_ID, byId()).orElseThrow();
+		first.setName("Changed");
+		Customer second = customerCache.get(FIRST_CUSTOMER_ID, byId()).orElseThrow();
+
+		// Verification
+		assertThat(loads).hasValue(1);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getName()).isEqualTo("Mohamed Ahmed");
+	}
+
+	/**
+	 * Validate a customer not found is cached until evicted
+	 */
+	@Test
+	public void givenMissingCustomer_whenGet_thenCacheNotFound() {
+		// Method call
+		Optional<Customer> first = customerCache.get(INVALID_ID, byId());
+		Optional<Customer> second = customerCache.get(INVALID_ID, byId());
+		customerCache.evict(INVALID_ID, null);
+		customerCache.get(INVALID_ID, byId());
+
+		// Verification
+		assertThat(first).isEmpty();
+		assertThat(second).isEmpty();
+		assertThat(loads).hasValue(2);
+	}
+
+	/**
+	 * Validate the previous phone of a customer isn't served from the cache
+	 */
+	@Test
+	public void givenChangedPhone_whenGetByPreviousPhone_thenReturnNotFound() {
+		// Data preparation
+		assertThat(customerCache.getByPhone("(20) 1235478915", byPhone())).isPresent();
+		table.get(FIRST_CUSTOMER_ID).setPhone("(20) 1235478916");
+
+		// Method call
+		customerCache.evict(FIRST_CUSTOMER_ID, "(20) 1235478916");
+		Optional<Customer> previous = customerCache.getByPhone("(20) 1235478915", byPhone());
+		Optional<Customer> current = customerCache.getByPhone("(20) 1235478916", byPhone());
+
+		// Verification
+		assertThat(previous).isEmpty();
+		assertThat(current).map(Customer::getId).hasValue(FIRST_CUSTOMER_ID);
+	}
+
+	/**
+	 * Validate a customer evicted while it's loaded by phone isn't cached
+	 * stale
+	 */
+	@Test
+	public void givenEvictWhileLoading_whenGetByPhone_thenDontCacheStaleCustomer() {
+		// Method call
+		Optional<Customer> read = customerCache.getByPhone("(20) 1235478915", writtenWhileLoading());
+		Customer cached = customerCache.get(FIRST_CUSTOMER_ID, byId()).orElseThrow();
+
+		// Verification
+		assertThat(read).map(Customer::getId).hasValue(FIRST_CUSTOMER_ID);
+		assertThat(cached.getName()).isEqualTo("Mohamed Ali");
+	}
+
+	/**
+	 * Validate a customer evicted while it's reloaded for a cached phone isn't
+	 * cached stale
+	 */
+	@Test
+	public void givenEvictWhileReloading_whenGetByCachedPhone_thenDontCacheStaleCustomer() {
+		// Data preparation
+		assertThat(customerCache.getByPhone("(20) 1235478915", byPhone())).isPresent();
+		customerCache.evict(FIRST_CUSTOMER_ID, null);
+
+		// Method call
+		Optional<Customer> read = customerCache.getByPhone("(20) 1235478915", writtenWhileLoading());
+		Customer cached = customerCache.get(FIRST_CUSTOMER_ID, byId()).orElseThrow();
+
+		// Verification
+		assertThat(read).map(Customer::getName).hasValue("Mohamed Ahmed");
+		assertThat(cached.getName()).isEqualTo("Mohamed Ali");
+	}
+
+	/**
+	 * The lookup by phone of a customer renamed and evicted right after it's
+	 * read.
+	 */
+	private Function<String, Optional<Customer>> writtenWhileLoading() {
+		return phone -> {
+			Optional<Customer> loaded = byPhone().apply(phone);
+			table.get(FIRST_CUSTOMER_ID).setName("Mohamed Ali");
+			customerCache.evict(FIRST_CUSTOMER_ID, null);
+			return loaded;
+		};
+	}
+
+	private Function<Long, Optional<Customer>> byId() {
+		return id -> {
+			loads.incrementAndGet();
+			return Optional.ofNullable(table.get(id)).map(this::copy);
+		};
+	}
+
+	private Function<String, Optional<Customer>> byPhone() {
+		return phone -> {
+			loads.incrementAndGet();
+			return table.values().stream().filter(customer -> customer.getPhone().equals(phone)).findFirst()
+					.map(this::copy);
+		};
+	}
+
+	private Customer copy(Customer customer) {
+		Customer copy = new Customer();
+		copy.setId(customer.getId());
+		copy.setName(customer.getName());
+		copy.setPhone(customer.getPhone());
+		return copy;
+	}
+}
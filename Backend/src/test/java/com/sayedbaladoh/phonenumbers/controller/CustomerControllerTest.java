@@ -6,11 +6,15 @@ package com.sayedbaladoh.phonenumbers.controller;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -20,6 +24,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
@@ -31,12 +36,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.sayedbaladoh.phonenumbers.model.Country;
 import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.model.CustomerCursor;
+import com.sayedbaladoh.phonenumbers.model.CustomerCursor.SortKey;
+import com.sayedbaladoh.phonenumbers.model.CustomerFields;
+import com.sayedbaladoh.phonenumbers.model.DialCode;
 import com.sayedbaladoh.phonenumbers.service.CountryService;
 import com.sayedbaladoh.phonenumbers.service.CustomerService;
 import com.sayedbaladoh.phonenumbers.util.JsonUtil;
@@ -67,7 +79,7 @@ class CustomerControllerTest {
 	 * Validate get all customers
 	 * 
 	 * Test method for
-	 * {@link com.sayedbaladoh.phonenumbers.controller.CustomerController#getCustomers(org.springframework.data.domain.Pageable)}.
+	 * {@link com.sayedbaladoh.phonenumbers.controller.CustomerController#getCustomers(java.lang.String, org.springframework.data.domain.Pageable)}.
 	 * 
 	 * @throws Exception
 	 */
@@ -79,13 +91,15 @@ class CustomerControllerTest {
 		Customer customer3 = getCustomer("Sara Ahmed", "(20) 1235478921", "test3@test.com", "female", "EG");
 
 		List<Customer> customers = Arrays.asList(customer1, customer2, customer3);
-		Page<Customer> page = new PageImpl<Customer>(customers);
+		Page<Map<String, Object>> page = new PageImpl<Customer>(customers)
+				.map(customer -> Map.<String, Object>of("name", customer.getName(), "phone", customer.getPhone()));
 
-		given(customerService.getAll(any(Pageable.class)))
+		given(customerService.getAll(any(CustomerFields.class), any(Pageable.class)))
 				.willReturn(page);
 
 		// Verification
 		mvc.perform(get("/api/customers")
+				.param("fields", "phone,name")
 				.contentType(MediaType.APPLICATION_JSON))
 				.andExpect(status().isOk())
 				.andExpect(jsonPath("$.content", hasSize(3)))
@@ -93,7 +107,78 @@ class CustomerControllerTest {
 				.andExpect(jsonPath("$.content[1].name", is(customer2.getName())))
 				.andExpect(jsonPath("$.content[2].name", is(customer3.getName())));
 
-		verify(customerService, VerificationModeFactory.times(1)).getAll(any(Pageable.class));
+		verify(customerService, VerificationModeFactory.times(1))
+				.getAll(argThat(fields -> fields.getNames().equals(Arrays.asList("name", "phone"))), any(Pageable.class));
+		reset(customerService);
+	}
+
+	/**
+	 * Validate get customers with an unknown field is a bad request
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenUnknownField_whenGetCustomers_thenReturnBadRequest() throws Exception {
+		// Verification
+		mvc.perform(get("/api/customers")
+				.param("fields", "id,password")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+
+		verifyNoInteractions(customerService);
+	}
+
+	/**
+	 * Validate scroll customers returns the cursor of the next slice
+	 * 
+	 * Test method for
+	 * {@link com.sayedbaladoh.phonenumbers.controller.CustomerController#scrollCustomers(java.lang.String, int, java.lang.String)}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenCustomersSlice_whenScrollCustomers_thenReturnNextCursor() throws Exception {
+		// Data preparation
+		Customer customer1 = getCustomer("Ahmed Mahmoud", "(20) 1235478912", "test2@test.com", "male", "EG");
+		customer1.setId(7l);
+		Customer customer2 = getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG");
+		customer2.setId(3l);
+		String after = CustomerCursor.after(SortKey.NAME, customer1).encode();
+		String next = CustomerCursor.after(SortKey.NAME, customer2).encode();
+
+		given(customerService.scroll(any(CustomerCursor.class), eq(2)))
+				.willReturn(new SliceImpl<Customer>(Arrays.asList(customer1, customer2), PageRequest.of(0, 2), true));
+
+		// Verification
+		mvc.perform(get("/api/customers/scroll?size=2&sort=name")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content", hasSize(2)))
+				.andExpect(jsonPath("$.content[1].name", is(customer2.getName())))
+				.andExpect(jsonPath("$.hasNext", is(true)))
+				.andExpect(jsonPath("$.next", is(next)));
+
+		mvc.perform(get("/api/customers/scroll?size=2&after=" + after)
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk());
+
+		verify(customerService, VerificationModeFactory.times(2)).scroll(any(CustomerCursor.class), eq(2));
+		reset(customerService);
+	}
+
+	/**
+	 * Verify an invalid cursor is rejected
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenInvalidCursor_whenScrollCustomers_thenReturn400() throws Exception {
+		// Verification
+		mvc.perform(get("/api/customers/scroll?after=notACursor")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().is(400))
+				.andDo(print());
+
 		reset(customerService);
 	}
 
@@ -201,6 +286,8 @@ class CustomerControllerTest {
 		Customer customer = getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG");
 		given(customerService.save(Mockito.anyObject()))
 				.willReturn(customer);
+		given(countryService.getDialCodeByPhone(customer.getPhone()))
+				.willReturn(Optional.of(getDialCode("20", "EG")));
 
 		// Verification
 		mvc.perform(post("/api/customers")
@@ -282,6 +369,65 @@ class CustomerControllerTest {
 		reset(customerService);
 	}
 
+	/**
+	 * Verify patch a valid Customer
+	 *
+	 * Test method for
+	 * {@link com.sayedbaladoh.phonenumbers.controller.CustomerController#patchCustomer(java.lang.Long, com.sayedbaladoh.phonenumbers.model.Customer)}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void whenPatchValidCustomer_thenReturnPatchedCustomer() throws Exception {
+		// Data preparation
+		Customer customer = getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG");
+		customer.setId(1l);
+		Customer changes = new Customer();
+		changes.setEmail(customer.getEmail());
+
+		given(customerService.patch(eq(customer.getId()), any(Customer.class)))
+				.willReturn(Optional.of(customer));
+
+		// Verification
+		mvc.perform(patch("/api/customers/" + customer.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(changes)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(1))
+				.andExpect(jsonPath("$.email").value(customer.getEmail()))
+				.andDo(print());
+
+		verify(customerService, VerificationModeFactory.times(1)).patch(eq(customer.getId()), any(Customer.class));
+		reset(customerService);
+	}
+
+	/**
+	 * Verify patch an invalid Customer Id
+	 *
+	 * Test method for
+	 * {@link com.sayedbaladoh.phonenumbers.controller.CustomerController#patchCustomer(java.lang.Long, com.sayedbaladoh.phonenumbers.model.Customer)}.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void whenPatchInvalidCustomerId_thenReturn404() throws Exception {
+		// Data preparation
+		Customer changes = new Customer();
+		changes.setEmail("test1@test.com");
+
+		given(customerService.patch(eq(55l), any(Customer.class)))
+				.willReturn(Optional.empty());
+
+		// Verification
+		mvc.perform(patch("/api/customers/55")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(changes)))
+				.andExpect(status().is(404))
+				.andDo(print());
+
+		reset(customerService);
+	}
+
 	/**
 	 * Verify a valid Customer Id to delete
 	 *
@@ -297,8 +443,8 @@ class CustomerControllerTest {
 		Customer customer = getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG");
 		customer.setId(1l);
 
-		given(customerService.get(customer.getId()))
-				.willReturn(Optional.of(customer));
+		given(customerService.delete(customer.getId()))
+				.willReturn(true);
 
 		// Verification
 		mvc.perform(delete("/api/customers/" + customer.getId())
@@ -324,8 +470,8 @@ class CustomerControllerTest {
 		Customer customer = getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG");
 		customer.setId(1l);
 
-		given(customerService.get(customer.getId()))
-				.willReturn(Optional.of(customer));
+		given(customerService.delete(customer.getId()))
+				.willReturn(true);
 
 		// Verification
 		mvc.perform(delete("/api/customers/50")
@@ -336,6 +482,13 @@ class CustomerControllerTest {
 		reset(customerService);
 	}
 
+	private DialCode getDialCode(String isd, String alpha2Code) {
+		Country country = new Country();
+		country.setIsd(isd);
+		country.setAlpha2Code(alpha2Code);
+		return new DialCode(isd, Arrays.asList(country));
+	}
+
 	private Customer getCustomer(String name, String phoneNumber, String email, String gender, String countryCode) {
 
 		Customer customer = new Customer();
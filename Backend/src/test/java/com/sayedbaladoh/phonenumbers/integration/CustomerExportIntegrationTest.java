@@ -0,0 +1,186 @@
+package com.sayedbaladoh.phonenumbers.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.service.CustomerService;
+
+/**
+ * Customer Export Rest Integration tests
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+		properties = "spring.profiles.active=test",
+		webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		classes = PhoneNumbersApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(
+		replace = Replace.NONE)
+public class CustomerExportIntegrationTest {
+
+	private final String API_URL = "/api/customers/export";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Customer validCustomer;
+	private Customer invalidCustomer;
+
+	@BeforeEach
+	public void setUp() {
+		validCustomer = customerService.save(getCustomer("Export Valid", "(258) 821234567", "male"));
+		invalidCustomer = customerService.save(getCustomer("Export Invalid", "(258) 021234567", "female"));
+	}
+
+	@AfterEach
+	public void cleanUp() {
+		customerService.delete(validCustomer.getId());
+		customerService.delete(invalidCustomer.getId());
+	}
+
+	/**
+	 * Verify the NDJSON export is filtered by country code and phone state
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenFilters_whenExport_thenStreamMatchingCustomers() throws Exception {
+		// Method call
+		MvcResult result = mvc.perform(get(API_URL)
+				.param("country_code", "MZ")
+				.param("state", "VALID"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String export = mvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		// Verification
+		List<JsonNode> lines = objectMapper.readerFor(JsonNode.class).<JsonNode>readValues(export).readAll();
+		assertThat(lines).isNotEmpty();
+		assertThat(lines).allMatch(line -> line.get("country_code").asText().equals("MZ")
+				&& line.get("state").asText().equals("VALID"));
+		assertThat(lines).anyMatch(line -> line.get("id").asLong() == validCustomer.getId());
+		assertThat(lines).noneMatch(line -> line.get("id").asLong() == invalidCustomer.getId());
+	}
+
+	/**
+	 * Verify the country code filter ignores case
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenLowerCaseCountryCode_whenExport_thenStreamMatchingCustomers() throws Exception {
+		// Method call
+		MvcResult result = mvc.perform(get(API_URL)
+				.param("country_code", "mz"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String export = mvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		// Verification
+		List<JsonNode> lines = objectMapper.readerFor(JsonNode.class).<JsonNode>readValues(export).readAll();
+		assertThat(lines).allMatch(line -> line.get("country_code").asText().equals("MZ"));
+		assertThat(lines).anyMatch(line -> line.get("id").asLong() == validCustomer.getId());
+		assertThat(lines).anyMatch(line -> line.get("id").asLong() == invalidCustomer.getId());
+	}
+
+	/**
+	 * Verify the CSV export is gzipped when the client accepts it
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenGzipAccepted_whenExportCsv_thenStreamGzippedCsv() throws Exception {
+		// Data preparation
+		Customer carriageReturn = customerService.save(getCustomer("Export\rCarriage", "(258) 821234568", "male"));
+
+		// Method call
+		byte[] export;
+		try {
+			MvcResult result = mvc.perform(get(API_URL)
+					.param("format", "csv")
+					.param("country_code", "MZ")
+					.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+					.andExpect(request().asyncStarted())
+					.andReturn();
+			export = mvc.perform(asyncDispatch(result))
+					.andExpect(status().isOk())
+					.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+					.andReturn().getResponse().getContentAsByteArray();
+		} finally {
+			customerService.delete(carriageReturn.getId());
+		}
+
+		// Verification
+		String csv;
+		try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(export))) {
+			csv = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		String[] lines = csv.split("\n");
+		assertThat(lines[0]).isEqualTo("id,name,phone,email,gender,country_code,country,state,created_at,updated_at");
+		assertThat(csv).contains(validCustomer.getId() + ",Export Valid,(258) 821234567,,male,MZ,Mozambique,VALID,");
+		assertThat(csv).contains(invalidCustomer.getId() + ",Export Invalid,(258) 021234567,,female,MZ,");
+		assertThat(csv).contains(carriageReturn.getId() + ",\"Export\rCarriage\",(258) 821234568,");
+	}
+
+	/**
+	 * Verify an unknown format is rejected
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenUnknownFormat_whenExport_thenReturnBadRequest() throws Exception {
+		// Method call and verification
+		mvc.perform(get(API_URL)
+				.param("format", "xml"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private Customer getCustomer(String name, String phoneNumber, String gender) {
+		Customer customer = new Customer();
+		customer.setName(name);
+		customer.setPhone(phoneNumber);
+		customer.setGender(gender);
+		customer.setCountryCode("MZ");
+		return customer;
+	}
+}
@@ -0,0 +1,188 @@
+package com.sayedbaladoh.phonenumbers.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.validation.ConstraintViolationException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+import com.sayedbaladoh.phonenumbers.writer.CustomerGroupCommitWriter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Customer Group Commit Writer Integration tests
+ *
+ * Test the concurrent saves are committed in groups, each caller getting its
+ * own result or error
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+		properties = "spring.profiles.active=test",
+		webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		classes = PhoneNumbersApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(
+		replace = Replace.NONE)
+public class CustomerGroupCommitWriterIntegrationTest {
+
+	private static final int SAVES = 120;
+
+	@Autowired
+	private CustomerGroupCommitWriter writer;
+
+	@Autowired
+	private CustomerRepository repository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private ExecutorService executor;
+	private Object maxDelay;
+
+	@BeforeEach
+	void setUp() {
+		executor = Executors.newFixedThreadPool(16);
+		// Wait long enough for the concurrent saves to share a batch
+		maxDelay = ReflectionTestUtils.getField(writer, "maxDelay");
+		ReflectionTestUtils.setField(writer, "maxDelay", 200L);
+	}
+
+	@AfterEach
+	public void cleanUp() {
+		ReflectionTestUtils.setField(writer, "maxDelay", maxDelay);
+		executor.shutdownNow();
+		repository.findAll().stream()
+				.filter(customer -> customer.getName().startsWith("Group "))
+				.forEach(repository::delete);
+	}
+
+	/**
+	 * Validate the concurrent saves of new and existing customers are committed
+	 * in groups, with the batch metrics
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenConcurrentSaves_whenSave_thenCommitInGroups() throws Exception {
+		// Data preparation
+		Customer existing = repository.saveAndFlush(getCustomer("Group Existing", "(212) 698050000", "male"));
+		existing.setName("Group Existing Renamed");
+		DistributionSummary batchSize = meterRegistry.get("customers.write.batch.size").summary();
+		Timer commitLatency = meterRegistry.get("customers.write.commit.latency").timer();
+		long batches = batchSize.count();
+		double batched = batchSize.totalAmount();
+		long commits = commitLatency.count();
+
+		List<Customer> customers = new ArrayList<>();
+		customers.add(existing);
+		for (int i = 1; i < SAVES; i++)
+			customers.add(getCustomer("Group " + i, String.format("(212) 6980%05d", i), "male"));
+
+		// Method call
+		List<Customer> saved = new ArrayList<>();
+		for (Future<Customer> future : submitAll(customers))
+			saved.add(future.get());
+
+		// Verification
+		assertThat(saved).extracting(Customer::getId).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(saved.get(0).getId()).isEqualTo(existing.getId());
+		assertThat(repository.findById(existing.getId())).map(Customer::getName).contains("Group Existing Renamed");
+		assertThat(repository.findAll()).filteredOn(customer -> customer.getName().startsWith("Group "))
+				.hasSize(SAVES);
+
+		assertThat(batchSize.totalAmount() - batched).isEqualTo(SAVES);
+		assertThat(batchSize.count() - batches).isBetween(1L, SAVES - 1L);
+		assertThat(commitLatency.count() - commits).isEqualTo(batchSize.count() - batches);
+		assertThat(meterRegistry.get("customers.write.queue.depth").gauge().value()).isZero();
+	}
+
+	/**
+	 * Validate a failed batch is saved again one by one, each caller getting
+	 * its own result or error
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenInvalidCustomerInBatch_whenSave_thenSaveOthersOneByOne() throws Exception {
+		// Data preparation
+		List<Customer> customers = new ArrayList<>();
+		for (int i = 0; i < 8; i++)
+			customers.add(getCustomer("Group " + i, String.format("(212) 6981%05d", i), i == 3 ? "unknown" : "male"));
+
+		// Method call
+		List<Future<Customer>> futures = submitAll(customers);
+
+		// Verification
+		for (int i = 0; i < futures.size(); i++) {
+			if (i == 3) {
+				Future<Customer> invalid = futures.get(i);
+				assertThat(invalid).failsWithin(Duration.ofSeconds(30))
+						.withThrowableOfType(ExecutionException.class)
+						.withRootCauseInstanceOf(ConstraintViolationException.class);
+			} else
+				assertThat(futures.get(i).get().getId()).isNotNull();
+		}
+		assertThat(repository.findAll()).filteredOn(customer -> customer.getName().startsWith("Group "))
+				.extracting(Customer::getName)
+				.hasSize(7)
+				.doesNotContain("Group 3");
+	}
+
+	/**
+	 * Submit the saves together from concurrent callers.
+	 */
+	private List<Future<Customer>> submitAll(List<Customer> customers) {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Customer>> futures = new ArrayList<>();
+		for (Customer customer : customers) {
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return writer.save(customer);
+			}, executor));
+		}
+		start.countDown();
+		return futures;
+	}
+
+	private Customer getCustomer(String name, String phone, String gender) {
+		Customer customer = new Customer();
+		customer.setName(name);
+		customer.setPhone(phone);
+		customer.setGender(gender);
+		customer.setCountryCode("MA");
+		return customer;
+	}
+}
@@ -0,0 +1,203 @@
+package com.sayedbaladoh.phonenumbers.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+
+/**
+ * Customer Import Rest Integration tests
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+		properties = "spring.profiles.active=test",
+		webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		classes = PhoneNumbersApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(
+		replace = Replace.NONE)
+public class CustomerImportIntegrationTest {
+
+	private final String API_URL = "/api/customers/import";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private CustomerRepository repository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	public void cleanUp() {
+		repository.findAll().stream()
+				.filter(customer -> customer.getName().startsWith("Import "))
+				.forEach(repository::delete);
+	}
+
+	/**
+	 * Verify the valid CSV rows are imported and the others reported
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenCsvRows_whenImport_thenReportEachRow() throws Exception {
+		// Data preparation
+		String csv = "name,phone,email,gender,country_code\n"
+				+ "Import Valid,(212) 698054301,import1@test.com,male,MA\n"
+				+ "Import Invalid Phone,(212) 69805430A,,male,MA\n"
+				+ "Import Duplicate,(212) 698054301,,female,MA\n"
+				+ "\"Import, Quoted\",(256) 775069401,,female,UG\n";
+
+		// Method call
+		String report = mvc.perform(post(API_URL)
+				.contentType("text/csv")
+				.content(csv))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		// Verification
+		List<JsonNode> lines = readLines(report);
+		assertThat(lines).hasSize(5);
+		assertThat(lines.get(0).get("status").asText()).isEqualTo("ACCEPTED");
+		assertThat(lines.get(1).get("status").asText()).isEqualTo("REJECTED");
+		assertThat(lines.get(1).get("errors").get(0).asText()).startsWith("phone: ");
+		assertThat(lines.get(2).get("status").asText()).isEqualTo("REJECTED");
+		assertThat(lines.get(2).get("errors").get(0).asText()).startsWith("phone: Already taken");
+		assertThat(lines.get(3).get("status").asText()).isEqualTo("ACCEPTED");
+		assertThat(lines.get(4).get("accepted").asLong()).isEqualTo(2);
+		assertThat(lines.get(4).get("rejected").asLong()).isEqualTo(2);
+
+		Customer imported = repository.findById(lines.get(3).get("id").asLong()).orElseThrow();
+		assertThat(imported.getName()).isEqualTo("Import, Quoted");
+		assertThat(imported.getCountry()).isEqualTo("Uganda");
+		assertThat(imported.getState()).isEqualTo(PhoneState.VALID);
+	}
+
+	/**
+	 * Verify a chunk failing to insert is inserted row by row, only its failing
+	 * rows are rejected
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenRowFailingInsert_whenImport_thenRejectOnlyFailingRow() throws Exception {
+		// Data preparation
+		String csv = "name,phone,gender,country_code\n"
+				+ "Import First,(212) 698054311,male,MA\n"
+				+ "Import Failing,(212) 698054312,male,MA\n"
+				+ "Import Last,(212) 698054313,female,MA\n";
+		jdbcTemplate.execute("CREATE TRIGGER import_failing BEFORE INSERT ON customers "
+				+ "WHEN new.name = 'Import Failing' BEGIN SELECT RAISE(ABORT, 'Import failing row'); END");
+
+		// Method call
+		String report;
+		try {
+			report = mvc.perform(post(API_URL)
+					.contentType("text/csv")
+					.content(csv))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+		} finally {
+			jdbcTemplate.execute("DROP TRIGGER import_failing");
+		}
+
+		// Verification
+		List<JsonNode> lines = readLines(report);
+		assertThat(lines).hasSize(4);
+		assertThat(lines.get(0).get("status").asText()).isEqualTo("ACCEPTED");
+		assertThat(lines.get(1).get("status").asText()).isEqualTo("REJECTED");
+		assertThat(lines.get(1).get("errors").get(0).asText()).contains("Import failing row");
+		assertThat(lines.get(2).get("status").asText()).isEqualTo("ACCEPTED");
+		assertThat(lines.get(3).get("accepted").asLong()).isEqualTo(2);
+		assertThat(repository.findByPhone("(212) 698054311")).isPresent();
+		assertThat(repository.findByPhone("(212) 698054312")).isEmpty();
+		assertThat(repository.findByPhone("(212) 698054313")).map(Customer::getId)
+				.hasValue(lines.get(2).get("id").asLong());
+	}
+
+	/**
+	 * Verify the rows are validated in the locale of the import request
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenRequestLocale_whenImport_thenReportErrorsInLocale() throws Exception {
+		// Data preparation
+		String csv = "name,phone,gender,country_code\n"
+				+ "Import Localized,(212) 698054321,unknown,MA\n";
+
+		// Method call
+		String report = mvc.perform(post(API_URL)
+				.contentType("text/csv")
+				.header(HttpHeaders.ACCEPT_LANGUAGE, "de")
+				.content(csv))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		// Verification
+		List<JsonNode> lines = readLines(report);
+		assertThat(lines.get(0).get("status").asText()).isEqualTo("REJECTED");
+		assertThat(lines.get(0).get("errors").get(0).asText()).startsWith("gender: Inklusion!");
+	}
+
+	/**
+	 * Verify the NDJSON rows are imported
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenNdjsonRows_whenImport_thenReportEachRow() throws Exception {
+		// Data preparation
+		String ndjson = "{\"name\":\"Import Json\",\"phone\":\"(251) 914701701\","
+				+ "\"gender\":\"male\",\"country_code\":\"ET\"}\n"
+				+ "{\"name\":\"Import Malformed\"\n";
+
+		// Method call
+		String report = mvc.perform(post(API_URL)
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content(ndjson))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		// Verification
+		List<JsonNode> lines = readLines(report);
+		assertThat(lines).hasSize(3);
+		assertThat(lines.get(0).get("status").asText()).isEqualTo("ACCEPTED");
+		assertThat(lines.get(1).get("errors").get(0).asText()).startsWith("Malformed row");
+		assertThat(repository.findByPhone("(251) 914701701")).isPresent();
+	}
+
+	private List<JsonNode> readLines(String report) throws Exception {
+		return objectMapper.readerFor(JsonNode.class).<JsonNode>readValues(report).readAll();
+	}
+}
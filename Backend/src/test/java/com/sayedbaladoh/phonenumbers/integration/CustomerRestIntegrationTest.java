@@ -1,10 +1,15 @@
 package com.sayedbaladoh.phonenumbers.integration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -13,6 +18,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.transaction.Transactional;
@@ -25,13 +32,18 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.availability.CustomerIdentityFilter;
 import com.sayedbaladoh.phonenumbers.model.Customer;
 import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+import com.sayedbaladoh.phonenumbers.sqlstats.SqlStatementStats;
+import com.sayedbaladoh.phonenumbers.sqlstats.SqlStatistics;
 import com.sayedbaladoh.phonenumbers.util.JsonUtil;
 
 /**
@@ -61,6 +73,15 @@ public class CustomerRestIntegrationTest {
 	@Autowired
 	private CustomerRepository repository;
 
+	@Autowired
+	private SqlStatistics sqlStatistics;
+
+	@Autowired
+	private CustomerIdentityFilter customerIdentityFilter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
 	@AfterEach
 	public void cleanUp() {
 		// resetDb
@@ -98,6 +119,137 @@ public class CustomerRestIntegrationTest {
 				.andExpect(jsonPath("$.content[2].name", is(customer3.getName())));
 	}
 
+	/**
+	 * Validate get customers returns only the requested fields, in the sort
+	 * order
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenCustomers_whenGetCustomersFields_thenReturnRequestedFieldsOnly() throws Exception {
+
+		Customer customer1 = getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG");
+		Customer customer2 = getCustomer("Ahmed Mahmoud", "(20) 1235478912", "test2@test.com", "male", "EG");
+
+		saveTestCustomer(customer1);
+		saveTestCustomer(customer2);
+
+		// Method call and Verification
+		mvc.perform(get(API_URL)
+				.param("fields", "id,name,phone,country_code")
+				.param("sort", "name")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements", is(2)))
+				.andExpect(jsonPath("$.content[0].name", is(customer2.getName())))
+				.andExpect(jsonPath("$.content[0].phone", is(customer2.getPhone())))
+				.andExpect(jsonPath("$.content[0].country_code", is(customer2.getCountryCode())))
+				.andExpect(jsonPath("$.content[0].id").isNumber())
+				.andExpect(jsonPath("$.content[0].email").doesNotExist())
+				.andExpect(jsonPath("$.content[0].state").doesNotExist())
+				.andExpect(jsonPath("$.content[1].name", is(customer1.getName())));
+
+		mvc.perform(get(API_URL)
+				.param("sort", "password")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
+	/**
+	 * Validate the name search by word prefix, the best match first
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenCustomers_whenSearchByNamePrefix_thenReturnMatchingCustomers() throws Exception {
+
+		Customer customer1 = getCustomer("Quentin Lowell", "(20) 1235478931", "test4@test.com", "male", "EG");
+		Customer customer2 = getCustomer("Quentin Quenby", "(20) 1235478932", "test5@test.com", "male", "EG");
+		Customer customer3 = getCustomer("Lowell Quinn", "(20) 1235478933", "test6@test.com", "male", "EG");
+
+		saveTestCustomer(customer1);
+		saveTestCustomer(customer2);
+		saveTestCustomer(customer3);
+
+		// Method call and Verification
+		mvc.perform(get(API_URL + "/name/quen")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements", is(2)))
+				.andExpect(jsonPath("$.content[0].name", is(customer2.getName())))
+				.andExpect(jsonPath("$.content[1].name", is(customer1.getName())));
+	}
+
+	/**
+	 * Validate the name search finds the names containing the name
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenCustomers_whenSearchByNameInfix_thenReturnMatchingCustomers() throws Exception {
+
+		Customer customer = getCustomer("Quentin Lowell", "(20) 1235478934", "test7@test.com", "male", "EG");
+
+		saveTestCustomer(customer);
+
+		// Method call and Verification
+		mvc.perform(get(API_URL + "/name/entin Lo")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements", is(1)))
+				.andExpect(jsonPath("$.content[0].name", is(customer.getName())));
+	}
+
+	/**
+	 * Validate the name search returns the word prefix and the infix matches
+	 * together, the word prefix matches first
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenPrefixAndInfixMatches_whenSearchByName_thenReturnBothPrefixFirst() throws Exception {
+
+		Customer infix = getCustomer("Sara Ahmed", "(20) 1235478935", "test10@test.com", "female", "EG");
+		Customer prefix = getCustomer("Medina Salem", "(20) 1235478936", "test11@test.com", "female", "EG");
+		Customer other = getCustomer("Quentin Lowell", "(20) 1235478937", "test12@test.com", "male", "EG");
+
+		saveTestCustomer(infix);
+		saveTestCustomer(prefix);
+		saveTestCustomer(other);
+
+		// Method call and Verification
+		mvc.perform(get(API_URL + "/name/med")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements", is(2)))
+				.andExpect(jsonPath("$.content[0].name", is(prefix.getName())))
+				.andExpect(jsonPath("$.content[1].name", is(infix.getName())));
+	}
+
+	/**
+	 * Validate the name search keeps the requested sort
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenSort_whenSearchByName_thenReturnSortedMatches() throws Exception {
+
+		Customer infix = getCustomer("Sara Ahmed", "(20) 1235478938", "test13@test.com", "female", "EG");
+		Customer prefix = getCustomer("Medina Salem", "(20) 1235478939", "test14@test.com", "female", "EG");
+
+		saveTestCustomer(infix);
+		saveTestCustomer(prefix);
+
+		// Method call and Verification
+		mvc.perform(get(API_URL + "/name/med")
+				.param("sort", "name,desc")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements", is(2)))
+				.andExpect(jsonPath("$.content[0].name", is(infix.getName())))
+				.andExpect(jsonPath("$.content[1].name", is(prefix.getName())));
+	}
+
 	/**
 	 * Validate findById with valid Id
 	 */
@@ -165,12 +317,95 @@ public class CustomerRestIntegrationTest {
 	}
 
 	/**
-	 * Verify post invalid Customer
+	 * Verify candidate customers are validated in one call, including the
+	 * uniqueness against the table and within the batch
 	 * 
 	 * @throws IOException
 	 * @throws Exception
 	 */
 	@Test
+	public void givenCandidates_whenValidate_thenReturnViolationsOfEach() throws IOException, Exception {
+		// Data preparation
+		saveTestCustomer(getCustomer("Mohamed Ahmed", "(20) 1235478941", "test8@test.com", "male", "EG"));
+
+		List<Customer> candidates = List.of(
+				getCustomer("Ahmed Mahmoud", "(20) 1235478942", "test9@test.com", "male", "EG"),
+				getCustomer("Sara Ahmed", "(20) 1235478941", null, "female", "EG"),
+				getCustomer("Mona Ahmed", "(20) 1235478943", "test9@test.com", "female", "XX"));
+
+		// Method call and Verification
+		mvc.perform(post(API_URL + "/validate")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil
+						.toJson(candidates)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(3)))
+				.andExpect(jsonPath("$[0].valid", is(true)))
+				.andExpect(jsonPath("$[0].errors", hasSize(0)))
+				.andExpect(jsonPath("$[1].valid", is(false)))
+				.andExpect(jsonPath("$[1].errors[0]", startsWith("phone: Already taken")))
+				.andExpect(jsonPath("$[2].index", is(2)))
+				.andExpect(jsonPath("$[2].errors", hasSize(2)))
+				.andExpect(jsonPath("$[2].errors[0]", startsWith("countryCode: ")))
+				.andExpect(jsonPath("$[2].errors[1]", startsWith("email: Already taken")));
+
+		assertThat(repository.findAll())
+				.extracting(Customer::getName)
+				.doesNotContain("Ahmed Mahmoud");
+	}
+
+	/**
+	 * Verify the violations of the candidates validated in parallel are in the
+	 * locale of the request
+	 *
+	 * @throws IOException
+	 * @throws Exception
+	 */
+	@Test
+	public void givenLocale_whenValidate_thenReturnViolationsInLocale() throws IOException, Exception {
+		// Data preparation
+		List<Customer> candidates = new ArrayList<>();
+		for (int i = 0; i < 64; i++)
+			candidates.add(getCustomer("", String.format("(20) 12354790%02d", i), null, "male", "EG"));
+
+		// Method call and Verification
+		mvc.perform(post(API_URL + "/validate")
+				.header(HttpHeaders.ACCEPT_LANGUAGE, "de")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil
+						.toJson(candidates)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(64)))
+				.andExpect(jsonPath("$[*].errors", everyItem(hasItem("name: leer! darf nicht leer sein."))));
+	}
+
+	/**
+	 * Verify a missing candidate customer is rejected
+	 *
+	 * @throws IOException
+	 * @throws Exception
+	 */
+	@Test
+	public void givenNullCandidate_whenValidate_thenReturnBadRequest() throws IOException, Exception {
+		// Data preparation
+		List<Customer> candidates = Arrays.asList(
+				getCustomer("Ahmed Mahmoud", "(20) 1235478942", null, "male", "EG"), null);
+
+		// Method call and Verification
+		mvc.perform(post(API_URL + "/validate")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil
+						.toJson(candidates)))
+				.andExpect(status().isBadRequest());
+	}
+
+	/**
+	 * Verify post invalid Customer
+	 *
+	 * @throws IOException
+	 * @throws Exception
+	 */
+	@Test
 	// @Disabled
 	public void whenInvalidInput_thenNotAdded() throws IOException, Exception {
 		// Data preparation
@@ -185,6 +420,33 @@ public class CustomerRestIntegrationTest {
 				.andExpect(jsonPath("$.id").doesNotExist());
 	}
 
+	/**
+	 * Verify a phone taken by a customer written outside the service, missing
+	 * from the identity filter, is rejected by the unique index as taken
+	 * 
+	 * @throws IOException
+	 * @throws Exception
+	 */
+	@Test
+	public void givenPhoneWrittenOutsideService_whenAdd_thenReturnTaken() throws IOException, Exception {
+		// Data preparation
+		customerIdentityFilter.rebuild();
+		jdbcTemplate.update("INSERT INTO customers (id, created_at, updated_at, name, phone) "
+				+ "VALUES (-2, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'Outside Service', '(20) 1235478916')");
+		Customer customer = getCustomer("Mohamed Ahmed", "(20) 1235478916", "test1@test.com", "male", "EG");
+
+		// Method call and Verification
+		mvc.perform(post(API_URL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil
+						.toJson(customer)))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.errors[0]", startsWith("Invalid customer: phone: Already taken")));
+
+		assertThat(repository.findByPhone(customer.getPhone())).map(Customer::getName)
+				.hasValue("Outside Service");
+	}
+
 	/**
 	 * Verify Put valid Customer
 	 * 
@@ -245,6 +507,161 @@ public class CustomerRestIntegrationTest {
 				.andExpect(status().is(404));
 	}
 
+	/**
+	 * Verify Patch updates only the supplied details
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenCustomer_whenPatch_thenUpdateSuppliedDetailsOnly() throws Exception {
+		// Data preparation
+		Customer customer = saveTestCustomer(
+				getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG"));
+		Customer changes = new Customer();
+		changes.setName("Mohamed Salah");
+		changes.setPhone("(212) 698054317");
+
+		// Method call and Verification
+		mvc.perform(patch(API_URL + "/" + customer.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(changes)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(customer.getId()))
+				.andExpect(jsonPath("$.name", is("Mohamed Salah")))
+				.andExpect(jsonPath("$.phone", is("(212) 698054317")))
+				.andExpect(jsonPath("$.email", is(customer.getEmail())))
+				.andExpect(jsonPath("$.country", is("Morocco")))
+				.andExpect(jsonPath("$.state", is("VALID")));
+
+		Customer patched = repository.findById(customer.getId()).get();
+		assertThat(patched.getName()).isEqualTo("Mohamed Salah");
+		assertThat(patched.getPhone()).isEqualTo("(212) 698054317");
+		assertThat(patched.getGender()).isEqualTo(customer.getGender());
+		assertThat(patched.getCreatedAt().toEpochMilli()).isEqualTo(customer.getCreatedAt().toEpochMilli());
+	}
+
+	/**
+	 * Verify Patch with invalid details or customer Id
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenInvalidPatch_whenPatch_thenNotUpdated() throws Exception {
+		// Data preparation
+		Customer customer = saveTestCustomer(
+				getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG"));
+		Customer changes = new Customer();
+		changes.setName("M");
+
+		// Method call and Verification
+		mvc.perform(patch(API_URL + "/" + customer.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(changes)))
+				.andExpect(status().isBadRequest());
+
+		changes.setName("Mohamed Salah");
+		mvc.perform(patch(API_URL + "/" + INVALID_ID)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(changes)))
+				.andExpect(status().isNotFound());
+
+		assertThat(repository.findById(customer.getId()).get().getName()).isEqualTo("Mohamed Ahmed");
+	}
+
+	/**
+	 * Verify Patch with the phone or email of another customer
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenTakenPhoneOrEmail_whenPatch_thenNotUpdated() throws Exception {
+		// Data preparation
+		Customer customer = saveTestCustomer(
+				getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG"));
+		Customer other = saveTestCustomer(
+				getCustomer("Ahmed Mahmoud", "(20) 1235478912", "test2@test.com", "male", "EG"));
+		Customer takenPhone = new Customer();
+		takenPhone.setPhone(other.getPhone());
+		Customer takenEmail = new Customer();
+		takenEmail.setEmail(other.getEmail());
+		Customer ownPhone = new Customer();
+		ownPhone.setPhone(customer.getPhone());
+
+		// Method call and Verification
+		mvc.perform(patch(API_URL + "/" + customer.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(takenPhone)))
+				.andExpect(status().isBadRequest());
+		mvc.perform(patch(API_URL + "/" + customer.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(takenEmail)))
+				.andExpect(status().isBadRequest());
+		mvc.perform(patch(API_URL + "/" + customer.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(ownPhone)))
+				.andExpect(status().isOk());
+
+		Customer unchanged = repository.findById(customer.getId()).get();
+		assertThat(unchanged.getPhone()).isEqualTo(customer.getPhone());
+		assertThat(unchanged.getEmail()).isEqualTo(customer.getEmail());
+	}
+
+	/**
+	 * Verify Patch runs a single statement, a taken phone included
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenPatch_whenPatch_thenRunSingleStatement() throws Exception {
+		// Data preparation
+		Customer customer = saveTestCustomer(
+				getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG"));
+		Customer other = saveTestCustomer(
+				getCustomer("Ahmed Mahmoud", "(20) 1235478912", "test2@test.com", "male", "EG"));
+		Customer changes = new Customer();
+		changes.setName("Mohamed Salah");
+		changes.setGender("female");
+		Customer takenPhone = new Customer();
+		takenPhone.setPhone(other.getPhone());
+
+		// Method call and Verification
+		sqlStatistics.reset();
+		mvc.perform(patch(API_URL + "/" + customer.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(changes)))
+				.andExpect(status().isOk());
+		mvc.perform(patch(API_URL + "/" + customer.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(JsonUtil.toJson(takenPhone)))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.errors[0]", startsWith("Invalid customer: phone: Already taken")));
+
+		assertThat(sqlStatistics.getStatements(100))
+				.extracting(SqlStatementStats::getFingerprint)
+				.isNotEmpty()
+				.allMatch(sql -> sql.startsWith("UPDATE customers SET"));
+	}
+
+	/**
+	 * Verify Delete by customer Id
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void givenCustomer_whenDelete_thenDeletedOnce() throws Exception {
+		// Data preparation
+		Customer customer = saveTestCustomer(
+				getCustomer("Mohamed Ahmed", "(20) 1235478915", "test1@test.com", "male", "EG"));
+
+		// Method call and Verification
+		mvc.perform(delete(API_URL + "/" + customer.getId()))
+				.andExpect(status().isOk());
+		mvc.perform(delete(API_URL + "/" + customer.getId()))
+				.andExpect(status().isNotFound());
+
+		assertThat(repository.existsById(customer.getId())).isFalse();
+	}
+
 	/**
 	 * Verify Delete inValid Customer ID
 	 * 
@@ -0,0 +1,198 @@
+package com.sayedbaladoh.phonenumbers.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.config.DataSourceConfig;
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Data Source Routing Integration tests
+ *
+ * Test the read-only transactions are served by the read pool, the others by
+ * the single writer connection, and the nested work never waits for the
+ * writer it holds
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+		properties = "spring.profiles.active=test",
+		webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		classes = PhoneNumbersApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(
+		replace = Replace.NONE)
+public class DataSourceRoutingIntegrationTest {
+
+	private static final Duration NO_DEADLOCK = Duration.ofSeconds(10);
+
+	@Autowired
+	private DataSourceConfig dataSourceConfig;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CustomerRepository repository;
+
+	@AfterEach
+	public void cleanUp() {
+		repository.findAll().stream()
+				.filter(customer -> customer.getName().startsWith("Routing "))
+				.forEach(repository::delete);
+	}
+
+	/**
+	 * Validate a read-only transaction reads from the read pool and can't write
+	 */
+	@Test
+	public void givenReadOnlyTransaction_whenQuery_thenUseReadPool() {
+		// Data preparation
+		TransactionTemplate readOnly = transactionTemplate(TransactionDefinition.PROPAGATION_REQUIRED, true);
+
+		// Method call and Verification
+		readOnly.executeWithoutResult(transaction -> {
+			jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Long.class);
+
+			assertThat(pool("readDataSource").getHikariPoolMXBean().getActiveConnections()).isPositive();
+			assertThat(pool("readDataSource").getMaximumPoolSize()).isGreaterThan(1);
+			assertThatThrownBy(() -> jdbcTemplate.update("UPDATE hibernate_sequence SET next_val = next_val"))
+					.isInstanceOf(DataAccessException.class)
+					.hasMessageContaining("readonly");
+		});
+	}
+
+	/**
+	 * Validate a read-write transaction holds the single writer connection
+	 */
+	@Test
+	public void givenWriteTransaction_whenQuery_thenUseWriter() {
+		// Data preparation
+		TransactionTemplate readWrite = transactionTemplate(TransactionDefinition.PROPAGATION_REQUIRED, false);
+
+		// Method call and Verification
+		readWrite.executeWithoutResult(transaction -> {
+			jdbcTemplate.update("UPDATE hibernate_sequence SET next_val = next_val");
+
+			assertThat(pool("writeDataSource").getMaximumPoolSize()).isEqualTo(1);
+			assertThat(pool("writeDataSource").getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+		});
+		assertThat(pool("writeDataSource").getHikariPoolMXBean().getActiveConnections()).isZero();
+	}
+
+	/**
+	 * Validate a nested read-only transaction reads from the read pool while
+	 * the outer transaction holds the writer
+	 */
+	@Test
+	public void givenWriterHeld_whenNestedReadOnlyTransaction_thenReadWithoutWaiting() {
+		// Data preparation
+		TransactionTemplate readWrite = transactionTemplate(TransactionDefinition.PROPAGATION_REQUIRED, false);
+		TransactionTemplate nestedReadOnly = transactionTemplate(TransactionDefinition.PROPAGATION_REQUIRES_NEW, true);
+
+		// Method call and Verification
+		Long count = assertTimeout(NO_DEADLOCK, () -> readWrite.execute(transaction -> {
+			jdbcTemplate.update("UPDATE hibernate_sequence SET next_val = next_val");
+			return nestedReadOnly.execute(
+					nested -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Long.class));
+		}));
+		assertThat(count).isNotNull();
+	}
+
+	/**
+	 * Validate a nested read-write transaction is refused at once instead of
+	 * waiting for the writer held by the outer transaction
+	 */
+	@Test
+	public void givenWriterHeld_whenNestedWriteTransaction_thenFailWithoutWaiting() {
+		// Data preparation
+		TransactionTemplate readWrite = transactionTemplate(TransactionDefinition.PROPAGATION_REQUIRED, false);
+		TransactionTemplate nestedReadWrite = transactionTemplate(TransactionDefinition.PROPAGATION_REQUIRES_NEW,
+				false);
+
+		// Method call and Verification
+		assertTimeout(NO_DEADLOCK, () -> readWrite.executeWithoutResult(transaction -> {
+			jdbcTemplate.update("UPDATE hibernate_sequence SET next_val = next_val");
+			assertThatThrownBy(() -> nestedReadWrite.executeWithoutResult(
+					nested -> jdbcTemplate.update("UPDATE hibernate_sequence SET next_val = next_val")))
+							.isInstanceOf(DataAccessException.class)
+							.hasMessageContaining("writer connection is already held");
+		}));
+
+		// The writer is released by both transactions
+		assertThat(pool("writeDataSource").getHikariPoolMXBean().getActiveConnections()).isZero();
+		assertTimeout(NO_DEADLOCK, () -> readWrite.executeWithoutResult(
+				transaction -> jdbcTemplate.update("UPDATE hibernate_sequence SET next_val = next_val")));
+	}
+
+	/**
+	 * Validate the Id blocks reserved on their own connection while a
+	 * transaction saves more customers than a block holds
+	 */
+	@Test
+	public void givenWriteTransaction_whenSaveSeveralIdBlocks_thenReserveWithoutWaiting() {
+		// Data preparation
+		TransactionTemplate readWrite = transactionTemplate(TransactionDefinition.PROPAGATION_REQUIRED, false);
+		List<Customer> customers = new ArrayList<>();
+		for (int i = 0; i < 120; i++)
+			customers.add(getCustomer("Routing " + i, String.format("(212) 6%08d", i)));
+
+		// Method call
+		List<Customer> saved = assertTimeout(NO_DEADLOCK,
+				() -> readWrite.execute(transaction -> repository.saveAll(customers)));
+
+		// Verification
+		assertThat(saved).extracting(Customer::getId).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers WHERE name LIKE 'Routing %'",
+				Long.class)).isEqualTo(120);
+	}
+
+	private TransactionTemplate transactionTemplate(int propagation, boolean readOnly) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setPropagationBehavior(propagation);
+		transactionTemplate.setReadOnly(readOnly);
+		return transactionTemplate;
+	}
+
+	private HikariDataSource pool(String name) {
+		return (HikariDataSource) ReflectionTestUtils.getField(dataSourceConfig, name);
+	}
+
+	private Customer getCustomer(String name, String phone) {
+		Customer customer = new Customer();
+		customer.setName(name);
+		customer.setPhone(phone);
+		customer.setGender("male");
+		customer.setCountryCode("MA");
+		return customer;
+	}
+}
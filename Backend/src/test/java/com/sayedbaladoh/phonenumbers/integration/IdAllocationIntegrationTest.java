@@ -0,0 +1,180 @@
+package com.sayedbaladoh.phonenumbers.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.importer.CustomerImporter;
+import com.sayedbaladoh.phonenumbers.importer.CustomerImporter.Format;
+import com.sayedbaladoh.phonenumbers.importer.ImportSummary;
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+import com.sayedbaladoh.phonenumbers.service.CustomerService;
+
+/**
+ * Id Allocation Integration tests
+ *
+ * Test the Ids reserved by the pooled-lo generator and by the importer from
+ * the shared <code>hibernate_sequence</code> never collide
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+		properties = "spring.profiles.active=test",
+		webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		classes = PhoneNumbersApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(
+		replace = Replace.NONE)
+public class IdAllocationIntegrationTest {
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerImporter customerImporter;
+
+	@Autowired
+	private CustomerRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	public void cleanUp() {
+		repository.findAll().stream()
+				.filter(customer -> customer.getName().startsWith("Ids "))
+				.forEach(repository::delete);
+	}
+
+	/**
+	 * Validate the Ids stay unique when imports interleave with the saves of
+	 * a partly used Id block
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenImportsBetweenSaves_whenSave_thenIdsStayUnique() throws Exception {
+		// Data preparation
+		List<Long> ids = new ArrayList<>();
+		int phone = 0;
+
+		for (int round = 0; round < 3; round++) {
+			// Method call: part of a block, then an import, then past the block
+			for (int i = 0; i < 20; i++)
+				ids.add(customerService.save(getCustomer("Ids Saved", phone++)).getId());
+
+			StringBuilder csv = new StringBuilder("name,phone,gender,country_code\n");
+			for (int i = 0; i < 30; i++)
+				csv.append("Ids Imported,").append(phone(phone++)).append(",female,MA\n");
+			ImportSummary summary = customerImporter.importCustomers(
+					new BufferedReader(new StringReader(csv.toString())), Format.CSV, new ByteArrayOutputStream());
+			assertThat(summary.getAccepted()).isEqualTo(30);
+
+			for (int i = 0; i < 40; i++)
+				ids.add(customerService.save(getCustomer("Ids Saved", phone++)).getId());
+		}
+
+		// Verification
+		ids.addAll(jdbcTemplate.queryForList("SELECT id FROM customers WHERE name = 'Ids Imported'", Long.class));
+		assertThat(ids).hasSize(3 * 90).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers WHERE name LIKE 'Ids %'",
+				Long.class)).isEqualTo(3 * 90);
+		assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM hibernate_sequence", Long.class))
+				.isGreaterThan(jdbcTemplate.queryForObject("SELECT MAX(id) FROM customers", Long.class));
+	}
+
+	/**
+	 * Validate a transaction holding the writer after a first statement
+	 * reserves its next Id blocks on its own connection
+	 */
+	@Test
+	public void givenStatementInTransaction_whenSaveSeveralIdBlocks_thenReserveInTransaction() {
+		// Data preparation
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		List<Customer> customers = new ArrayList<>();
+		for (int i = 0; i < 120; i++)
+			customers.add(getCustomer("Ids Saved", i));
+
+		// Method call
+		List<Long> ids = assertTimeout(Duration.ofSeconds(10), () -> transactionTemplate.execute(transaction -> {
+			jdbcTemplate.update("UPDATE hibernate_sequence SET next_val = next_val");
+			return repository.saveAll(customers).stream().map(Customer::getId).collect(Collectors.toList());
+		}));
+
+		// Verification
+		assertThat(ids).hasSize(120).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers WHERE name = 'Ids Saved'",
+				Long.class)).isEqualTo(120);
+		assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM hibernate_sequence", Long.class))
+				.isGreaterThan(jdbcTemplate.queryForObject("SELECT MAX(id) FROM customers", Long.class));
+	}
+
+	/**
+	 * Validate the Id blocks reserved in a rolled back transaction aren't
+	 * assigned by the saves after it, their reservation is rolled back too
+	 */
+	@Test
+	public void givenRolledBackIdBlocks_whenSave_thenIdsStayUnique() {
+		// Data preparation
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		List<Long> rolledBack = new ArrayList<>();
+		List<Long> ids = new ArrayList<>();
+
+		// Method call
+		transactionTemplate.executeWithoutResult(transaction -> {
+			jdbcTemplate.update("UPDATE hibernate_sequence SET next_val = next_val");
+			for (int i = 0; i < 120; i++)
+				rolledBack.add(repository.save(getCustomer("Ids Rolled Back", i)).getId());
+			transaction.setRollbackOnly();
+		});
+		for (int i = 0; i < 120; i++)
+			ids.add(customerService.save(getCustomer("Ids Saved", 200 + i)).getId());
+
+		// Verification
+		assertThat(ids).hasSize(120).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers WHERE name LIKE 'Ids %'",
+				Long.class)).isEqualTo(120);
+		assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM hibernate_sequence", Long.class))
+				.isGreaterThan(jdbcTemplate.queryForObject("SELECT MAX(id) FROM customers", Long.class));
+	}
+
+	private Customer getCustomer(String name, int phone) {
+		Customer customer = new Customer();
+		customer.setName(name);
+		customer.setPhone(phone(phone));
+		customer.setGender("male");
+		customer.setCountryCode("MA");
+		return customer;
+	}
+
+	private static String phone(int phone) {
+		return String.format("(212) 6982%05d", phone);
+	}
+}
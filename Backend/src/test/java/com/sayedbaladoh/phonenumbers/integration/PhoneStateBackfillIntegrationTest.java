@@ -0,0 +1,132 @@
+package com.sayedbaladoh.phonenumbers.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.backfill.BackfillProgress;
+import com.sayedbaladoh.phonenumbers.backfill.PhoneStateBackfill;
+import com.sayedbaladoh.phonenumbers.backfill.PhoneStateBackfill.Status;
+import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+
+/**
+ * Phone State Backfill Integration tests
+ *
+ * Test the customers saved without a phone state are classified once
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+		properties = "spring.profiles.active=test",
+		webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		classes = PhoneNumbersApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(
+		replace = Replace.NONE)
+public class PhoneStateBackfillIntegrationTest {
+
+	@Autowired
+	private PhoneStateBackfill backfill;
+
+	@Autowired
+	private CustomerRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	public void cleanUp() {
+		repository.findAll().stream()
+				.filter(customer -> customer.getName().startsWith("Backfill "))
+				.forEach(repository::delete);
+	}
+
+	/**
+	 * Validate the unclassified customers are classified and a second run is a
+	 * no-op
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenUnclassifiedCustomers_whenBackfill_thenClassifyOnce() throws Exception {
+		// Data preparation
+		Customer valid = saveTestCustomer("Backfill Valid", "(212) 698054391");
+		Customer invalid = saveTestCustomer("Backfill Invalid", "(212) 6007989291");
+		Customer unknown = saveTestCustomer("Backfill Unknown", "(999) 698054391");
+		jdbcTemplate.update("UPDATE customers SET country = NULL, state = NULL WHERE id IN (?, ?)",
+				valid.getId(), unknown.getId());
+		jdbcTemplate.update("UPDATE customers SET country = 'Stale', state = NULL WHERE id = ?", invalid.getId());
+
+		// Method call
+		BackfillProgress first = runBackfill();
+
+		// Verification
+		assertThat(first.getStatus()).isEqualTo(Status.COMPLETED);
+		assertThat(first.getProcessed()).isEqualTo(3);
+		assertClassification(valid, "Morocco", "VALID");
+		assertClassification(invalid, "Morocco", "NOT_VALID");
+		assertClassification(unknown, null, "NOT_VALID");
+
+		// Method call
+		Map<String, Object> before = readBackfilledRows();
+		BackfillProgress second = runBackfill();
+
+		// Verification
+		assertThat(second.getStatus()).isEqualTo(Status.COMPLETED);
+		assertThat(second.getTotal()).isZero();
+		assertThat(second.getProcessed()).isZero();
+		assertThat(readBackfilledRows()).isEqualTo(before);
+		assertClassification(valid, "Morocco", "VALID");
+	}
+
+	private BackfillProgress runBackfill() throws InterruptedException {
+		// The backfill started with the application may still be running
+		awaitBackfill();
+		assertThat(backfill.start()).isTrue();
+		return awaitBackfill();
+	}
+
+	private BackfillProgress awaitBackfill() throws InterruptedException {
+		for (int i = 0; i < 100 && backfill.getProgress().getStatus() == Status.RUNNING; i++)
+			Thread.sleep(100);
+		BackfillProgress progress = backfill.getProgress();
+		assertThat(progress.getStatus()).isNotEqualTo(Status.RUNNING);
+		return progress;
+	}
+
+	private void assertClassification(Customer customer, String country, String state) {
+		Map<String, Object> row = jdbcTemplate.queryForMap("SELECT country, state FROM customers WHERE id = ?",
+				customer.getId());
+		assertThat(row.get("country")).as(customer.getName()).isEqualTo(country);
+		assertThat(row.get("state")).as(customer.getName()).isEqualTo(state);
+	}
+
+	private Map<String, Object> readBackfilledRows() {
+		return jdbcTemplate.queryForMap("SELECT group_concat(updated_at) AS updated_at, group_concat(state) AS states"
+				+ " FROM customers WHERE name LIKE 'Backfill %'");
+	}
+
+	private Customer saveTestCustomer(String name, String phone) {
+		Customer customer = new Customer();
+		customer.setName(name);
+		customer.setPhone(phone);
+		customer.setGender("male");
+		customer.setCountryCode("MA");
+		return repository.saveAndFlush(customer);
+	}
+}
@@ -0,0 +1,195 @@
+package com.sayedbaladoh.phonenumbers.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.model.CustomerFields;
+import com.sayedbaladoh.phonenumbers.reader.CustomerProjectionReader;
+import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+import com.sayedbaladoh.phonenumbers.sqlstats.SqlStatementStats;
+import com.sayedbaladoh.phonenumbers.sqlstats.SqlStatistics;
+
+/**
+ * Schema Migration Integration tests
+ * 
+ * Test the migrations are applied and the customers queries use their indexes
+ * 
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+		properties = "spring.profiles.active=test",
+		classes = PhoneNumbersApplication.class)
+@AutoConfigureTestDatabase(
+		replace = Replace.NONE)
+public class SchemaMigrationIntegrationTest {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CustomerProjectionReader customerProjectionReader;
+
+	@Autowired
+	private SqlStatistics sqlStatistics;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	/**
+	 * Verify every migration is applied
+	 */
+	@Test
+	public void givenMigrations_whenStarted_thenAllApplied() {
+		// Method call
+		MigrationInfo[] pending = flyway.info().pending();
+		MigrationInfo current = flyway.info().current();
+
+		// Verification
+		assertThat(pending).isEmpty();
+		assertThat(current.getVersion().getVersion()).isEqualTo("6");
+		assertThat(flyway.info().applied())
+				.allMatch(migration -> migration.getState() == MigrationState.SUCCESS
+						|| migration.getState() == MigrationState.BASELINE);
+	}
+
+	/**
+	 * Verify the V1 and V6 indexes serve the customers lookups, pages and statistics
+	 */
+	@Test
+	public void givenCustomerIndexes_whenExplainQueries_thenUseIndexes() {
+		// Method call and Verification
+		assertThat(plan("SELECT * FROM customers WHERE upper(country_code) = upper('ma') ORDER BY id"))
+				.contains("USING INDEX idx_customers_upper_country_code_id");
+		assertThat(plan("SELECT COUNT(id) FROM customers WHERE upper(country_code) = upper('ma')"))
+				.contains("USING INDEX idx_customers_upper_country_code_id");
+		assertThat(plan("SELECT country_code, COUNT(id) FROM customers GROUP BY country_code"))
+				.contains("USING COVERING INDEX idx_customers_country_code_id");
+		assertThat(plan("SELECT * FROM customers WHERE country_code = 'MA' AND id > 0 ORDER BY id"))
+				.contains("USING INDEX idx_customers_country_code_id");
+		assertThat(plan("SELECT COUNT(id) FROM customers WHERE state = 'VALID'"))
+				.contains("USING COVERING INDEX idx_customers_state_id");
+		assertThat(plan("SELECT COUNT(id) FROM customers WHERE country = 'Morocco'"))
+				.contains("USING COVERING INDEX idx_customers_country_id");
+		assertThat(plan("SELECT * FROM customers WHERE name >= 'A' AND (name > 'A' OR id > 0) ORDER BY name, id"))
+				.contains("SEARCH customers USING INDEX idx_customers_name_id (name>?)");
+		assertThat(plan("SELECT * FROM customers WHERE upper(country_code) = upper('ma') AND name >= 'A' "
+				+ "AND (name > 'A' OR id > 0) ORDER BY name, id"))
+				.contains("SEARCH customers USING INDEX idx_customers_upper_country_code_name_id (<expr>=? AND name>?)");
+		assertThat(plan("SELECT * FROM customers WHERE phone = '(212) 698054317'"))
+				.contains("USING INDEX idx_customers_phone");
+		assertThat(plan("SELECT id FROM customers WHERE email = 'test@test.com' LIMIT 1"))
+				.contains("USING INDEX idx_customers_email");
+	}
+
+	/**
+	 * Verify the V1 phone and email indexes are unique
+	 */
+	@Test
+	public void givenCustomerIndexes_whenListed_thenPhoneAndEmailUnique() {
+		// Method call
+		List<String> unique = jdbcTemplate.query("PRAGMA index_list(customers)",
+				(rs, rowNum) -> rs.getInt("unique") == 1 ? rs.getString("name") : null);
+
+		// Verification
+		assertThat(unique).contains("idx_customers_phone", "idx_customers_email");
+	}
+
+	/**
+	 * Verify the V2 and V4 full text indexes serve the statements of the name
+	 * search, without scanning the customers
+	 */
+	@Test
+	public void givenNameIndexes_whenExplainNameSearch_thenSearchIndexes() {
+		// Data preparation
+		sqlStatistics.reset();
+
+		// Method call: the second page, so the matches are counted
+		customerProjectionReader.findAllByNameContaining("ahmed", CustomerFields.ALL, PageRequest.of(1, 20));
+		customerProjectionReader.findAllByNameContaining("ahmed", CustomerFields.ALL,
+				PageRequest.of(1, 20, Sort.by("name")));
+		List<String> statements = sqlStatistics.getStatements(100).stream()
+				.map(SqlStatementStats::getFingerprint)
+				.filter(sql -> sql.contains("customers_trigram"))
+				.collect(Collectors.toList());
+
+		// Verification
+		assertThat(statements).hasSize(3);
+		for (String sql : statements)
+			assertThat(plan(sql)).as(sql)
+					.contains("VIRTUAL TABLE INDEX")
+					.doesNotContainPattern("SCAN customers\\b");
+		assertThat(statements).anySatisfy(sql -> assertThat(plan(sql))
+				.contains("SEARCH customers USING INDEX sqlite_autoindex_customers_1 (id=?)"));
+	}
+
+	/**
+	 * Verify the slices search the name and country code indexes from the last
+	 * returned customer, without sorting the customers
+	 */
+	@Test
+	public void givenNameIndexes_whenExplainSlicesByName_thenSearchIndexes() {
+		// Data preparation
+		sqlStatistics.reset();
+
+		// Method call
+		Pageable slice = PageRequest.of(0, 20, Sort.by("name", "id"));
+		customerRepository.scrollByName("Ahmed", 1, slice);
+		customerRepository.scrollByCountryCodeByName("ma", "Ahmed", 1, slice);
+		customerRepository.scrollByCountryCodeById("ma", 1, PageRequest.of(0, 20, Sort.by("id")));
+		List<String> statements = sqlStatistics.getStatements(100).stream()
+				.map(SqlStatementStats::getFingerprint)
+				.filter(sql -> sql.contains("customers"))
+				.collect(Collectors.toList());
+
+		// Verification
+		assertThat(statements).hasSize(3);
+		assertThat(statements).anySatisfy(sql -> assertThat(plan(sql))
+				.contains("SEARCH customer0_ USING INDEX idx_customers_name_id (name>?)")
+				.doesNotContain("TEMP B-TREE"));
+		assertThat(statements).anySatisfy(sql -> assertThat(plan(sql))
+				.contains("SEARCH customer0_ USING INDEX idx_customers_upper_country_code_name_id (<expr>=? AND name>?)")
+				.doesNotContain("TEMP B-TREE"));
+		assertThat(statements).anySatisfy(sql -> assertThat(plan(sql))
+				.contains("SEARCH customer0_ USING INDEX idx_customers_upper_country_code_id (<expr>=? AND id>?)")
+				.doesNotContain("TEMP B-TREE"));
+	}
+
+	/**
+	 * Verify the V3 checkpoints table serves the backfill checkpoint lookup
+	 */
+	@Test
+	public void givenCheckpointsTable_whenExplainLookup_thenUsePrimaryKey() {
+		// Method call and Verification
+		assertThat(plan("SELECT last_id FROM backfill_checkpoints WHERE name = 'phone_state'"))
+				.contains("USING INDEX sqlite_autoindex_backfill_checkpoints_1 (name=?)");
+	}
+
+	private String plan(String sql) {
+		List<String> details = jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql,
+				(rs, rowNum) -> rs.getString("detail"));
+		return String.join("\n", details);
+	}
+}
@@ -0,0 +1,137 @@
+package com.sayedbaladoh.phonenumbers.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+import com.sayedbaladoh.phonenumbers.timing.ServerTimingFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Server Timing Integration tests
+ *
+ * Test the Server-Timing header and the phase timers of the customer requests
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+		properties = "spring.profiles.active=test",
+		webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		classes = PhoneNumbersApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(
+		replace = Replace.NONE)
+public class ServerTimingIntegrationTest {
+
+	private final String API_URL = "/api/customers";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private CustomerRepository repository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@AfterEach
+	public void cleanUp() {
+		repository.deleteAll();
+	}
+
+	/**
+	 * Validate the phases of a created customer
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenValidCustomer_whenPostCustomer_thenReturnServerTimingOfEachPhase() throws Exception {
+
+		// Data preparation
+		String customer = "{\"name\":\"Mohamed Ahmed\",\"phone\":\"(20) 1235478915\","
+				+ "\"email\":\"timing@test.com\",\"gender\":\"male\",\"country_code\":\"EG\"}";
+
+		// Method call
+		String serverTiming = mvc.perform(post(API_URL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(customer))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getHeader(ServerTimingFilter.HEADER);
+
+		// Verification
+		assertThat(serverTiming)
+				.contains("validation.PhoneNumber;dur=")
+				.contains("validation.CountryDialCode;dur=")
+				.contains("validation.PhoneTaken;dur=")
+				.contains("validation.EmailTaken;dur=")
+				.contains("group-commit;dur=")
+				.contains("serialization;dur=")
+				.matches(".*total;dur=\\d+\\.\\d{3}$");
+		assertThat(meterRegistry.find("http.server.requests.phases")
+				.tags("method", "POST", "uri", API_URL, "phase", "serialization")
+				.timer())
+						.isNotNull()
+						.satisfies(timer -> assertThat(timer.count()).isPositive());
+	}
+
+	/**
+	 * Validate the statements run through the JDBC template are timed as
+	 * repository calls
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenFields_whenGetCustomers_thenReturnServerTimingWithRepository() throws Exception {
+
+		// Method call
+		String serverTiming = mvc.perform(get(API_URL)
+				.param("fields", "id,name"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(ServerTimingFilter.HEADER);
+
+		// Verification
+		assertThat(serverTiming)
+				.containsPattern("repository;(desc=\"\\d+ calls\";)?dur=")
+				.contains("serialization;dur=");
+	}
+
+	/**
+	 * Validate the phases of a response without a body
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenMissingCustomer_whenDeleteCustomer_thenReturnServerTimingWithCommit() throws Exception {
+
+		// Method call
+		String serverTiming = mvc.perform(delete(API_URL + "/{id}", -1L))
+				.andExpect(status().isNotFound())
+				.andReturn().getResponse().getHeader(ServerTimingFilter.HEADER);
+
+		// Verification
+		assertThat(serverTiming)
+				.contains("repository;dur=")
+				.contains("commit;dur=")
+				.contains("total;dur=")
+				.doesNotContain("group-commit");
+	}
+}
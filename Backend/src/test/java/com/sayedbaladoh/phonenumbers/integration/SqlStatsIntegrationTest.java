@@ -0,0 +1,77 @@
+package com.sayedbaladoh.phonenumbers.integration;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sayedbaladoh.phonenumbers.PhoneNumbersApplication;
+import com.sayedbaladoh.phonenumbers.sqlstats.SqlPlanCapture;
+
+/**
+ * SQL Stats Integration tests
+ *
+ * Test the statements statistics and plans of the sqlstats actuator endpoint
+ *
+ * @author Sayed Baladoh
+ *
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+		properties = "spring.profiles.active=test",
+		webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+		classes = PhoneNumbersApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(
+		replace = Replace.NONE)
+public class SqlStatsIntegrationTest {
+
+	private final String SQLSTATS_URL = "/actuator/sqlstats";
+	private final String BY_PHONE = "$[?(@.fingerprint =~ /.*from customers .* where .*phone=\\?.*/i)]";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private SqlPlanCapture sqlPlanCapture;
+
+	/**
+	 * Validate the customer queries are recorded by fingerprint and explained
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void givenCustomerRequests_whenGetSqlStats_thenReturnFingerprintsWithPlans() throws Exception {
+
+		// Data preparation
+		mvc.perform(delete(SQLSTATS_URL)).andExpect(status().isNoContent());
+		mvc.perform(get("/api/customers/phone/{phone}", "(212) 698054317")).andExpect(status().isNotFound());
+		mvc.perform(get("/api/customers/phone/{phone}", "(212) 698054318")).andExpect(status().isNotFound());
+
+		// Method call
+		sqlPlanCapture.capture();
+
+		// Verification
+		mvc.perform(get(SQLSTATS_URL))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath(BY_PHONE + ".calls", hasItem(2)))
+				.andExpect(jsonPath(BY_PHONE + ".plan[0]", hasItem(startsWith("SEARCH"))));
+		mvc.perform(delete(SQLSTATS_URL)).andExpect(status().isNoContent());
+		mvc.perform(get(SQLSTATS_URL))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath(BY_PHONE, empty()));
+	}
+}
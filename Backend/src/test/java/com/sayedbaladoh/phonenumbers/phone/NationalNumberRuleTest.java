@@ -0,0 +1,46 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * National Number Rule units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class NationalNumberRuleTest {
+
+	/**
+	 * Validate the national number length and leading digit are checked
+	 */
+	@Test
+	public void givenNationalNumbers_whenIsValid_thenCheckLengthAndLeadingDigit() {
+		// Data preparation
+		PhoneValidityRule rule = new NationalNumberRule("212", 9, 9, "56789");
+
+		// Verification
+		assertThat(rule.getIsd()).isEqualTo("212");
+		assertThat(rule.isValid("698054317")).isTrue();
+		assertThat(rule.isValid("6007989253")).isFalse();
+		assertThat(rule.isValid("69805431")).isFalse();
+		assertThat(rule.isValid("498054317")).isFalse();
+		assertThat(rule.isValid("69805431A")).isFalse();
+		assertThat(rule.isValid("")).isFalse();
+	}
+
+	/**
+	 * Validate any leading digit is accepted when none is configured
+	 */
+	@Test
+	public void givenRuleWithoutLeadingDigits_whenIsValid_thenAcceptAnyLeadingDigit() {
+		// Data preparation
+		PhoneValidityRule rule = new NationalNumberRule("256", 9, 9, null);
+
+		// Verification
+		assertThat(rule.isValid("775069443")).isTrue();
+		assertThat(rule.isValid("075069443")).isTrue();
+		assertThat(rule.isValid("7503O6263")).isFalse();
+	}
+}
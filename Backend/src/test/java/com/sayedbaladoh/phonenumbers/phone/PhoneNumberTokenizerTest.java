@@ -0,0 +1,143 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Phone Number Tokenizer units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class PhoneNumberTokenizerTest {
+
+	/**
+	 * The phone format previously validated by <code>@Pattern</code>
+	 */
+	private static final Pattern PHONE_PATTERN = Pattern
+			.compile("^((\\(\\d{1,6}\\))|\\d{1,6})[- .]?(\\d{3}[- .]?){2}\\d{1,4}$");
+
+	private static final String ALPHABET = "0123456789012345678901234567890123456789()- .+O";
+
+	/**
+	 * Validate the phone digits, dial code and format are tokenized
+	 */
+	@Test
+	public void givenFormattedPhone_whenTokenize_thenReturnToken() {
+		// Method call
+		PhoneNumberToken token = PhoneNumberTokenizer.tokenize("(212) 698-054.317", new PhoneNumberToken());
+
+		// Verification
+		assertThat(token.toString()).isEqualTo("212698054317");
+		assertThat(token.getEnclosedLength()).isEqualTo(3);
+		assertThat(token.nationalNumber(3).toString()).isEqualTo("698054317");
+		assertThat(token.isClean()).isTrue();
+		assertThat(token.isUnclosed()).isFalse();
+		assertThat(token.isWellFormed()).isTrue();
+	}
+
+	/**
+	 * Validate the international prefix is not part of the phone digits
+	 */
+	@Test
+	public void givenInternationalPhone_whenTokenize_thenSkipPrefix() {
+		PhoneNumberToken token = new PhoneNumberToken();
+
+		assertThat(PhoneNumberTokenizer.tokenize("+20 123-547-8915", token).toString()).isEqualTo("201235478915");
+		assertThat(token.isWellFormed()).isFalse();
+
+		assertThat(PhoneNumberTokenizer.tokenize("0020.123.547.8915", token).toString()).isEqualTo("201235478915");
+		assertThat(token.isWellFormed()).isTrue();
+	}
+
+	/**
+	 * Validate malformed phones are flagged
+	 */
+	@Test
+	public void givenMalformedPhone_whenTokenize_thenReturnFlags() {
+		PhoneNumberToken token = new PhoneNumberToken();
+
+		PhoneNumberTokenizer.tokenize("(256) 7503O6263", token);
+		assertThat(token.toString()).isEqualTo("2567503");
+		assertThat(token.isClean()).isFalse();
+		assertThat(token.isWellFormed()).isFalse();
+
+		PhoneNumberTokenizer.tokenize("(212 6007989253", token);
+		assertThat(token.isUnclosed()).isTrue();
+		assertThat(token.isWellFormed()).isFalse();
+	}
+
+	/**
+	 * Validate the digits beyond the maximum are dropped
+	 */
+	@Test
+	public void givenPhoneAtMaxDigits_whenTokenize_thenDropFurtherDigits() {
+		// Data preparation
+		PhoneNumberToken token = new PhoneNumberToken();
+		String digits = "212" + "6".repeat(PhoneNumberToken.MAX_DIGITS - 3);
+
+		// Method call and Verification
+		PhoneNumberTokenizer.tokenize(digits, token);
+		assertThat(token.length()).isEqualTo(50);
+		assertThat(token.toString()).isEqualTo(digits);
+		assertThat(token.isClean()).isTrue();
+
+		PhoneNumberTokenizer.tokenize("00" + digits, token);
+		assertThat(token.length()).isEqualTo(48);
+
+		PhoneNumberTokenizer.tokenize(digits + "7", token);
+		assertThat(token.length()).isEqualTo(50);
+		assertThat(token.toString()).isEqualTo(digits);
+		assertThat(token.isClean()).isTrue();
+		assertThat(token.isWellFormed()).isFalse();
+	}
+
+	/**
+	 * Validate the same phone string is tokenized once per thread
+	 */
+	@Test
+	public void givenSamePhone_whenTokenize_thenReturnCachedToken() {
+		// Data preparation
+		String phone = "(258) 847651504";
+
+		// Method call
+		PhoneNumberToken token = PhoneNumberTokenizer.tokenize(phone);
+
+		// Verification
+		assertThat(PhoneNumberTokenizer.tokenize(phone)).isSameAs(token);
+		assertThat(token.toString()).isEqualTo("258847651504");
+		assertThat(PhoneNumberTokenizer.tokenize("(258) 042423566").toString()).isEqualTo("258042423566");
+	}
+
+	/**
+	 * Validate the format flag is equivalent to the phone regular expression
+	 */
+	@Test
+	public void givenRandomPhones_whenTokenize_thenWellFormedMatchesRegex() {
+		// Data preparation
+		Random random = new Random(20210225L);
+		PhoneNumberToken token = new PhoneNumberToken();
+		char[] phone = new char[24];
+
+		for (int i = 0; i < 200_000; i++) {
+			int length = random.nextInt(phone.length);
+			for (int j = 0; j < length; j++)
+				phone[j] = random.nextBoolean() && j > 0 ? phone[j - 1] : ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+			if (length > 0 && random.nextInt(4) == 0)
+				phone[0] = '(';
+			String value = new String(phone, 0, length);
+
+			// Method call
+			PhoneNumberTokenizer.tokenize(value, token);
+
+			// Verification
+			assertThat(token.isWellFormed())
+					.as("Phone '%s'", value)
+					.isEqualTo(PHONE_PATTERN.matcher(value).matches());
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.sayedbaladoh.phonenumbers.phone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sayedbaladoh.phonenumbers.model.Country;
+import com.sayedbaladoh.phonenumbers.model.PhoneState;
+import com.sayedbaladoh.phonenumbers.registry.CountryRegistry;
+import com.sayedbaladoh.phonenumbers.repository.CountryRepository;
+
+/**
+ * Phone Validity Engine units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class PhoneValidityEngineTest {
+
+	private CountryRegistry countryRegistry;
+	private PhoneValidityEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		// Data preparation
+		CountryRepository countryRepository = Mockito.mock(CountryRepository.class);
+		Mockito.when(countryRepository.findAll(any(Sort.class))).thenReturn(Arrays.asList(
+				new Country(13L, "Australia", "AU", "AUS", "61"),
+				new Country(39L, "Canada", "CA", "CAN", "1"),
+				new Country(46L, "Christmas Island", "CX", "CXR", "61"),
+				new Country(62L, "Egypt", "EG", "EGY", "20"),
+				new Country(142L, "Morocco", "MA", "MAR", "212"),
+				new Country(232L, "United States", "US", "USA", "1"),
+				new Country(240L, "Western Sahara", "EH", "ESH", "212")));
+		countryRegistry = new CountryRegistry();
+		ReflectionTestUtils.setField(countryRegistry, "countryRepository", countryRepository);
+		countryRegistry.reload();
+
+		engine = getEngine(Arrays.asList(new NationalNumberRule("212", 9, 9, "56789")));
+	}
+
+	/**
+	 * Validate the phone is classified by the rule of its dial code
+	 */
+	@Test
+	public void givenPhoneWithRule_whenClassify_thenReturnCountryAndState() {
+		assertClassification("(212) 698054317", "Morocco", PhoneState.VALID);
+		assertClassification("00212 698-054-317", "Morocco", PhoneState.VALID);
+		assertClassification("(212) 6007989253", "Morocco", PhoneState.NOT_VALID);
+		assertClassification("(212) 498054317", "Morocco", PhoneState.NOT_VALID);
+	}
+
+	/**
+	 * Validate a country without a rule only gets the length check
+	 */
+	@Test
+	public void givenPhoneWithoutRule_whenClassify_thenCheckLengthOnly() {
+		assertClassification("(20) 1235478915", "Egypt", PhoneState.VALID);
+		assertClassification("(20) 123", "Egypt", PhoneState.NOT_VALID);
+		assertClassification("(20) 123456789012345", "Egypt", PhoneState.NOT_VALID);
+	}
+
+	/**
+	 * Validate unknown dial codes, malformed and empty phones are not valid
+	 */
+	@Test
+	public void givenUnknownOrMalformedPhone_whenClassify_thenReturnNotValid() {
+		assertClassification(null, null, PhoneState.NOT_VALID);
+		assertClassification("", null, PhoneState.NOT_VALID);
+		assertClassification("  ", null, PhoneState.NOT_VALID);
+		assertClassification("phone", null, PhoneState.NOT_VALID);
+		assertClassification("(999) 698054317", null, PhoneState.NOT_VALID);
+		assertClassification("(212)", "Morocco", PhoneState.NOT_VALID);
+		assertClassification("(212) 6980543x7", "Morocco", PhoneState.NOT_VALID);
+	}
+
+	/**
+	 * Validate a shared dial code is resolved by the national prefix
+	 */
+	@Test
+	public void givenSharedDialCode_whenClassify_thenResolveCountryByNationalPrefix() {
+		assertClassification("(1) 202 555 0100", "United States", PhoneState.VALID);
+		assertClassification("+1 416 555 0100", "Canada", PhoneState.VALID);
+		assertClassification("(212) 528894321", "Western Sahara", PhoneState.VALID);
+		assertClassification("(212) 6007989253", "Morocco", PhoneState.NOT_VALID);
+	}
+
+	/**
+	 * Validate a shared dial code without a country rule isn't resolved to the
+	 * first of its countries
+	 */
+	@Test
+	public void givenSharedDialCodeWithoutRule_whenClassify_thenReturnNoCountry() {
+		assertClassification("(61) 891640100", null, PhoneState.VALID);
+	}
+
+	/**
+	 * Validate two rules for the same dial code are rejected
+	 */
+	@Test
+	public void givenDuplicateRules_whenInit_thenThrowIllegalStateException() {
+		assertThatThrownBy(() -> getEngine(Arrays.asList(
+				new NationalNumberRule("212", 9, 9, null),
+				new NationalNumberRule("212", 8, 8, null))))
+						.isInstanceOf(IllegalStateException.class)
+						.hasMessageContaining("212");
+	}
+
+	private void assertClassification(String phone, String country, PhoneState state) {
+		PhoneClassification classification = engine.classify(phone);
+		assertThat(classification.getCountry()).as(phone).isEqualTo(country);
+		assertThat(classification.getState()).as(phone).isEqualTo(state);
+	}
+
+	private PhoneValidityEngine getEngine(List<PhoneValidityRule> rules) {
+		PhoneValidityEngine phoneValidityEngine = new PhoneValidityEngine();
+		ReflectionTestUtils.setField(phoneValidityEngine, "countryRegistry", countryRegistry);
+		ReflectionTestUtils.setField(phoneValidityEngine, "phoneValidityRules", rules);
+		ReflectionTestUtils.setField(phoneValidityEngine, "phoneCountryRules", Arrays.asList(
+				new NationalPrefixRule("1", Collections.singletonMap("416", "CA"), "US"),
+				new NationalPrefixRule("212", Collections.singletonMap("5288", "EH"), "MA")));
+		phoneValidityEngine.init();
+		return phoneValidityEngine;
+	}
+}
@@ -0,0 +1,112 @@
+package com.sayedbaladoh.phonenumbers.registry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sayedbaladoh.phonenumbers.model.Country;
+import com.sayedbaladoh.phonenumbers.repository.CountryRepository;
+
+/**
+ * Country Registry units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class CountryRegistryTest {
+
+	private CountryRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		// Data preparation
+		CountryRepository countryRepository = Mockito.mock(CountryRepository.class);
+		Mockito.when(countryRepository.findAll(any(Sort.class))).thenReturn(Arrays.asList(
+				getCountry(230L, "United States", "US", "USA", "1"),
+				getCountry(38L, "Canada", "CA", "CAN", "1"),
+				getCountry(142L, "Morocco", "MA", "MAR", "212")));
+
+		registry = new CountryRegistry();
+		ReflectionTestUtils.setField(registry, "countryRepository", countryRepository);
+		registry.reload();
+	}
+
+	/**
+	 * Validate the countries are found by each code, the lowest Id winning a
+	 * shared dial code
+	 */
+	@Test
+	public void givenCountries_whenGetByCode_thenReturnCountry() {
+		assertThat(registry.getByAlpha2Code("MA")).map(Country::getName).contains("Morocco");
+		assertThat(registry.getByAlpha3Code("USA")).map(Country::getName).contains("United States");
+		assertThat(registry.getByIsd("1")).map(Country::getName).contains("Canada");
+		assertThat(registry.existsByIsd("212")).isTrue();
+		assertThat(registry.existsByAlpha2Code("US")).isTrue();
+	}
+
+	/**
+	 * Validate unknown and null codes are not found
+	 */
+	@Test
+	public void givenUnknownCode_whenGetByCode_thenReturnEmpty() {
+		assertThat(registry.getByAlpha2Code("XX")).isEmpty();
+		assertThat(registry.getByAlpha2Code("ma")).isEmpty();
+		assertThat(registry.getByAlpha3Code(null)).isEmpty();
+		assertThat(registry.getByIsd("999")).isEmpty();
+		assertThat(registry.getByIsd("")).isEmpty();
+		assertThat(registry.existsByIsd(null)).isFalse();
+		assertThat(registry.existsByAlpha3Code("XXX")).isFalse();
+	}
+
+	/**
+	 * Validate the dial code of malformed or empty phones is not resolved
+	 */
+	@Test
+	public void givenMalformedPhone_whenResolveDialCode_thenReturnNull() {
+		assertThat(registry.resolveDialCode("(212) 698054317").getCountry().getAlpha2Code()).isEqualTo("MA");
+		assertThat(registry.resolveDialCode("")).isNull();
+		assertThat(registry.resolveDialCode("   ")).isNull();
+		assertThat(registry.resolveDialCode("abc")).isNull();
+		assertThat(registry.resolveDialCode("(999) 698054317")).isNull();
+	}
+
+	/**
+	 * Validate the looked up countries are copies of the snapshot
+	 */
+	@Test
+	public void givenLookedUpCountry_whenModified_thenSnapshotUnchanged() {
+		// Method call
+		registry.getByAlpha2Code("MA").get().setName("Changed");
+
+		// Verification
+		assertThat(registry.getByAlpha2Code("MA")).map(Country::getName).contains("Morocco");
+	}
+
+	/**
+	 * Validate put and remove publish a new snapshot with the dial codes
+	 */
+	@Test
+	public void givenPutAndRemove_whenGetByCode_thenReturnUpdatedCountries() {
+		// Method call
+		registry.put(getCountry(62L, "Egypt", "EG", "EGY", "20"));
+		registry.remove(38L);
+		registry.remove(-1L);
+
+		// Verification
+		assertThat(registry.getByAlpha2Code("EG")).map(Country::getName).contains("Egypt");
+		assertThat(registry.resolveDialCode("(20) 1235478915").getIsd()).isEqualTo("20");
+		assertThat(registry.getByAlpha2Code("CA")).isEmpty();
+		assertThat(registry.getByIsd("1")).map(Country::getName).contains("United States");
+	}
+
+	private Country getCountry(Long id, String name, String alpha2Code, String alpha3Code, String isd) {
+		return new Country(id, name, alpha2Code, alpha3Code, isd);
+	}
+}
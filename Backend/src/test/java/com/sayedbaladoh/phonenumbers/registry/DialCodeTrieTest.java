@@ -0,0 +1,105 @@
+package com.sayedbaladoh.phonenumbers.registry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sayedbaladoh.phonenumbers.model.Country;
+import com.sayedbaladoh.phonenumbers.model.DialCode;
+
+/**
+ * Dial Code Trie units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class DialCodeTrieTest {
+
+	private DialCodeTrie trie;
+
+	@BeforeEach
+	void setUp() {
+		// Data preparation
+		List<Country> countries = Arrays.asList(
+				getCountry(38L, "Canada", "CA", "CAN", "1"),
+				getCountry(62L, "Egypt", "EG", "EGY", "20"),
+				getCountry(142L, "Morocco", "MA", "MAR", "212"),
+				getCountry(222L, "Trinidad and Tobago", "TT", "TTO", "1868"),
+				getCountry(226L, "Uganda", "UG", "UGA", "256"),
+				getCountry(230L, "United States", "US", "USA", "1"),
+				getCountry(231L, "Invalid", "XX", "XXX", "n/a"));
+
+		trie = DialCodeTrie.of(countries);
+	}
+
+	/**
+	 * Validate the dial code wrapped in parentheses is resolved
+	 */
+	@Test
+	public void givenPhoneWithDialCodeInParentheses_whenResolve_thenReturnDialCode() {
+		// Method call
+		DialCode dialCode = trie.resolve("(212) 6007989253");
+
+		// Verification
+		assertThat(dialCode).isNotNull();
+		assertThat(dialCode.getIsd()).isEqualTo("212");
+		assertThat(dialCode.getCountry().getAlpha2Code()).isEqualTo("MA");
+	}
+
+	/**
+	 * Validate raw and international phone formats are resolved
+	 */
+	@Test
+	public void givenRawPhone_whenResolve_thenReturnDialCode() {
+		assertThat(trie.resolve("2126007989253").getIsd()).isEqualTo("212");
+		assertThat(trie.resolve("+20 123-547-8915").getIsd()).isEqualTo("20");
+		assertThat(trie.resolve("0020.123.547.8915").getIsd()).isEqualTo("20");
+		assertThat(trie.resolve("(256) 7503O6263").getIsd()).isEqualTo("256");
+	}
+
+	/**
+	 * Validate the longest overlapping dial code wins
+	 */
+	@Test
+	public void givenOverlappingDialCodes_whenResolve_thenReturnLongestPrefix() {
+		assertThat(trie.resolve("+1 868 555 0100").getIsd()).isEqualTo("1868");
+		assertThat(trie.resolve("(1) 868 555 0100").getIsd()).isEqualTo("1868");
+		assertThat(trie.resolve("(1) 202 555 0100").getIsd()).isEqualTo("1");
+	}
+
+	/**
+	 * Validate countries sharing a dial code are kept in Id order
+	 */
+	@Test
+	public void givenSharedDialCode_whenResolve_thenReturnAllCountries() {
+		// Method call
+		DialCode dialCode = trie.resolve("(1) 202 555 0100");
+
+		// Verification
+		assertThat(dialCode.getCountries())
+				.extracting(Country::getAlpha2Code)
+				.containsExactly("CA", "US");
+		assertThat(dialCode.getCountry().getAlpha2Code()).isEqualTo("CA");
+	}
+
+	/**
+	 * Validate unknown dial codes are not resolved
+	 */
+	@Test
+	public void givenUnknownDialCode_whenResolve_thenReturnNull() {
+		assertThat(trie.resolve(null)).isNull();
+		assertThat(trie.resolve("")).isNull();
+		assertThat(trie.resolve("999 123 456")).isNull();
+		assertThat(trie.resolve("(21) 26007989253")).isNull();
+		assertThat(trie.resolve("(2126) 007989253")).isNull();
+		assertThat(trie.resolve("(212 6007989253")).isNull();
+	}
+
+	private Country getCountry(Long id, String name, String alpha2Code, String alpha3Code, String isd) {
+		return new Country(id, name, alpha2Code, alpha3Code, isd);
+	}
+}
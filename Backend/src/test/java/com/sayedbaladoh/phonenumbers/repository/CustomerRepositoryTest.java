@@ -17,6 +17,8 @@ import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.sayedbaladoh.phonenumbers.model.Customer;
@@ -61,6 +63,71 @@ class CustomerRepositoryTest {
 				.containsOnly(customer1.getName(), customer2.getName(), customer3.getName());
 	}
 
+	/**
+	 * Validate keyset pagination by name continues after the last customer
+	 */
+	@Test
+	public void givenSetOfCustomers_whenScrollByName_thenReturnSlicesInOrder() {
+		// Data preparation
+		Customer customer1 = getCustomer("Keyset Sara", "(20) 1235478931", "keyset1@test.com", "female", "EG");
+		Customer customer2 = getCustomer("Keyset Ahmed", "(20) 1235478932", "keyset2@test.com", "male", "EG");
+		Customer customer3 = getCustomer("Keyset Mona", "(20) 1235478933", "keyset3@test.com", "female", "EG");
+
+		customerRepository.save(customer1);
+		customerRepository.save(customer2);
+		customerRepository.save(customer3);
+
+		PageRequest pageable = PageRequest.of(0, 2, Sort.by("name", "id"));
+
+		// Method call
+		Slice<Customer> first = customerRepository.scrollByNameContainsByName("keyset", "", Long.MIN_VALUE,
+				pageable);
+		Customer last = first.getContent().get(1);
+		Slice<Customer> second = customerRepository.scrollByNameContainsByName("keyset", last.getName(),
+				last.getId(), pageable);
+
+		// Verification
+		assertThat(first.getContent())
+				.extracting(Customer::getName)
+				.containsExactly(customer2.getName(), customer3.getName());
+		assertThat(first.hasNext()).isTrue();
+		assertThat(second.getContent())
+				.extracting(Customer::getName)
+				.containsExactly(customer1.getName());
+		assertThat(second.hasNext()).isFalse();
+	}
+
+	/**
+	 * Validate keyset pagination by country code ignores the case of the code
+	 */
+	@Test
+	public void givenSetOfCustomers_whenScrollByLowerCaseCountryCode_thenReturnSlicesInOrder() {
+		// Data preparation
+		Customer customer1 = getCustomer("Keyset Sara", "(20) 1235478931", "keyset1@test.com", "female", "EG");
+		Customer customer2 = getCustomer("Keyset Ahmed", "(20) 1235478932", "keyset2@test.com", "male", "EG");
+		Customer customer3 = getCustomer("Keyset Mona", "(212) 698054331", "keyset3@test.com", "female", "MA");
+
+		customerRepository.save(customer1);
+		customerRepository.save(customer2);
+		customerRepository.save(customer3);
+
+		// Method call
+		Slice<Customer> byName = customerRepository.scrollByCountryCodeByName("eg", "", Long.MIN_VALUE,
+				PageRequest.of(0, 1000, Sort.by("name", "id")));
+		Slice<Customer> byId = customerRepository.scrollByCountryCodeById("eg", Long.MIN_VALUE,
+				PageRequest.of(0, 1000, Sort.by("id")));
+
+		// Verification
+		assertThat(byName.getContent())
+				.filteredOn(customer -> customer.getName().startsWith("Keyset "))
+				.extracting(Customer::getName)
+				.containsExactly(customer2.getName(), customer1.getName());
+		assertThat(byId.getContent())
+				.filteredOn(customer -> customer.getName().startsWith("Keyset "))
+				.extracting(Customer::getName)
+				.containsExactly(customer1.getName(), customer2.getName());
+	}
+
 	/**
 	 * Validate findById with valid Id
 	 */
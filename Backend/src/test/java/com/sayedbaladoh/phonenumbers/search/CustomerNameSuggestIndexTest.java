@@ -0,0 +1,79 @@
+package com.sayedbaladoh.phonenumbers.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.sayedbaladoh.phonenumbers.model.CustomerSuggestion;
+
+/**
+ * Customer Name Suggest Index units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class CustomerNameSuggestIndexTest {
+
+	/**
+	 * Validate the suggestions match the prefix of any name word, ignoring the
+	 * case, each customer once
+	 */
+	@Test
+	public void givenCustomers_whenSuggest_thenReturnNamesWithWordPrefix() {
+		// Data preparation
+		CustomerNameSuggestIndex index = new CustomerNameSuggestIndex();
+		index.add(1L, "Mohamed Ahmed");
+		index.add(2L, "Ahmed Mahmoud");
+		index.add(3L, "Sara Ahmed");
+		index.add(4L, "Ahmad Ahmed");
+
+		// Method call and Verification
+		assertThat(index.suggest("AHME", 10)).extracting(CustomerSuggestion::getId)
+				.containsExactly(1L, 3L, 4L, 2L);
+		assertThat(index.suggest("ahmed ma", 10)).extracting(CustomerSuggestion::getName)
+				.containsExactly("Ahmed Mahmoud");
+		assertThat(index.suggest("ahm", 2)).hasSize(2);
+		assertThat(index.suggest("hmed", 10)).isEmpty();
+		assertThat(index.suggest(" ", 10)).isEmpty();
+	}
+
+	/**
+	 * Validate the suggestions follow the renamed and deleted customers
+	 */
+	@Test
+	public void givenCustomerChanges_whenSuggest_thenReturnCurrentNames() {
+		// Data preparation
+		CustomerNameSuggestIndex index = new CustomerNameSuggestIndex();
+		index.add(1L, "Mohamed Ahmed");
+		index.add(2L, "Ahmed Mahmoud");
+
+		// Method call
+		index.update(1L, "Mohamed Ahmed", "Mohamed Salah");
+		index.delete(2L, "Ahmed Mahmoud");
+
+		// Verification
+		assertThat(index.suggest("ahmed", 10)).isEmpty();
+		assertThat(index.suggest("sal", 10)).extracting(CustomerSuggestion::getName)
+				.containsExactly("Mohamed Salah");
+	}
+
+	/**
+	 * Validate a customer renamed by Id replaces its indexed name
+	 */
+	@Test
+	public void givenRenameById_whenSuggest_thenReturnNewNameOnly() {
+		// Data preparation
+		CustomerNameSuggestIndex index = new CustomerNameSuggestIndex();
+		index.add(1L, "Mohamed Ahmed");
+
+		// Method call
+		index.update(1L, "Mohamed Salah");
+		index.update(2L, "Sara Ahmed");
+
+		// Verification
+		assertThat(index.suggest("mohamed", 10)).extracting(CustomerSuggestion::getName)
+				.containsExactly("Mohamed Salah");
+		assertThat(index.suggest("ahmed", 10)).extracting(CustomerSuggestion::getId)
+				.containsExactly(2L);
+	}
+}
@@ -8,8 +8,12 @@ import static org.mockito.ArgumentMatchers.any;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,8 +31,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.sayedbaladoh.phonenumbers.availability.CustomerIdentityFilter;
+import com.sayedbaladoh.phonenumbers.cache.CustomerCache;
 import com.sayedbaladoh.phonenumbers.model.Customer;
+import com.sayedbaladoh.phonenumbers.model.CustomerFields;
+import com.sayedbaladoh.phonenumbers.reader.CustomerProjectionReader;
 import com.sayedbaladoh.phonenumbers.repository.CustomerRepository;
+import com.sayedbaladoh.phonenumbers.writer.CustomerStatementWriter;
 
 /**
  * Customer Service Implementation units' test
@@ -55,6 +64,18 @@ class CustomerServiceImpTest {
 	@MockBean
 	private CustomerRepository customerRepository;
 
+	@MockBean
+	private CustomerIdentityFilter customerIdentityFilter;
+
+	@MockBean
+	private CustomerCache customerCache;
+
+	@MockBean
+	private CustomerStatementWriter customerStatementWriter;
+
+	@MockBean
+	private CustomerProjectionReader customerProjectionReader;
+
 	private final Long INVALID_ID = -1L;
 	private final Long FIRST_CUSTOMER_ID = 1L;
 	private Customer customer1;
@@ -73,6 +94,8 @@ class CustomerServiceImpTest {
 		Mockito.when(customerRepository.findById(customer1.getId())).thenReturn(Optional.of(customer1));
 		Mockito.when(customerRepository.getOne(customer1.getId())).thenReturn(customer1);
 		Mockito.when(customerRepository.findAll(any(Pageable.class))).thenReturn(customersPage);
+		Mockito.when(customerProjectionReader.findAll(any(CustomerFields.class), any(Pageable.class)))
+				.thenReturn(customersPage.map(customer -> Collections.singletonMap("name", customer.getName())));
 		Mockito.when(customerRepository.findById(INVALID_ID)).thenReturn(Optional.empty());
 
 		Mockito.when(customerRepository.existsByEmail(customer1.getEmail())).thenReturn(true);
@@ -84,6 +107,22 @@ class CustomerServiceImpTest {
 		Mockito.when(customerRepository.existsByPhone("wrong_phone_number")).thenReturn(false);
 
 		Mockito.when(customerRepository.save(any(Customer.class))).thenReturn(customer1);
+
+		// The filter finds every value possibly taken, all checks reach the repository
+		Mockito.when(customerIdentityFilter.isEmailTaken(any(), any()))
+				.thenAnswer(invocation -> invocation.<Predicate<String>>getArgument(1)
+						.test(invocation.getArgument(0)));
+		Mockito.when(customerIdentityFilter.isPhoneTaken(any(), any()))
+				.thenAnswer(invocation -> invocation.<Predicate<String>>getArgument(1)
+						.test(invocation.getArgument(0)));
+
+		// Every read misses the cache
+		Mockito.when(customerCache.get(any(), any()))
+				.thenAnswer(invocation -> invocation.<Function<Long, Optional<Customer>>>getArgument(1)
+						.apply(invocation.getArgument(0)));
+		Mockito.when(customerCache.getByPhone(any(), any()))
+				.thenAnswer(invocation -> invocation.<Function<String, Optional<Customer>>>getArgument(1)
+						.apply(invocation.getArgument(0)));
 	}
 
 	/**
@@ -93,17 +132,18 @@ class CustomerServiceImpTest {
 	public void given3Customers_whenGetAll_thenReturn3Records() {
 
 		// Method call
-		Page<Customer> allCustomers = customerService.getAll(PageRequest.of(0, 5));
+		Page<Map<String, Object>> allCustomers = customerService.getAll(CustomerFields.of("name"),
+				PageRequest.of(0, 5));
 
 		// Verification
 		assertThat(allCustomers.getContent())
 				.hasSize(3)
-				.extracting(Customer::getName)
+				.extracting(customer -> customer.get("name"))
 				.contains("Mohamed Ahmed", "Ahmed Mahmoud", "Sara Ahmed");
 
-		Mockito.verify(customerRepository, Mockito.times(1)).findAll(PageRequest.of(0, 5));
-		Mockito.verifyNoMoreInteractions(customerRepository);
-		Mockito.reset(customerRepository);
+		Mockito.verify(customerProjectionReader, Mockito.times(1)).findAll(any(CustomerFields.class),
+				Mockito.eq(PageRequest.of(0, 5)));
+		Mockito.verifyNoInteractions(customerRepository);
 	}
 
 	/**
@@ -227,13 +267,32 @@ class CustomerServiceImpTest {
 	public void whenValidCustomer_thenCustomerShouldBeRemoved() {
 		// Data preparation
 		Long customerId = customer1.getId();
+		Mockito.when(customerStatementWriter.delete(customerId)).thenReturn(Optional.of(customer1));
 
 		// Method call
-		customerService.delete(customerId);
+		boolean deleted = customerService.delete(customerId);
 
 		// Verification
-		Mockito.verify(customerRepository, Mockito.times(1)).deleteById(customerId);
-		Mockito.verifyNoMoreInteractions(customerRepository);
+		assertThat(deleted).isTrue();
+		Mockito.verify(customerStatementWriter, Mockito.times(1)).delete(customerId);
+		Mockito.verify(customerCache, Mockito.times(1)).evict(customerId, customer1.getPhone());
+		Mockito.verifyNoInteractions(customerRepository);
+	}
+
+	/**
+	 * Validate delete customer with invalid customer Id
+	 */
+	@Test
+	public void whenInValidCustomer_thenCustomerShouldNotBeRemoved() {
+		// Data preparation
+		Mockito.when(customerStatementWriter.delete(INVALID_ID)).thenReturn(Optional.empty());
+
+		// Method call
+		boolean deleted = customerService.delete(INVALID_ID);
+
+		// Verification
+		assertThat(deleted).isFalse();
+		Mockito.verify(customerCache, Mockito.never()).evict(any(), any());
 	}
 
 	/**
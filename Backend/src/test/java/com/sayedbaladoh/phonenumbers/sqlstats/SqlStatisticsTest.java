@@ -0,0 +1,80 @@
+package com.sayedbaladoh.phonenumbers.sqlstats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * SQL Statistics units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class SqlStatisticsTest {
+
+	/**
+	 * Validate the literals, comments, whitespace and lists are normalized
+	 */
+	@Test
+	public void givenStatementsWithValues_whenFingerprint_thenReturnSameFingerprint() {
+		// Method call
+		String first = SqlFingerprint.of("SELECT * FROM customers\n WHERE id IN (1, 2, 3) AND name = 'O''Neil'");
+		String second = SqlFingerprint.of("select * from customers where id in (?) /* by ids */ and name = ?");
+		String insert = SqlFingerprint.of("INSERT INTO t (a, b) VALUES (?, ?), (?, ?), (?, ?)");
+
+		// Verification
+		assertThat(first).isEqualTo("SELECT * FROM customers WHERE id IN (?, ...) AND name = ?");
+		assertThat(second).isEqualTo("select * from customers where id in (?) and name = ?");
+		assertThat(insert).isEqualTo("INSERT INTO t (a, b) VALUES (?, ...), ...");
+		assertThat(SqlFingerprint.of("SELECT c2 FROM \"t 1\" WHERE x = -10.5"))
+				.isEqualTo("SELECT c2 FROM \"t 1\" WHERE x = -?");
+	}
+
+	/**
+	 * Validate the executions are aggregated by fingerprint with their p99
+	 */
+	@Test
+	public void givenExecutions_whenGetStatements_thenReturnAggregatesByTotalTime() {
+		// Data preparation
+		SqlStatistics statistics = new SqlStatistics();
+		ReflectionTestUtils.setField(statistics, "maxFingerprints", 2);
+		for (int i = 1; i <= 100; i++)
+			statistics.record("SELECT ?", i * 1_000_000L, 1);
+		statistics.record("UPDATE t SET a = ?", 1_000_000L, 3);
+		statistics.record("DELETE FROM t", 2_000_000L, 5);
+
+		// Method call
+		List<SqlStatementStats> statements = statistics.getStatements(10);
+
+		// Verification
+		assertThat(statements).extracting(SqlStatementStats::getFingerprint)
+				.containsExactly("SELECT ?", SqlStatistics.OTHER, "UPDATE t SET a = ?");
+		SqlStatementStats select = statements.get(0);
+		assertThat(select.getCalls()).isEqualTo(100);
+		assertThat(select.getRows()).isEqualTo(100);
+		assertThat(select.getTotalMillis()).isEqualTo(5050.0);
+		assertThat(select.getMeanMillis()).isEqualTo(50.5);
+		assertThat(select.getMaxMillis()).isEqualTo(100.0);
+		assertThat(select.getP99Millis()).isBetween(99.0, 99.0 * 1.125);
+		assertThat(statements.get(1).getRows()).isEqualTo(5);
+	}
+
+	/**
+	 * Validate each value falls within its bucket bounds
+	 */
+	@Test
+	public void givenValues_whenBucket_thenValueWithinBucketBounds() {
+		for (long value : new long[] { 0, 1, 7, 8, 15, 16, 1000, 123_456_789, Long.MAX_VALUE }) {
+			// Method call
+			int bucket = SqlStatistics.bucket(value);
+
+			// Verification
+			assertThat(SqlStatistics.bucketUpperBound(bucket)).isGreaterThanOrEqualTo(value);
+			if (bucket > 0)
+				assertThat(SqlStatistics.bucketUpperBound(bucket - 1)).isLessThan(value);
+		}
+	}
+}
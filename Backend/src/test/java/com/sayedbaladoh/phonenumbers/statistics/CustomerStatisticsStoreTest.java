@@ -0,0 +1,93 @@
+package com.sayedbaladoh.phonenumbers.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.sayedbaladoh.phonenumbers.model.CustomerCountryStatistics;
+
+/**
+ * Customer Statistics Store units' test
+ *
+ * @author Sayed Baladoh
+ *
+ */
+class CustomerStatisticsStoreTest {
+
+	/**
+	 * Validate the counters follow the saved, moved and deleted customers
+	 */
+	@Test
+	public void givenCustomerChanges_whenGetCountByCountryCode_thenReturnMostCommonFirst() {
+		// Data preparation
+		CustomerStatisticsStore store = new CustomerStatisticsStore();
+		store.increment("MA");
+		store.increment("EG");
+		store.increment("EG");
+		store.increment(null);
+		store.increment("CM");
+
+		// Method call
+		store.move("CM", "MA");
+		store.move(null, null);
+		store.decrement("EG");
+
+		// Verification
+		assertThat(store.getCountByCountryCode())
+				.extracting(CustomerCountryStatistics::getCountryCode, CustomerCountryStatistics::getCount)
+				.containsExactly(tuple("MA", 2L), tuple(null, 1L), tuple("EG", 1L));
+	}
+
+	/**
+	 * Validate the reconciled counters are the table counts plus the changes
+	 * counted while the table is read
+	 *
+	 * @throws SQLException
+	 */
+	@Test
+	public void givenChangesWhileReading_whenReconcile_thenKeepChanges() throws SQLException {
+		// Data preparation
+		CustomerStatisticsStore store = new CustomerStatisticsStore();
+		JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+		ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+		PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+		ReflectionTestUtils.setField(store, "transactionManager", transactionManager);
+		store.init();
+		store.increment("CM");
+		store.increment("MA");
+
+		ResultSet rs = Mockito.mock(ResultSet.class);
+		Mockito.when(rs.getString(1)).thenReturn("MA", "EG");
+		Mockito.when(rs.getLong(2)).thenReturn(3L, 1L);
+		Mockito.doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			handler.processRow(rs);
+			store.increment("EG");
+			store.move("MA", "UG");
+			handler.processRow(rs);
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+		// Method call
+		store.reconcile();
+
+		// Verification
+		assertThat(store.getCountByCountryCode())
+				.extracting(CustomerCountryStatistics::getCountryCode, CustomerCountryStatistics::getCount)
+				.containsExactly(tuple("EG", 2L), tuple("MA", 2L), tuple("UG", 1L));
+		Mockito.verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+	}
+}
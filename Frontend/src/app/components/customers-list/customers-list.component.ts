@@ -37,6 +37,8 @@ export class CustomersListComponent implements OnInit {
       params[`size`] = pageSize;
     }
 
+    params[`fields`] = 'id,name,phone,country_code';
+
     return params;
   }
 
@@ -114,6 +116,17 @@ export class CustomersListComponent implements OnInit {
   setActiveCustomer(customer, index): void {
     this.currentCustomer = customer;
     this.currentIndex = index;
+
+    this.customerService.get(customer.id)
+      .subscribe(
+        response => {
+          if (this.currentIndex === index) {
+            this.currentCustomer = response;
+          }
+        },
+        error => {
+          console.log(error);
+        });
   }
 
 }